@@ -0,0 +1,142 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import auca.ac.urbanfarmingmgt.Model.*;
+import auca.ac.urbanfarmingmgt.Repository.*;
+import auca.ac.urbanfarmingmgt.Services.CropService;
+import auca.ac.urbanfarmingmgt.Services.SustainabilityService;
+import org.springframework.context.ApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+// Writes a repeatable data set sized from one scale number: scale farms, each with CROPS_PER_FARM crops,
+// every crop with HARVESTS_PER_CROP harvests and METRICS_PER_CROP metrics, plus staff, orders and a client per farm.
+// Rows go in through the repositories in batches; crop yield totals and the leaderboard are rebuilt afterwards.
+public class DataGenerator {
+
+    static final int CROPS_PER_FARM = 5;
+    static final int HARVESTS_PER_CROP = 20;
+    static final int METRICS_PER_CROP = 5;
+    static final int STAFF_PER_FARM = 3;
+    static final int ORDERS_PER_FARM = 10;
+    static final int FARMS_PER_INVENTORY = 5;
+
+    static final List<String> CROP_TYPES = List.of("Tomato", "Lettuce", "Kale", "Spinach", "Pepper", "Bean", "Carrot", "Basil");
+    static final List<String> SEASONS = List.of("Spring", "Summer", "Autumn", "Winter");
+    static final List<String> LOCATIONS = List.of("Rooftop", "Greenhouse", "Vertical rack", "Backyard bed");
+    static final List<String> ROLES = List.of("Manager", "Grower", "Volunteer", "Volunteer coordinator");
+
+    private static final Instant FIRST_HARVEST = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration HARVEST_SPAN = Duration.ofDays(730);
+
+    private final ApplicationContext context;
+    private final Random random;
+
+    public DataGenerator(ApplicationContext context, long seed) {
+        this.context = context;
+        this.random = new Random(seed);
+    }
+
+    public SeededData seed(int scale) {
+        List<Inventory> inventories = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, scale / FARMS_PER_INVENTORY); i++) {
+            // Plenty to take orders from for the whole run
+            inventories.add(Inventory.builder().quantity(1_000_000_000.0).stock(0).freshnessStatus(true)
+                    .produceType(pick(CROP_TYPES)).storageLocation("Store " + i).build());
+        }
+        inventories = repository(InventoryRepository.class).saveAll(inventories);
+
+        List<Farm> farms = new ArrayList<>();
+        for (int i = 0; i < scale; i++) {
+            farms.add(Farm.builder().name("Farm " + i).location(pick(LOCATIONS) + " " + i)
+                    .totalPlantingArea(50 + random.nextDouble() * 950).build());
+        }
+        farms = repository(FarmRepository.class).saveAll(farms);
+
+        List<Crop> crops = new ArrayList<>();
+        for (int i = 0; i < farms.size(); i++) {
+            for (int c = 0; c < CROPS_PER_FARM; c++) {
+                crops.add(Crop.builder().cropType(pick(CROP_TYPES)).growingSeason(pick(SEASONS))
+                        .locationRequirement(pick(LOCATIONS)).growingConditions(random.nextBoolean())
+                        .plantingSchedule(harvestDate()).averageYield(0.0)
+                        .farm(farms.get(i)).inventory(inventories.get(i / FARMS_PER_INVENTORY % inventories.size())).build());
+            }
+        }
+        crops = repository(CropRepository.class).saveAll(crops);
+
+        List<Harvest> harvests = new ArrayList<>();
+        List<SustainabilityMetric> metrics = new ArrayList<>();
+        for (Crop crop : crops) {
+            for (int h = 0; h < HARVESTS_PER_CROP; h++) {
+                harvests.add(Harvest.builder().date(harvestDate()).yield(1 + random.nextDouble() * 99)
+                        .qualityRating(1 + random.nextInt(5))
+                        .crop(crop).farm(crop.getFarm()).inventory(crop.getInventory()).build());
+            }
+            for (int m = 0; m < METRICS_PER_CROP; m++) {
+                metrics.add(SustainabilityMetric.builder().waterUsage(random.nextDouble() * 500)
+                        .soilHealth(random.nextDouble() * 10).pesticideApplication(random.nextDouble() * 5)
+                        .energyUsage(random.nextDouble() * 200).farm(crop.getFarm()).crop(crop).build());
+            }
+        }
+        harvests = repository(HarvestRepository.class).saveAll(harvests);
+        metrics = repository(SustainabilityMetricRepository.class).saveAll(metrics);
+
+        List<StaffAndVolunteer> people = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        List<Client> clients = new ArrayList<>();
+        for (Farm farm : farms) {
+            for (int p = 0; p < STAFF_PER_FARM; p++) {
+                people.add(StaffAndVolunteer.builder().name("Person " + people.size()).role(pick(ROLES))
+                        .assignedTask(random.nextBoolean() ? "Watering, weeding" : "Harvesting")
+                        .workHours(random.nextDouble() * 60).assignedFarm(farm).build());
+            }
+            for (int o = 0; o < ORDERS_PER_FARM; o++) {
+                orders.add(Order.builder().orderDate(harvestDate()).quantityOrdered(1 + random.nextDouble() * 9)
+                        .deliveryStatus(DeliveryStatus.values()[random.nextInt(DeliveryStatus.values().length)])
+                        .inventory(inventories.get(random.nextInt(inventories.size()))).build());
+            }
+            // Every client needs an order; give each the first order of its farm
+            clients.add(Client.builder().name("Client " + clients.size()).contactInfo("client" + clients.size() + "@example.com")
+                    .orderPreferences(pick(CROP_TYPES)).paymentHistory("Paid").order(orders.get(orders.size() - ORDERS_PER_FARM)).build());
+        }
+        people = repository(StaffAndVolunteerRepository.class).saveAll(people);
+        orders = repository(OrderRepository.class).saveAll(orders);
+        clients = repository(ClientRepository.class).saveAll(clients);
+
+        context.getBean(CropService.class).recomputeYieldTotals();
+        context.getBean(SustainabilityService.class).rebuildLeaderboard();
+
+        return new SeededData(
+                ids(farms, Farm::getFarmID),
+                ids(inventories, Inventory::getInventoryID),
+                ids(crops, Crop::getCropID),
+                ids(harvests, Harvest::getHarvestID),
+                ids(metrics, SustainabilityMetric::getMetricID),
+                ids(orders, Order::getOrderID),
+                ids(people, StaffAndVolunteer::getPersonID),
+                ids(clients, Client::getClientID),
+                Date.from(FIRST_HARVEST),
+                Date.from(FIRST_HARVEST.plus(HARVEST_SPAN)));
+    }
+
+    private <R> R repository(Class<R> type) {
+        return context.getBean(type);
+    }
+
+    private Date harvestDate() {
+        return Date.from(FIRST_HARVEST.plusSeconds((long) (random.nextDouble() * HARVEST_SPAN.toSeconds())));
+    }
+
+    private String pick(List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static <T> List<Integer> ids(List<T> rows, Function<T, Integer> id) {
+        return rows.stream().map(id).toList();
+    }
+}
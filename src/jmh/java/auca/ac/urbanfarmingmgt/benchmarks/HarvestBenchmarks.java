@@ -0,0 +1,120 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import auca.ac.urbanfarmingmgt.DTO.HarvestCursorPage;
+import auca.ac.urbanfarmingmgt.DTO.HarvestView;
+import auca.ac.urbanfarmingmgt.DTO.HarvestYieldStats;
+import auca.ac.urbanfarmingmgt.Services.HarvestService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// HarvestService aggregates, finders and write paths
+public class HarvestBenchmarks extends SeededBenchmark {
+
+    private HarvestService harvestService;
+    private String secondPageCursor;
+
+    @Override
+    protected void init() {
+        harvestService = bean(HarvestService.class);
+        secondPageCursor = harvestService.getMostRecentHarvestsPage(20, null).nextCursor();
+    }
+
+    @Benchmark
+    public Double totalYield() {
+        return harvestService.getTotalYield();
+    }
+
+    @Benchmark
+    public Double totalYieldByFarm() {
+        return harvestService.getTotalYieldByFarm(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public Double totalYieldByCrop() {
+        return harvestService.getTotalYieldByCrop(pick(data.cropIDs()));
+    }
+
+    @Benchmark
+    public Double averageQualityRating() {
+        return harvestService.getAverageQualityRating();
+    }
+
+    @Benchmark
+    public HarvestYieldStats yieldStats() {
+        return harvestService.getYieldStats();
+    }
+
+    @Benchmark
+    public HarvestYieldStats yieldStatsByFarm() {
+        return harvestService.getYieldStatsByFarm(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public HarvestYieldStats yieldStatsByCrop() {
+        return harvestService.getYieldStatsByCrop(pick(data.cropIDs()));
+    }
+
+    @Benchmark
+    public HarvestView harvestById() {
+        return harvestService.getHarvestById(pick(data.harvestIDs()));
+    }
+
+    @Benchmark
+    public List<HarvestView> harvestsByFarm() {
+        return harvestService.getHarvestsByFarm(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public List<HarvestView> harvestsByCrop() {
+        return harvestService.getHarvestsByCrop(pick(data.cropIDs()));
+    }
+
+    @Benchmark
+    public List<HarvestView> harvestsByInventory() {
+        return harvestService.getHarvestsByInventory(pick(data.inventoryIDs()));
+    }
+
+    @Benchmark
+    public List<HarvestView> harvestsByQualityRating() {
+        return harvestService.getHarvestsByQualityRating(1 + ThreadLocalRandom.current().nextInt(5));
+    }
+
+    @Benchmark
+    public List<HarvestView> harvestsByDateRange() {
+        Date[] window = window();
+        return harvestService.getHarvestsByDateRange(window[0], window[1]);
+    }
+
+    @Benchmark
+    public List<HarvestView> harvestsAboveYieldThreshold() {
+        return harvestService.getHarvestsAboveYieldThreshold(95.0);
+    }
+
+    @Benchmark
+    public List<HarvestView> mostRecentHarvests() {
+        return harvestService.getMostRecentHarvests(20);
+    }
+
+    @Benchmark
+    public HarvestCursorPage mostRecentHarvestsSecondPage() {
+        return harvestService.getMostRecentHarvestsPage(20, secondPageCursor);
+    }
+
+    @Benchmark
+    public String recordYield() {
+        return harvestService.recordYield(pick(data.cropIDs()), 1 + ThreadLocalRandom.current().nextDouble() * 99, 3);
+    }
+
+    @Benchmark
+    public String updateHarvestYield() {
+        return harvestService.updateHarvestYield(pick(data.harvestIDs()), 1 + ThreadLocalRandom.current().nextDouble() * 99);
+    }
+
+    @Benchmark
+    public String updateHarvestQuality() {
+        return harvestService.updateHarvestQuality(pick(data.harvestIDs()), 1 + ThreadLocalRandom.current().nextInt(5));
+    }
+}
@@ -0,0 +1,61 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// One request type in the load test mix: its report name, HTTP method, share of the traffic and how to build a
+// path (with query) from the seeded rows
+public record LoadEndpoint(String name, String method, int weight, Function<SeededData, String> path) {
+
+    // 70% dashboard reads, 30% writes
+    public static final List<LoadEndpoint> MIX = List.of(
+            new LoadEndpoint("GET /api/farms/{id}", "GET", 25,
+                    data -> "/api/farms/" + pick(data.farmIDs())),
+            new LoadEndpoint("GET /api/harvests/total-yield/farm/{id}", "GET", 25,
+                    data -> "/api/harvests/total-yield/farm/" + pick(data.farmIDs())),
+            new LoadEndpoint("GET /api/sustainability/metrics/farm/{id}/sustainability-score", "GET", 20,
+                    data -> "/api/sustainability/metrics/farm/" + pick(data.farmIDs()) + "/sustainability-score"),
+            new LoadEndpoint("POST /api/harvests/record-yield", "POST", 15,
+                    data -> String.format(Locale.ROOT, "/api/harvests/record-yield?cropId=%d&yield=%.2f&qualityRating=%d",
+                            pick(data.cropIDs()), 1 + ThreadLocalRandom.current().nextDouble() * 99,
+                            1 + ThreadLocalRandom.current().nextInt(5))),
+            new LoadEndpoint("POST /api/clients/{id}/place-order", "POST", 15,
+                    data -> "/api/clients/" + pick(data.clientIDs()) + "/place-order?inventoryId="
+                            + pick(data.inventoryIDs()) + "&quantityOrdered=1"));
+
+    // Only the dashboard reads, in the same proportions
+    public static final List<LoadEndpoint> DASHBOARD = MIX.stream().filter(endpoint -> endpoint.method().equals("GET")).toList();
+
+    // The mix named by load.mix: "all" or "dashboard"
+    public static List<LoadEndpoint> mix(String name) {
+        return switch (name) {
+            case "all" -> MIX;
+            case "dashboard" -> DASHBOARD;
+            default -> throw new IllegalArgumentException("Unknown load mix: " + name);
+        };
+    }
+
+    // Draws an endpoint with probability proportional to its weight
+    public static LoadEndpoint next(List<LoadEndpoint> mix) {
+        int total = mix.stream().mapToInt(LoadEndpoint::weight).sum();
+        int draw = ThreadLocalRandom.current().nextInt(total);
+        for (LoadEndpoint endpoint : mix) {
+            draw -= endpoint.weight();
+            if (draw < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Empty load mix");
+    }
+
+    // File name safe form of an endpoint name, for its histogram log
+    public static String slug(String name) {
+        return name.replaceAll("[^A-Za-z0-9]+", "-").replaceAll("(^-|-$)", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Integer pick(List<Integer> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
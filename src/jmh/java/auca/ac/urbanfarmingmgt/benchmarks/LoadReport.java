@@ -0,0 +1,109 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Results of one load test run. Latencies are in milliseconds and throughput in requests per second over the
+// measured part of the run; errors are failed requests and 4xx/5xx responses.
+public record LoadReport(String startedAt, LoadTest.Settings settings, double measuredSeconds,
+                         List<Result> endpoints, Result total, @JsonIgnore Map<String, Histogram> histograms) {
+
+    private static final DateTimeFormatter RUN_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final String ROW = "%-64s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n";
+
+    public record Result(String endpoint, long requests, long errors, double throughput, double meanMs,
+                         double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        static Result of(String endpoint, Histogram micros, long errors, double seconds) {
+            return new Result(endpoint, micros.getTotalCount(), errors, micros.getTotalCount() / seconds,
+                    micros.getMean() / 1000, ms(micros, 50), ms(micros, 90), ms(micros, 99), ms(micros, 99.9),
+                    micros.getMaxValue() / 1000.0);
+        }
+
+        private static double ms(Histogram micros, double percentile) {
+            return micros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    static LoadReport of(Instant startedAt, LoadTest.Settings settings, double seconds,
+                         Map<String, Histogram> latencies, Map<String, Long> errors) {
+        List<Result> endpoints = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        latencies.forEach((endpoint, micros) -> {
+            endpoints.add(Result.of(endpoint, micros, errors.get(endpoint), seconds));
+            all.add(micros);
+        });
+        long allErrors = errors.values().stream().mapToLong(Long::longValue).sum();
+        return new LoadReport(startedAt.toString(), settings, seconds, endpoints,
+                Result.of("All", all, allErrors, seconds), latencies);
+    }
+
+    // Write report.json, report.html and the .hgrm files into a new directory named after the start time
+    Path write(Path reportDir) throws IOException {
+        Path run = Files.createDirectories(reportDir.resolve(RUN_NAME.format(Instant.parse(startedAt))));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(run.resolve("report.json").toFile(), this);
+        Files.writeString(run.resolve("report.html"), html());
+        for (Map.Entry<String, Histogram> endpoint : histograms.entrySet()) {
+            try (PrintStream out = new PrintStream(run.resolve(LoadEndpoint.slug(endpoint.getKey()) + ".hgrm").toFile())) {
+                // Scaled from microseconds to milliseconds
+                endpoint.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return run;
+    }
+
+    // Plain text table for the console
+    String summary() {
+        StringBuilder table = new StringBuilder(String.format("%-64s %9s %7s %9s %8s %8s %8s %8s %8s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "Max ms"));
+        for (Result result : rows()) {
+            table.append(String.format(Locale.ROOT, ROW, result.endpoint(), result.requests(), result.errors(),
+                    result.throughput(), result.p50Ms(), result.p90Ms(), result.p99Ms(), result.p999Ms(), result.maxMs()));
+        }
+        return table.toString();
+    }
+
+    private String html() {
+        StringBuilder page = new StringBuilder("""
+                <!DOCTYPE html>
+                <html><head><meta charset="utf-8"><title>Load test %s</title>
+                <style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:4px 8px}td.n{text-align:right}</style>
+                </head><body>
+                <h1>Load test %s</h1>
+                <p>Scale %d, %d clients, %s request threads, %s mix, %s, %ds warmup, %.1fs measured</p>
+                <table><tr><th>Endpoint</th><th>Requests</th><th>Errors</th><th>Req/s</th><th>Mean ms</th>
+                <th>p50 ms</th><th>p90 ms</th><th>p99 ms</th><th>p99.9 ms</th><th>Max ms</th></tr>
+                """.formatted(startedAt, startedAt, settings.scale(), settings.concurrency(), settings.threads(), settings.mix(),
+                settings.rate() > 0 ? "target " + settings.rate() + " req/s" : "closed loop",
+                settings.warmupSeconds(), measuredSeconds));
+        for (Result result : rows()) {
+            page.append(String.format(Locale.ROOT,
+                    "<tr><td>%s</td><td class=n>%d</td><td class=n>%d</td><td class=n>%.1f</td><td class=n>%.2f</td>"
+                            + "<td class=n>%.2f</td><td class=n>%.2f</td><td class=n>%.2f</td><td class=n>%.2f</td><td class=n>%.2f</td></tr>%n",
+                    HtmlUtils.htmlEscape(result.endpoint()), result.requests(), result.errors(), result.throughput(),
+                    result.meanMs(), result.p50Ms(), result.p90Ms(), result.p99Ms(), result.p999Ms(), result.maxMs()));
+        }
+        return page.append("</table></body></html>\n").toString();
+    }
+
+    private List<Result> rows() {
+        List<Result> rows = new ArrayList<>(endpoints);
+        rows.add(total);
+        return rows;
+    }
+}
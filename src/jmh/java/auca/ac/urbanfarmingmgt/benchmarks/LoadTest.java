@@ -0,0 +1,186 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import auca.ac.urbanfarmingmgt.UrbanFarmingMgtApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// End-to-end load test: starts the application with its web server on the benchmark profile, seeds it with
+// DataGenerator and has a fixed number of clients send a LoadEndpoint mix over HTTP. Latencies go into an
+// HdrHistogram per endpoint; the report is written as JSON, HTML and one .hgrm percentile file per endpoint.
+//
+//   mvn -Pbenchmarks test-compile exec:exec@load-test -Dload.concurrency=32 -Dload.duration=120
+//
+// load.threads picks how the server runs requests: "platform" (Tomcat's thread pool) or "virtual" (a virtual
+// thread per request). load.mix is "all" or "dashboard" (reads only). Each client is a virtual thread, so one
+// machine can drive thousands of them; ThreadModeComparison runs this across thread modes and client counts.
+//
+// Without load.rate every client sends its next request as soon as the last one returns (closed loop). With
+// load.rate the clients together aim for that many requests per second, and latency is measured from when each
+// request was due, so a stalled server is not hidden by clients that stopped sending (coordinated omission).
+public class LoadTest {
+
+    public record Settings(int scale, int concurrency, int warmupSeconds, int durationSeconds, double rate,
+                           String threads, String mix, Path reportDir) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("load.scale", 100),
+                    Integer.getInteger("load.concurrency", 16),
+                    Integer.getInteger("load.warmup", 10),
+                    Integer.getInteger("load.duration", 60),
+                    Double.parseDouble(System.getProperty("load.rate", "0")),
+                    System.getProperty("load.threads", "platform"),
+                    System.getProperty("load.mix", "all"),
+                    Path.of(System.getProperty("load.report-dir", "target/load-test")));
+        }
+
+        Settings with(int concurrency, String threads, Path reportDir) {
+            return new Settings(scale, concurrency, warmupSeconds, durationSeconds, rate, threads, mix, reportDir);
+        }
+    }
+
+    // Latencies in microseconds and failed requests (errors and 4xx/5xx) of one endpoint
+    static class EndpointStats {
+        final Recorder latencies = new Recorder(3);
+        final LongAdder errors = new LongAdder();
+
+        // Drop what was recorded so far; used at the end of the warmup
+        void reset() {
+            latencies.getIntervalHistogram();
+            errors.reset();
+        }
+    }
+
+    private final Settings settings;
+    private final SeededData data;
+    private final URI baseUri;
+    private final List<LoadEndpoint> mix;
+    private final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client = HttpClient.newBuilder().executor(clients)
+            .version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+    private final Map<LoadEndpoint, EndpointStats> stats = new LinkedHashMap<>();
+
+    LoadTest(Settings settings, SeededData data, int port) {
+        this.settings = settings;
+        this.data = data;
+        this.baseUri = URI.create("http://localhost:" + port);
+        this.mix = LoadEndpoint.mix(settings.mix());
+        mix.forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        LoadReport report = runOnce(settings);
+        Path written = report.write(settings.reportDir());
+        System.out.println(report.summary());
+        System.out.println("Report written to " + written.toAbsolutePath());
+    }
+
+    // Start a fresh application in the requested thread mode, seed it, load it and shut it down again
+    static LoadReport runOnce(Settings settings) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UrbanFarmingMgtApplication.class)
+                .profiles("benchmark")
+                .run("--spring.main.web-application-type=servlet", "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + "virtual".equals(settings.threads()),
+                        // Accept every client's connection; past Tomcat's default of 8192 they would wait in the backlog
+                        "--server.tomcat.max-connections=" + Math.max(8192, settings.concurrency() + 100))) {
+            System.out.printf("Seeding %d farms%n", settings.scale());
+            SeededData data = new DataGenerator(context, 42).seed(settings.scale());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return new LoadTest(settings, data, port).run();
+        }
+    }
+
+    // Warm up, measure, and return the measured part
+    LoadReport run() throws Exception {
+        Instant startedAt = Instant.now();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+        long interval = settings.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * settings.concurrency() / settings.rate()) : 0;
+
+        System.out.printf("Warming up for %ds, then measuring for %ds with %d clients on %s request threads%n",
+                settings.warmupSeconds(), settings.durationSeconds(), settings.concurrency(), settings.threads());
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            running.add(clients.submit(() -> send(interval, stopAt)));
+        }
+
+        sleepUntil(measureFrom);
+        stats.values().forEach(EndpointStats::reset);
+        for (Future<?> client : running) {
+            client.get();
+        }
+        double measuredSeconds = (System.nanoTime() - measureFrom) / 1e9;
+        clients.close();
+
+        Map<String, Histogram> latencies = new LinkedHashMap<>();
+        Map<String, Long> errors = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> {
+            latencies.put(endpoint.name(), endpointStats.latencies.getIntervalHistogram());
+            errors.put(endpoint.name(), endpointStats.errors.sum());
+        });
+        return LoadReport.of(startedAt, settings, measuredSeconds, latencies, errors);
+    }
+
+    // One client: send requests from the mix until stopAt, paced by interval when it is set
+    private void send(long interval, long stopAt) {
+        long due = System.nanoTime();
+        while (true) {
+            if (interval > 0) {
+                sleepUntil(due);
+            }
+            long start = interval > 0 ? due : System.nanoTime();
+            if (start >= stopAt) {
+                return;
+            }
+            LoadEndpoint endpoint = LoadEndpoint.next(mix);
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(endpoint.path().apply(data)))
+                    .method(endpoint.method(), HttpRequest.BodyPublishers.noBody())
+                    .timeout(Duration.ofSeconds(30)).build();
+            boolean failed;
+            try {
+                failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            EndpointStats endpointStats = stats.get(endpoint);
+            endpointStats.latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            if (failed) {
+                endpointStats.errors.increment();
+            }
+            due += interval;
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
+import auca.ac.urbanfarmingmgt.Model.Order;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+// OrderService finders and write paths. Placing and cancelling need a fresh pending order each time, so those
+// benchmarks include saving one; newOrder measures that save on its own to subtract it.
+public class OrderBenchmarks extends SeededBenchmark {
+
+    private static final List<DeliveryStatus> STATUSES = List.of(DeliveryStatus.values());
+
+    private OrderService orderService;
+    private InventoryRepository inventoryRepository;
+
+    @Override
+    protected void init() {
+        orderService = bean(OrderService.class);
+        inventoryRepository = bean(InventoryRepository.class);
+    }
+
+    @Benchmark
+    public Optional<OrderView> orderById() {
+        return orderService.getOrderById(pick(data.orderIDs()));
+    }
+
+    @Benchmark
+    public List<OrderView> ordersByStatus() {
+        return orderService.getOrdersByStatus(pick(STATUSES).getLabel());
+    }
+
+    @Benchmark
+    public Order newOrder() {
+        Order order = pendingOrder();
+        orderService.saveOrder(order);
+        return order;
+    }
+
+    @Benchmark
+    public String placeOrder() {
+        Order order = pendingOrder();
+        orderService.saveOrder(order);
+        return orderService.placeOrder(order.getOrderID());
+    }
+
+    @Benchmark
+    public String placeAndCancelOrder() {
+        Order order = pendingOrder();
+        orderService.saveOrder(order);
+        orderService.placeOrder(order.getOrderID());
+        return orderService.cancelOrder(order.getOrderID());
+    }
+
+    // Claims whatever is pending; once the seeded pending orders are used up this measures an empty claim
+    @Benchmark
+    public List<OrderView> claimPendingOrders() {
+        return orderService.claimPendingOrders(10);
+    }
+
+    @Benchmark
+    public List<OrderView> newOrderAndClaim() {
+        orderService.saveOrder(pendingOrder());
+        return orderService.claimPendingOrders(1);
+    }
+
+    private Order pendingOrder() {
+        return Order.builder().orderDate(new Date()).quantityOrdered(1.0).deliveryStatus(DeliveryStatus.PENDING)
+                .inventory(inventoryRepository.getReferenceById(pick(data.inventoryIDs()))).build();
+    }
+}
@@ -0,0 +1,61 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import auca.ac.urbanfarmingmgt.UrbanFarmingMgtApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Starts the application on the benchmark profile and seeds it once per fork; benchmark classes extend this
+// and call the services with IDs picked at random from the seeded rows. Write benchmarks add rows as they run,
+// so a longer measurement also means a somewhat larger data set by its end.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class SeededBenchmark {
+
+    // Number of farms; every other table is sized from it (see DataGenerator)
+    @Param("100")
+    public int scale;
+
+    protected ConfigurableApplicationContext context;
+    protected SeededData data;
+
+    @Setup(Level.Trial)
+    public void startAndSeed() {
+        context = new SpringApplicationBuilder(UrbanFarmingMgtApplication.class).profiles("benchmark").run();
+        data = new DataGenerator(context, 42).seed(scale);
+        init();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Look up the beans the benchmarks call
+    protected abstract void init();
+
+    protected <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    protected static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    // A random 30-day window inside the seeded harvest dates
+    protected Date[] window() {
+        long first = data.firstHarvest().getTime();
+        long span = data.lastHarvest().getTime() - first - TimeUnit.DAYS.toMillis(30);
+        long start = first + (long) (ThreadLocalRandom.current().nextDouble() * span);
+        return new Date[]{new Date(start), new Date(start + TimeUnit.DAYS.toMillis(30))};
+    }
+}
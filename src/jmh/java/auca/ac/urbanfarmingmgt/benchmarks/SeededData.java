@@ -0,0 +1,19 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import java.util.Date;
+import java.util.List;
+
+// IDs of the rows DataGenerator wrote, for benchmarks to pick their arguments from
+public record SeededData(
+        List<Integer> farmIDs,
+        List<Integer> inventoryIDs,
+        List<Integer> cropIDs,
+        List<Integer> harvestIDs,
+        List<Integer> metricIDs,
+        List<Integer> orderIDs,
+        List<Integer> personIDs,
+        List<Integer> clientIDs,
+        Date firstHarvest,
+        Date lastHarvest
+) {
+}
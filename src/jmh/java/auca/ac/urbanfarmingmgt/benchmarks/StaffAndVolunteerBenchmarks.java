@@ -0,0 +1,82 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import auca.ac.urbanfarmingmgt.DTO.StaffAndVolunteerView;
+import auca.ac.urbanfarmingmgt.Services.StaffAndVolunteerService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+// StaffAndVolunteerService aggregates, finders and write paths
+public class StaffAndVolunteerBenchmarks extends SeededBenchmark {
+
+    private StaffAndVolunteerService staffAndVolunteerService;
+
+    @Override
+    protected void init() {
+        staffAndVolunteerService = bean(StaffAndVolunteerService.class);
+    }
+
+    @Benchmark
+    public Double totalWorkHoursForFarm() {
+        return staffAndVolunteerService.calculateTotalWorkHoursForFarm(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public Map<String, Long> distributionByRole() {
+        return staffAndVolunteerService.getPersonnelDistributionByRole();
+    }
+
+    @Benchmark
+    public Optional<StaffAndVolunteerView> personById() {
+        return staffAndVolunteerService.getStaffOrVolunteerById(pick(data.personIDs()));
+    }
+
+    @Benchmark
+    public List<StaffAndVolunteerView> personnelByFarm() {
+        return staffAndVolunteerService.getPersonnelByFarm(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public List<StaffAndVolunteerView> allStaff() {
+        return staffAndVolunteerService.getAllStaff();
+    }
+
+    @Benchmark
+    public List<StaffAndVolunteerView> allVolunteers() {
+        return staffAndVolunteerService.getAllVolunteers();
+    }
+
+    @Benchmark
+    public List<StaffAndVolunteerView> byMinimumWorkHours() {
+        return staffAndVolunteerService.findByMinimumWorkHours(59.0);
+    }
+
+    @Benchmark
+    public List<StaffAndVolunteerView> byWorkHoursRange() {
+        double from = ThreadLocalRandom.current().nextDouble() * 58;
+        return staffAndVolunteerService.findByWorkHoursRange(from, from + 1);
+    }
+
+    @Benchmark
+    public List<StaffAndVolunteerView> withMultipleTasks() {
+        return staffAndVolunteerService.findWithMultipleTasks();
+    }
+
+    @Benchmark
+    public Optional<StaffAndVolunteerView> updateWorkHours() {
+        return staffAndVolunteerService.updateWorkHours(pick(data.personIDs()), ThreadLocalRandom.current().nextDouble() * 60);
+    }
+
+    @Benchmark
+    public Optional<StaffAndVolunteerView> assignTask() {
+        return staffAndVolunteerService.assignTask(pick(data.personIDs()), "Harvesting");
+    }
+
+    @Benchmark
+    public Optional<StaffAndVolunteerView> assignToFarm() {
+        return staffAndVolunteerService.assignToFarm(pick(data.personIDs()), pick(data.farmIDs()));
+    }
+}
@@ -0,0 +1,138 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import auca.ac.urbanfarmingmgt.DTO.BatchImportError;
+import auca.ac.urbanfarmingmgt.DTO.FarmMetricAverages;
+import auca.ac.urbanfarmingmgt.DTO.FarmScore;
+import auca.ac.urbanfarmingmgt.DTO.SensorReadingRow;
+import auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView;
+import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
+import auca.ac.urbanfarmingmgt.Services.CropService;
+import auca.ac.urbanfarmingmgt.Services.SensorReadingService;
+import auca.ac.urbanfarmingmgt.Services.SustainabilityService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+// SustainabilityService aggregates, finders and write paths, plus crop scores and sensor reading ingestion
+public class SustainabilityBenchmarks extends SeededBenchmark {
+
+    // Readings per ingestion call, one minute apart on one crop
+    private static final int READINGS_PER_UPLOAD = 100;
+
+    private SustainabilityService sustainabilityService;
+    private CropService cropService;
+    private SensorReadingService sensorReadingService;
+    private List<Integer> someFarmIDs;
+    private List<Integer> someCropIDs;
+    private long nextReadingTime = System.currentTimeMillis();
+
+    @Override
+    protected void init() {
+        sustainabilityService = bean(SustainabilityService.class);
+        cropService = bean(CropService.class);
+        sensorReadingService = bean(SensorReadingService.class);
+        someFarmIDs = data.farmIDs().subList(0, Math.min(20, data.farmIDs().size()));
+        someCropIDs = data.cropIDs().subList(0, Math.min(50, data.cropIDs().size()));
+    }
+
+    @Benchmark
+    public Optional<FarmMetricAverages> farmMetricAverages() {
+        return sustainabilityService.getFarmMetricAverages(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public Double farmSustainabilityScore() {
+        return sustainabilityService.calculateFarmSustainabilityScore(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public Map<Integer, Double> farmSustainabilityScores() {
+        return sustainabilityService.calculateFarmSustainabilityScores(someFarmIDs);
+    }
+
+    @Benchmark
+    public List<FarmScore> leaderboard() {
+        return sustainabilityService.getLeaderboard(10);
+    }
+
+    @Benchmark
+    public List<String> recommendations() {
+        return sustainabilityService.getSustainabilityRecommendations(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public Double cropSustainabilityScore() {
+        return cropService.calculateSustainabilityScore(pick(data.cropIDs()));
+    }
+
+    @Benchmark
+    public Map<Integer, Double> cropSustainabilityScores() {
+        return cropService.calculateSustainabilityScores(someCropIDs);
+    }
+
+    @Benchmark
+    public Optional<SustainabilityMetricView> metricById() {
+        return sustainabilityService.getSustainabilityMetricById(pick(data.metricIDs()));
+    }
+
+    @Benchmark
+    public List<SustainabilityMetricView> metricsPerCrop() {
+        return sustainabilityService.trackPerCrop(pick(data.cropIDs()));
+    }
+
+    @Benchmark
+    public List<SustainabilityMetricView> metricsPerFarm() {
+        return sustainabilityService.monitorPerFarm(pick(data.farmIDs()));
+    }
+
+    @Benchmark
+    public List<SustainabilityMetricView> metricsByWaterUsageBelowThreshold() {
+        return sustainabilityService.getMetricsByWaterUsageBelowThreshold(10.0);
+    }
+
+    @Benchmark
+    public List<SustainabilityMetricView> metricsBySoilHealthAboveThreshold() {
+        return sustainabilityService.getMetricsBySoilHealthAboveThreshold(9.8);
+    }
+
+    @Benchmark
+    public List<SustainabilityMetricView> metricsByPesticideApplicationBelowThreshold() {
+        return sustainabilityService.getMetricsByPesticideApplicationBelowThreshold(0.1);
+    }
+
+    @Benchmark
+    public List<SustainabilityMetricView> metricsByEnergyUsageBelowThreshold() {
+        return sustainabilityService.getMetricsByEnergyUsageBelowThreshold(4.0);
+    }
+
+    @Benchmark
+    public SustainabilityMetricView recordMetric() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return cropService.recordSustainabilityMetrics(pick(data.cropIDs()), random.nextDouble() * 500,
+                random.nextDouble() * 10, random.nextDouble() * 5, random.nextDouble() * 200);
+    }
+
+    @Benchmark
+    public Optional<SustainabilityMetricView> updateMetric() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return sustainabilityService.updateSustainabilityMetric(pick(data.metricIDs()), SustainabilityMetric.builder()
+                .waterUsage(random.nextDouble() * 500).soilHealth(random.nextDouble() * 10)
+                .pesticideApplication(random.nextDouble() * 5).energyUsage(random.nextDouble() * 200).build());
+    }
+
+    @Benchmark
+    public List<BatchImportError> ingestSensorReadings() {
+        Integer cropId = pick(data.cropIDs());
+        Map<Long, SensorReadingRow> rows = new LinkedHashMap<>();
+        for (long row = 1; row <= READINGS_PER_UPLOAD; row++) {
+            nextReadingTime += 60_000;
+            rows.put(row, new SensorReadingRow(null, cropId, new Date(nextReadingTime), 2.0, 7.5, null, null));
+        }
+        return sensorReadingService.saveReadings(rows);
+    }
+}
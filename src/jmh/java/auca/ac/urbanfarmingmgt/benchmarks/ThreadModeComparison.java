@@ -0,0 +1,95 @@
+package auca.ac.urbanfarmingmgt.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Runs LoadTest (the dashboard reads, from the Maven goal) once per request thread mode (platform, virtual) and client count, each on a
+// freshly started and seeded application, and writes the totals side by side as comparison.json and comparison.html.
+// Each run's own report goes in a subdirectory named after its mode and client count.
+//
+//   mvn -Pbenchmarks test-compile exec:exec@thread-comparison -Dload.clients=1000,5000,10000
+//
+// Clients and server share the machine, so every client holds two sockets: the open file limit (ulimit -n) has to be
+// above twice the largest client count. Add -Dload.jvm-args=-Djdk.tracePinnedThreads=short to have the JVM print a
+// stack trace whenever a virtual thread blocks while pinned to its carrier.
+public class ThreadModeComparison {
+
+    private static final DateTimeFormatter RUN_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    public record Row(String threads, int clients, LoadReport.Result total) {
+    }
+
+    public record Comparison(String startedAt, LoadTest.Settings settings, List<Row> rows) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Instant startedAt = Instant.now();
+        LoadTest.Settings base = LoadTest.Settings.fromSystemProperties();
+        Path reportDir = Files.createDirectories(base.reportDir().resolve("threads-" + RUN_NAME.format(startedAt)));
+        List<Integer> clientCounts = Arrays.stream(System.getProperty("load.clients", "1000,5000,10000").split(","))
+                .map(String::trim).map(Integer::valueOf).toList();
+        List<String> modes = List.of(System.getProperty("load.thread-modes", "platform,virtual").split(","));
+
+        List<Row> rows = new ArrayList<>();
+        for (int clients : clientCounts) {
+            for (String threads : modes) {
+                LoadTest.Settings settings = base.with(clients, threads.trim(), reportDir.resolve(threads.trim() + "-" + clients));
+                LoadReport report = LoadTest.runOnce(settings);
+                report.write(settings.reportDir());
+                rows.add(new Row(settings.threads(), clients, report.total()));
+                System.out.println(report.summary());
+            }
+        }
+
+        Comparison comparison = new Comparison(startedAt.toString(), base, rows);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportDir.resolve("comparison.json").toFile(), comparison);
+        Files.writeString(reportDir.resolve("comparison.html"), html(comparison));
+        System.out.print(table(rows));
+        System.out.println("Comparison written to " + reportDir.toAbsolutePath());
+    }
+
+    private static String table(List<Row> rows) {
+        StringBuilder table = new StringBuilder(String.format("%-9s %8s %9s %7s %9s %8s %8s %8s %8s%n",
+                "Threads", "Clients", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "Max ms"));
+        for (Row row : rows) {
+            LoadReport.Result total = row.total();
+            table.append(String.format(Locale.ROOT, "%-9s %8d %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f%n",
+                    row.threads(), row.clients(), total.requests(), total.errors(), total.throughput(),
+                    total.p50Ms(), total.p99Ms(), total.p999Ms(), total.maxMs()));
+        }
+        return table.toString();
+    }
+
+    private static String html(Comparison comparison) {
+        StringBuilder page = new StringBuilder("""
+                <!DOCTYPE html>
+                <html><head><meta charset="utf-8"><title>Thread mode comparison %s</title>
+                <style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:4px 8px}td.n{text-align:right}</style>
+                </head><body>
+                <h1>Platform and virtual request threads, %s</h1>
+                <p>%s mix, scale %d, %ds warmup and %ds measured per run</p>
+                <table><tr><th>Threads</th><th>Clients</th><th>Requests</th><th>Errors</th><th>Req/s</th>
+                <th>p50 ms</th><th>p99 ms</th><th>p99.9 ms</th><th>Max ms</th></tr>
+                """.formatted(comparison.startedAt(), comparison.startedAt(), comparison.settings().mix(), comparison.settings().scale(),
+                comparison.settings().warmupSeconds(), comparison.settings().durationSeconds()));
+        for (Row row : comparison.rows()) {
+            LoadReport.Result total = row.total();
+            page.append(String.format(Locale.ROOT,
+                    "<tr><td>%s</td><td class=n>%d</td><td class=n>%d</td><td class=n>%d</td><td class=n>%.1f</td>"
+                            + "<td class=n>%.2f</td><td class=n>%.2f</td><td class=n>%.2f</td><td class=n>%.2f</td></tr>%n",
+                    row.threads(), row.clients(), total.requests(), total.errors(), total.throughput(),
+                    total.p50Ms(), total.p99Ms(), total.p999Ms(), total.maxMs()));
+        }
+        return page.append("</table></body></html>\n").toString();
+    }
+}
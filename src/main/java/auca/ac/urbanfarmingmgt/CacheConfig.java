@@ -0,0 +1,44 @@
+package auca.ac.urbanfarmingmgt;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+// In-process Caffeine caches for reference data that is read far more often than it changes.
+// Each cache is bounded by its own Caffeine spec (urbanfarming.cache.<name>) and records hit, miss and eviction stats.
+// Writes evict through Services.ReferenceDataCache.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Farm views by farm ID
+    public static final String FARMS = "farms";
+    // Crop views by crop ID
+    public static final String CROPS = "crops";
+    // Inventory views by inventory ID
+    public static final String INVENTORY = "inventory";
+    // Inventory view lists by produce type
+    public static final String INVENTORY_BY_PRODUCE_TYPE = "inventoryByProduceType";
+
+    public static final List<String> CACHE_NAMES = List.of(FARMS, CROPS, INVENTORY, INVENTORY_BY_PRODUCE_TYPE);
+
+    private static final String DEFAULT_SPEC = "maximumSize=10000,expireAfterWrite=10m";
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches declared here exist; a misspelt cache name fails instead of growing an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        for (String name : CACHE_NAMES) {
+            String spec = environment.getProperty("urbanfarming.cache." + name, DEFAULT_SPEC);
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+        }
+        return cacheManager;
+    }
+}
@@ -0,0 +1,33 @@
+package auca.ac.urbanfarmingmgt.Controller;
+
+import auca.ac.urbanfarmingmgt.DTO.CacheRegionStatsView;
+import auca.ac.urbanfarmingmgt.DTO.CacheStatsView;
+import auca.ac.urbanfarmingmgt.Services.ReferenceDataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/caches")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class CacheController {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    // Get size, hit, miss and eviction counters for each reference data cache
+    @GetMapping
+    public ResponseEntity<List<CacheStatsView>> getCacheStats() {
+        List<CacheStatsView> stats = referenceDataCache.getStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    // Get hit, miss and put counters for each Hibernate second-level and query cache region
+    @GetMapping("/regions")
+    public ResponseEntity<List<CacheRegionStatsView>> getCacheRegionStats() {
+        List<CacheRegionStatsView> stats = referenceDataCache.getRegionStats();
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,12 +1,20 @@
 package auca.ac.urbanfarmingmgt.Controller;
 
+import auca.ac.urbanfarmingmgt.DTO.ClientView;
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
 import auca.ac.urbanfarmingmgt.Services.ClientService;
 import auca.ac.urbanfarmingmgt.Model.Client;
 import auca.ac.urbanfarmingmgt.Model.Order;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -84,18 +92,25 @@ public class ClientController {
         }
     }
 
-    // Get all clients
+    // Get a page of clients (page, size and sort request parameters)
     @GetMapping
-    public ResponseEntity<List<Client>> getAllClients() {
-        List<Client> clients = clientService.getAllClients();
+    public ResponseEntity<Page<ClientView>> getAllClients(@PageableDefault(sort = "clientID") Pageable pageable) {
+        Page<ClientView> clients = clientService.getAllClients(pageable);
         return ResponseEntity.ok(clients);
     }
 
+    // Export all clients as newline-delimited JSON, streamed while the rows are read
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportClients() {
+        StreamingResponseBody body = clientService::exportClients;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Get a client by ID
     @GetMapping("/{clientId}")
-    public ResponseEntity<Client> getClientById(@PathVariable Integer clientId) {
+    public ResponseEntity<ClientView> getClientById(@PathVariable Integer clientId) {
         try {
-            Client client = clientService.getClientById(clientId);
+            ClientView client = clientService.getClientById(clientId);
             return ResponseEntity.ok(client);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -104,19 +119,19 @@ public class ClientController {
 
     // Get clients by contact information
     @GetMapping("/contact-info/{contactInfo}")
-    public ResponseEntity<List<Client>> getClientsByContactInfo(@PathVariable String contactInfo) {
-        List<Client> clients = clientService.getClientsByContactInfo(contactInfo);
+    public ResponseEntity<List<ClientView>> getClientsByContactInfo(@PathVariable String contactInfo) {
+        List<ClientView> clients = clientService.getClientsByContactInfo(contactInfo);
         return ResponseEntity.ok(clients);
     }
 
     // Place an order for a client
     @PostMapping("/{clientId}/place-order")
-    public ResponseEntity<Order> placeClientOrder(
+    public ResponseEntity<OrderView> placeClientOrder(
             @PathVariable Integer clientId,
             @RequestParam Integer inventoryId,
             @RequestParam Double quantityOrdered) {
         try {
-            Order order = clientService.placeClientOrder(clientId, inventoryId, quantityOrdered);
+            OrderView order = clientService.placeClientOrder(clientId, inventoryId, quantityOrdered);
             return ResponseEntity.status(HttpStatus.CREATED).body(order);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -131,6 +146,8 @@ public class ClientController {
         try {
             clientService.handleDeliveryReceipt(inventoryId, orderId);
             return ResponseEntity.ok("Delivery receipt processed successfully");
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -1,16 +1,25 @@
 package auca.ac.urbanfarmingmgt.Controller;
 
+import auca.ac.urbanfarmingmgt.DTO.CropDetails;
+import auca.ac.urbanfarmingmgt.DTO.CropView;
+import auca.ac.urbanfarmingmgt.DTO.HarvestView;
+import auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView;
 import auca.ac.urbanfarmingmgt.Services.CropService;
 import auca.ac.urbanfarmingmgt.Model.Crop;
-import auca.ac.urbanfarmingmgt.Model.Harvest;
-import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/crops")
@@ -31,19 +40,30 @@ public class CropController {
         }
     }
 
-    // Get all crops
+    // Get a page of crops (page, size and sort request parameters)
     @GetMapping
-    public ResponseEntity<List<Crop>> getAllCrops() {
-        List<Crop> crops = cropService.getAllCrops();
+    public ResponseEntity<Page<CropView>> getAllCrops(@PageableDefault(sort = "cropID") Pageable pageable) {
+        Page<CropView> crops = cropService.getAllCrops(pageable);
         return ResponseEntity.ok(crops);
     }
 
-    // Get a crop by ID
+    // Export all crops as newline-delimited JSON, streamed while the rows are read
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCrops() {
+        StreamingResponseBody body = cropService::exportCrops;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Get a crop by ID, optionally expanding farm, inventory, harvests and sustainabilityMetrics
     @GetMapping("/{cropId}")
-    public ResponseEntity<Crop> getCropById(@PathVariable Integer cropId) {
+    public ResponseEntity<CropDetails> getCropById(
+            @PathVariable Integer cropId,
+            @RequestParam(required = false) String expand) {
         try {
-            Crop crop = cropService.getCropById(cropId);
+            CropDetails crop = cropService.getCropDetails(cropId, expand);
             return ResponseEntity.ok(crop);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -51,8 +71,8 @@ public class CropController {
 
     // Get crops by type
     @GetMapping("/type/{cropType}")
-    public ResponseEntity<List<Crop>> getCropsByType(@PathVariable String cropType) {
-        List<Crop> crops = cropService.getCropsByType(cropType);
+    public ResponseEntity<List<CropView>> getCropsByType(@PathVariable String cropType) {
+        List<CropView> crops = cropService.getCropsByType(cropType);
         return ResponseEntity.ok(crops);
     }
 
@@ -82,35 +102,42 @@ public class CropController {
 
     // Get crops eligible for a specific location
     @GetMapping("/eligible-for-location")
-    public ResponseEntity<List<Crop>> getCropsEligibleForLocation(@RequestParam String location) {
-        List<Crop> crops = cropService.getCropsEligibleForLocation(location);
+    public ResponseEntity<List<CropView>> getCropsEligibleForLocation(@RequestParam String location) {
+        List<CropView> crops = cropService.getCropsEligibleForLocation(location);
         return ResponseEntity.ok(crops);
     }
 
     // Record a harvest for a crop
     @PostMapping("/{cropId}/record-harvest")
-    public ResponseEntity<Harvest> recordHarvest(
+    public ResponseEntity<HarvestView> recordHarvest(
             @PathVariable Integer cropId,
             @RequestParam Double yield,
             @RequestParam Integer qualityRating) {
         try {
-            Harvest harvest = cropService.recordHarvest(cropId, yield, qualityRating);
+            HarvestView harvest = cropService.recordHarvest(cropId, yield, qualityRating);
             return ResponseEntity.status(HttpStatus.CREATED).body(harvest);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    // Recompute running yield totals and average yield for all crops from their harvests
+    @PostMapping("/recompute-yield-totals")
+    public ResponseEntity<String> recomputeYieldTotals() {
+        int updated = cropService.recomputeYieldTotals();
+        return ResponseEntity.ok("Yield totals recomputed for " + updated + " crops");
+    }
+
     // Record sustainability metrics for a crop
     @PostMapping("/{cropId}/record-metrics")
-    public ResponseEntity<SustainabilityMetric> recordSustainabilityMetrics(
+    public ResponseEntity<SustainabilityMetricView> recordSustainabilityMetrics(
             @PathVariable Integer cropId,
             @RequestParam Double waterUsage,
             @RequestParam Double soilHealth,
             @RequestParam Double pesticideApplication,
             @RequestParam Double energyUsage) {
         try {
-            SustainabilityMetric metric = cropService.recordSustainabilityMetrics(
+            SustainabilityMetricView metric = cropService.recordSustainabilityMetrics(
                     cropId, waterUsage, soilHealth, pesticideApplication, energyUsage);
             return ResponseEntity.status(HttpStatus.CREATED).body(metric);
         } catch (Exception e) {
@@ -129,31 +156,38 @@ public class CropController {
         }
     }
 
+    // Calculate sustainability scores for many crops in one query, keyed by crop ID
+    @GetMapping("/sustainability-scores")
+    public ResponseEntity<Map<Integer, Double>> calculateSustainabilityScores(@RequestParam List<Integer> cropIds) {
+        Map<Integer, Double> scores = cropService.calculateSustainabilityScores(cropIds);
+        return ResponseEntity.ok(scores);
+    }
+
     // Get crops by growing season
     @GetMapping("/season/{season}")
-    public ResponseEntity<List<Crop>> getCropsByGrowingSeason(@PathVariable String season) {
-        List<Crop> crops = cropService.getCropsByGrowingSeason(season);
+    public ResponseEntity<List<CropView>> getCropsByGrowingSeason(@PathVariable String season) {
+        List<CropView> crops = cropService.getCropsByGrowingSeason(season);
         return ResponseEntity.ok(crops);
     }
 
     // Get crops by location requirement
     @GetMapping("/location-requirement/{locationRequirement}")
-    public ResponseEntity<List<Crop>> getCropsByLocationRequirement(@PathVariable String locationRequirement) {
-        List<Crop> crops = cropService.getCropsByLocationRequirement(locationRequirement);
+    public ResponseEntity<List<CropView>> getCropsByLocationRequirement(@PathVariable String locationRequirement) {
+        List<CropView> crops = cropService.getCropsByLocationRequirement(locationRequirement);
         return ResponseEntity.ok(crops);
     }
 
     // Get crops by farm ID
     @GetMapping("/farm/{farmId}")
-    public ResponseEntity<List<Crop>> getCropsByFarm(@PathVariable Integer farmId) {
-        List<Crop> crops = cropService.getCropsByFarm(farmId);
+    public ResponseEntity<List<CropView>> getCropsByFarm(@PathVariable Integer farmId) {
+        List<CropView> crops = cropService.getCropsByFarm(farmId);
         return ResponseEntity.ok(crops);
     }
 
     // Get high-yielding crops
     @GetMapping("/high-yielding")
-    public ResponseEntity<List<Crop>> getHighYieldingCrops(@RequestParam Double minimumYield) {
-        List<Crop> crops = cropService.getHighYieldingCrops(minimumYield);
+    public ResponseEntity<List<CropView>> getHighYieldingCrops(@RequestParam Double minimumYield) {
+        List<CropView> crops = cropService.getHighYieldingCrops(minimumYield);
         return ResponseEntity.ok(crops);
     }
 
@@ -184,8 +218,8 @@ public class CropController {
 
     // Get crops by growing condition
     @GetMapping("/growing-condition/{condition}")
-    public ResponseEntity<List<Crop>> getCropsByGrowingCondition(@PathVariable boolean condition) {
-        List<Crop> crops = cropService.getCropsByGrowingCondition(condition);
+    public ResponseEntity<List<CropView>> getCropsByGrowingCondition(@PathVariable boolean condition) {
+        List<CropView> crops = cropService.getCropsByGrowingCondition(condition);
         return ResponseEntity.ok(crops);
     }
 
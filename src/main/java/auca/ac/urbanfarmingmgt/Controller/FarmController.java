@@ -1,12 +1,19 @@
 package auca.ac.urbanfarmingmgt.Controller;
 
+import auca.ac.urbanfarmingmgt.DTO.FarmDetails;
+import auca.ac.urbanfarmingmgt.DTO.FarmView;
+import auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView;
 import auca.ac.urbanfarmingmgt.Services.FarmService;
 import auca.ac.urbanfarmingmgt.Model.Farm;
-import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Date;
 import java.util.List;
@@ -30,28 +37,33 @@ public class FarmController {
         }
     }
 
-    // Get all farms
+    // Get a page of farms (page, size and sort request parameters)
     @GetMapping
-    public ResponseEntity<List<Farm>> getAllFarms() {
-        List<Farm> farms = farmService.getAllFarms();
+    public ResponseEntity<Page<FarmView>> getAllFarms(@PageableDefault(sort = "farmID") Pageable pageable) {
+        Page<FarmView> farms = farmService.getAllFarms(pageable);
         return ResponseEntity.ok(farms);
     }
 
-    // Get a farm by ID
+    // Export all farms as newline-delimited JSON, streamed while the rows are read
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFarms() {
+        StreamingResponseBody body = farmService::exportFarms;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Get a farm by ID, optionally expanding crops, harvests, assignedStaff and sustainabilityMetrics
     @GetMapping("/{farmId}")
-    public ResponseEntity<Farm> getFarmById(@PathVariable Integer farmId) {
-        try {
-            Farm farm = farmService.getFarmById(farmId);
-            return ResponseEntity.ok(farm);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+    public ResponseEntity<FarmDetails> getFarmById(
+            @PathVariable Integer farmId,
+            @RequestParam(required = false) String expand) {
+        FarmDetails farm = farmService.getFarmDetails(farmId, expand);
+        return farm != null ? ResponseEntity.ok(farm) : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
 
     // Get farms by name containing a search term
     @GetMapping("/name/{name}")
-    public ResponseEntity<List<Farm>> getFarmsByName(@PathVariable String name) {
-        List<Farm> farms = farmService.getFarmsByName(name);
+    public ResponseEntity<List<FarmView>> getFarmsByName(@PathVariable String name) {
+        List<FarmView> farms = farmService.getFarmsByName(name);
         return ResponseEntity.ok(farms);
     }
 
@@ -120,9 +132,9 @@ public class FarmController {
 
     // Get sustainability report for a farm
     @GetMapping("/{farmId}/sustainability-report")
-    public ResponseEntity<List<SustainabilityMetric>> getSustainabilityReport(@PathVariable Integer farmId) {
+    public ResponseEntity<List<SustainabilityMetricView>> getSustainabilityReport(@PathVariable Integer farmId) {
         try {
-            List<SustainabilityMetric> report = farmService.getSustainabilityReport(farmId);
+            List<SustainabilityMetricView> report = farmService.getSustainabilityReport(farmId);
             return ResponseEntity.ok(report);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -131,22 +143,22 @@ public class FarmController {
 
     // Find farms by crop type
     @GetMapping("/crop-type/{cropType}")
-    public ResponseEntity<List<Farm>> getFarmsByCropType(@PathVariable String cropType) {
-        List<Farm> farms = farmService.getFarmsByCropType(cropType);
+    public ResponseEntity<List<FarmView>> getFarmsByCropType(@PathVariable String cropType) {
+        List<FarmView> farms = farmService.getFarmsByCropType(cropType);
         return ResponseEntity.ok(farms);
     }
 
     // Find farms by staff member ID
     @GetMapping("/staff/{staffId}")
-    public ResponseEntity<List<Farm>> getFarmsByStaffId(@PathVariable Integer staffId) {
-        List<Farm> farms = farmService.getFarmsByStaffId(staffId);
+    public ResponseEntity<List<FarmView>> getFarmsByStaffId(@PathVariable Integer staffId) {
+        List<FarmView> farms = farmService.getFarmsByStaffId(staffId);
         return ResponseEntity.ok(farms);
     }
 
     // Find farms by sustainability metric ID
     @GetMapping("/metric/{metricId}")
-    public ResponseEntity<List<Farm>> getFarmsByMetricId(@PathVariable Integer metricId) {
-        List<Farm> farms = farmService.getFarmsByMetricId(metricId);
+    public ResponseEntity<List<FarmView>> getFarmsByMetricId(@PathVariable Integer metricId) {
+        List<FarmView> farms = farmService.getFarmsByMetricId(metricId);
         return ResponseEntity.ok(farms);
     }
 }
\ No newline at end of file
@@ -1,12 +1,25 @@
 package auca.ac.urbanfarmingmgt.Controller;
 
+import auca.ac.urbanfarmingmgt.DTO.BatchImportResult;
+import auca.ac.urbanfarmingmgt.DTO.HarvestCursorPage;
+import auca.ac.urbanfarmingmgt.DTO.HarvestView;
+import auca.ac.urbanfarmingmgt.DTO.HarvestYieldStats;
+import auca.ac.urbanfarmingmgt.Services.HarvestBatchImporter;
 import auca.ac.urbanfarmingmgt.Services.HarvestService;
 import auca.ac.urbanfarmingmgt.Model.Harvest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
 
@@ -18,6 +31,9 @@ public class HarvestController {
     @Autowired
     private HarvestService harvestService;
 
+    @Autowired
+    private HarvestBatchImporter harvestBatchImporter;
+
     // Save a new harvest
     @PostMapping
     public ResponseEntity<String> saveHarvest(@RequestBody Harvest harvest) {
@@ -29,18 +45,47 @@ public class HarvestController {
         }
     }
 
-    // Get all harvests
+    // Bulk upload harvests as a JSON array
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchImportResult> importHarvestArray(InputStream body) {
+        try {
+            return ResponseEntity.ok(harvestBatchImporter.importJsonArray(body));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // Bulk upload harvests as newline-delimited JSON, read while the stream arrives
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchImportResult> importHarvestStream(InputStream body) {
+        try {
+            return ResponseEntity.ok(harvestBatchImporter.importNdjson(body));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // Get a page of harvests (page, size and sort request parameters)
     @GetMapping
-    public ResponseEntity<List<Harvest>> getAllHarvests() {
-        List<Harvest> harvests = harvestService.getAllHarvests();
+    public ResponseEntity<Page<HarvestView>> getAllHarvests(@PageableDefault(sort = "harvestID") Pageable pageable) {
+        Page<HarvestView> harvests = harvestService.getAllHarvests(pageable);
         return ResponseEntity.ok(harvests);
     }
 
+    // Export all harvests as newline-delimited JSON, streamed while the rows are read
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHarvests() {
+        StreamingResponseBody body = harvestService::exportHarvests;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Get a harvest by ID
     @GetMapping("/{harvestId}")
-    public ResponseEntity<Harvest> getHarvestById(@PathVariable Integer harvestId) {
+    public ResponseEntity<HarvestView> getHarvestById(@PathVariable Integer harvestId) {
         try {
-            Harvest harvest = harvestService.getHarvestById(harvestId);
+            HarvestView harvest = harvestService.getHarvestById(harvestId);
             return ResponseEntity.ok(harvest);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -49,8 +94,8 @@ public class HarvestController {
 
     // Get harvests by quality rating
     @GetMapping("/quality-rating/{qualityRating}")
-    public ResponseEntity<List<Harvest>> getHarvestsByQualityRating(@PathVariable Integer qualityRating) {
-        List<Harvest> harvests = harvestService.getHarvestsByQualityRating(qualityRating);
+    public ResponseEntity<List<HarvestView>> getHarvestsByQualityRating(@PathVariable Integer qualityRating) {
+        List<HarvestView> harvests = harvestService.getHarvestsByQualityRating(qualityRating);
         return ResponseEntity.ok(harvests);
     }
 
@@ -81,31 +126,31 @@ public class HarvestController {
 
     // Get harvests by date range
     @GetMapping("/date-range")
-    public ResponseEntity<List<Harvest>> getHarvestsByDateRange(
+    public ResponseEntity<List<HarvestView>> getHarvestsByDateRange(
             @RequestParam Date startDate,
             @RequestParam Date endDate) {
-        List<Harvest> harvests = harvestService.getHarvestsByDateRange(startDate, endDate);
+        List<HarvestView> harvests = harvestService.getHarvestsByDateRange(startDate, endDate);
         return ResponseEntity.ok(harvests);
     }
 
     // Get harvests by farm ID
     @GetMapping("/farm/{farmId}")
-    public ResponseEntity<List<Harvest>> getHarvestsByFarm(@PathVariable Integer farmId) {
-        List<Harvest> harvests = harvestService.getHarvestsByFarm(farmId);
+    public ResponseEntity<List<HarvestView>> getHarvestsByFarm(@PathVariable Integer farmId) {
+        List<HarvestView> harvests = harvestService.getHarvestsByFarm(farmId);
         return ResponseEntity.ok(harvests);
     }
 
     // Get harvests by crop ID
     @GetMapping("/crop/{cropId}")
-    public ResponseEntity<List<Harvest>> getHarvestsByCrop(@PathVariable Integer cropId) {
-        List<Harvest> harvests = harvestService.getHarvestsByCrop(cropId);
+    public ResponseEntity<List<HarvestView>> getHarvestsByCrop(@PathVariable Integer cropId) {
+        List<HarvestView> harvests = harvestService.getHarvestsByCrop(cropId);
         return ResponseEntity.ok(harvests);
     }
 
     // Get harvests by inventory ID
     @GetMapping("/inventory/{inventoryId}")
-    public ResponseEntity<List<Harvest>> getHarvestsByInventory(@PathVariable Integer inventoryId) {
-        List<Harvest> harvests = harvestService.getHarvestsByInventory(inventoryId);
+    public ResponseEntity<List<HarvestView>> getHarvestsByInventory(@PathVariable Integer inventoryId) {
+        List<HarvestView> harvests = harvestService.getHarvestsByInventory(inventoryId);
         return ResponseEntity.ok(harvests);
     }
 
@@ -163,20 +208,50 @@ public class HarvestController {
         return ResponseEntity.ok(averageQualityRating);
     }
 
+    // Get yield statistics across all harvests
+    @GetMapping("/yield-stats")
+    public ResponseEntity<HarvestYieldStats> getYieldStats() {
+        HarvestYieldStats stats = harvestService.getYieldStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    // Get yield statistics for a specific farm
+    @GetMapping("/yield-stats/farm/{farmId}")
+    public ResponseEntity<HarvestYieldStats> getYieldStatsByFarm(@PathVariable Integer farmId) {
+        HarvestYieldStats stats = harvestService.getYieldStatsByFarm(farmId);
+        return ResponseEntity.ok(stats);
+    }
+
+    // Get yield statistics for a specific crop
+    @GetMapping("/yield-stats/crop/{cropId}")
+    public ResponseEntity<HarvestYieldStats> getYieldStatsByCrop(@PathVariable Integer cropId) {
+        HarvestYieldStats stats = harvestService.getYieldStatsByCrop(cropId);
+        return ResponseEntity.ok(stats);
+    }
+
     // Get harvests with yield above a threshold
     @GetMapping("/yield-above-threshold")
-    public ResponseEntity<List<Harvest>> getHarvestsAboveYieldThreshold(@RequestParam Double threshold) {
-        List<Harvest> harvests = harvestService.getHarvestsAboveYieldThreshold(threshold);
+    public ResponseEntity<List<HarvestView>> getHarvestsAboveYieldThreshold(@RequestParam Double threshold) {
+        List<HarvestView> harvests = harvestService.getHarvestsAboveYieldThreshold(threshold);
         return ResponseEntity.ok(harvests);
     }
 
     // Get most recent harvests
     @GetMapping("/most-recent")
-    public ResponseEntity<List<Harvest>> getMostRecentHarvests(@RequestParam int limit) {
-        List<Harvest> harvests = harvestService.getMostRecentHarvests(limit);
+    public ResponseEntity<List<HarvestView>> getMostRecentHarvests(@RequestParam int limit) {
+        List<HarvestView> harvests = harvestService.getMostRecentHarvests(limit);
         return ResponseEntity.ok(harvests);
     }
 
+    // Page through most recent harvests with a cursor returned by the previous page
+    @GetMapping("/most-recent/cursor")
+    public ResponseEntity<HarvestCursorPage> getMostRecentHarvestsPage(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        HarvestCursorPage page = harvestService.getMostRecentHarvestsPage(limit, cursor);
+        return ResponseEntity.ok(page);
+    }
+
     // Transfer a harvest to a different inventory
     @PostMapping("/{harvestId}/transfer-to-inventory/{inventoryId}")
     public ResponseEntity<String> transferHarvestToInventory(
@@ -1,12 +1,20 @@
 package auca.ac.urbanfarmingmgt.Controller;
 
+import auca.ac.urbanfarmingmgt.DTO.InventoryDetails;
+import auca.ac.urbanfarmingmgt.DTO.InventoryView;
 import auca.ac.urbanfarmingmgt.Services.InventoryService;
 import auca.ac.urbanfarmingmgt.Model.Inventory;
 import auca.ac.urbanfarmingmgt.Model.Order;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,33 +26,47 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
-    // Fetch all inventory items
+    // Fetch a page of inventory items (page, size and sort request parameters)
     @GetMapping
-    public ResponseEntity<List<Inventory>> getAllInventory() {
-        List<Inventory> inventoryList = inventoryService.getAllInventory();
+    public ResponseEntity<Page<InventoryView>> getAllInventory(@PageableDefault(sort = "inventoryID") Pageable pageable) {
+        Page<InventoryView> inventoryList = inventoryService.getAllInventory(pageable);
         return ResponseEntity.ok(inventoryList);
     }
 
-    // Fetch a specific inventory item by its ID
+    // Export all inventory items as newline-delimited JSON, streamed while the rows are read
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportInventory() {
+        StreamingResponseBody body = inventoryService::exportInventory;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Fetch a specific inventory item by its ID (expand: harvestList, cropList, orderList)
     @GetMapping("/{id}")
-    public ResponseEntity<Inventory> getInventoryById(@PathVariable Integer id) {
-        return inventoryService.getInventoryById(id)
+    public ResponseEntity<InventoryDetails> getInventoryById(
+            @PathVariable Integer id,
+            @RequestParam(required = false) String expand) {
+        return inventoryService.getInventoryDetails(id, expand)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     // Fetch inventory by produce type
     @GetMapping("/produce-type/{produceType}")
-    public ResponseEntity<List<Inventory>> getInventoryByProduceType(@PathVariable String produceType) {
-        List<Inventory> inventoryList = inventoryService.getInventoryByProduceType(produceType);
+    public ResponseEntity<List<InventoryView>> getInventoryByProduceType(@PathVariable String produceType) {
+        List<InventoryView> inventoryList = inventoryService.getInventoryByProduceType(produceType);
         return ResponseEntity.ok(inventoryList);
     }
 
     // Save or update an inventory item
     @PostMapping
-    public ResponseEntity<Inventory> saveInventory(@RequestBody Inventory inventory) {
-        Inventory savedInventory = inventoryService.saveInventory(inventory);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedInventory);
+    public ResponseEntity<InventoryView> saveInventory(@RequestBody Inventory inventory) {
+        try {
+            InventoryView savedInventory = inventoryService.saveInventory(inventory);
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedInventory);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // The item changed since the client read it (its version no longer matches)
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     // Delete an inventory item by its ID
@@ -1,11 +1,23 @@
 package auca.ac.urbanfarmingmgt.Controller;
 
+import auca.ac.urbanfarmingmgt.DTO.OrderDetails;
+import auca.ac.urbanfarmingmgt.DTO.OrderIntakeRequest;
+import auca.ac.urbanfarmingmgt.DTO.OrderTicket;
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
+import auca.ac.urbanfarmingmgt.Services.OrderIntakeService;
 import auca.ac.urbanfarmingmgt.Services.OrderService;
 import auca.ac.urbanfarmingmgt.Model.Order;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +30,9 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
     // Save an order
     @PostMapping
     public ResponseEntity<String> saveOrder(@RequestBody Order order) {
@@ -29,6 +44,31 @@ public class OrderController {
         }
     }
 
+    // Queue an order for the batch writers; 202 with a ticket to poll, 429 when the queue is full
+    @PostMapping("/intake")
+    public ResponseEntity<OrderTicket> submitOrder(@RequestBody OrderIntakeRequest request) {
+        try {
+            OrderTicket ticket = orderIntakeService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/orders/intake/" + ticket.ticketID())
+                    .body(ticket);
+        } catch (ResponseStatusException e) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(e.getStatusCode());
+            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                response.header(HttpHeaders.RETRY_AFTER, "1");
+            }
+            return response.build();
+        }
+    }
+
+    // Get the status of a queued order by its ticket ID
+    @GetMapping("/intake/{ticketId}")
+    public ResponseEntity<OrderTicket> getOrderTicket(@PathVariable String ticketId) {
+        Optional<OrderTicket> ticket = orderIntakeService.getTicket(ticketId);
+        return ticket.map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
     // Update the delivery status of an order
     @PutMapping("/{orderId}/update-status")
     public ResponseEntity<String> updateOrderStatus(
@@ -64,24 +104,44 @@ public class OrderController {
         }
     }
 
-    // Get orders by delivery status
+    // Claim up to limit of the oldest Pending orders for a dispatcher; they come back as Processing and no other
+    // dispatcher calling at the same time receives them
+    @PostMapping("/queue/claim")
+    public ResponseEntity<List<OrderView>> claimPendingOrders(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(orderService.claimPendingOrders(limit));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        }
+    }
+
+    // Get orders by delivery status (Pending, Processing, Placed, Delivered or Cancelled)
     @GetMapping("/status/{deliveryStatus}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String deliveryStatus) {
-        List<Order> orders = orderService.getOrdersByStatus(deliveryStatus);
+    public ResponseEntity<List<OrderView>> getOrdersByStatus(@PathVariable String deliveryStatus) {
+        List<OrderView> orders = orderService.getOrdersByStatus(deliveryStatus);
         return ResponseEntity.ok(orders);
     }
 
-    // Get all orders
+    // Get a page of orders (page, size and sort request parameters)
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
+    public ResponseEntity<Page<OrderView>> getAllOrders(@PageableDefault(sort = "orderID") Pageable pageable) {
+        Page<OrderView> orders = orderService.getAllOrders(pageable);
         return ResponseEntity.ok(orders);
     }
 
-    // Get an order by ID
+    // Export all orders as newline-delimited JSON, streamed while the rows are read
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = orderService::exportOrders;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Get an order by ID (expand: inventory, clientList)
     @GetMapping("/{orderId}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Integer orderId) {
-        Optional<Order> order = orderService.getOrderById(orderId);
+    public ResponseEntity<OrderDetails> getOrderById(
+            @PathVariable Integer orderId,
+            @RequestParam(required = false) String expand) {
+        Optional<OrderDetails> order = orderService.getOrderDetails(orderId, expand);
         return order.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
@@ -0,0 +1,37 @@
+package auca.ac.urbanfarmingmgt.Controller;
+
+import auca.ac.urbanfarmingmgt.DTO.SearchHit;
+import auca.ac.urbanfarmingmgt.Services.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private SearchService searchService;
+
+    // Search crops, farms and clients by prefix or near match, best matches first; type limits it to one kind
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) SearchHit.Type type,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<SearchHit> hits = searchService.search(q, type, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(hits);
+    }
+
+    // Rebuild the search index from the database
+    @PostMapping("/rebuild")
+    public ResponseEntity<String> rebuildIndex() {
+        int indexed = searchService.rebuild();
+        return ResponseEntity.ok("Search index rebuilt with " + indexed + " records");
+    }
+}
@@ -1,11 +1,17 @@
 package auca.ac.urbanfarmingmgt.Controller;
 
+import auca.ac.urbanfarmingmgt.DTO.StaffAndVolunteerView;
 import auca.ac.urbanfarmingmgt.Services.StaffAndVolunteerService;
 import auca.ac.urbanfarmingmgt.Model.StaffAndVolunteer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -21,32 +27,39 @@ public class StaffAndVolunteerController {
 
     // Save a staff or volunteer
     @PostMapping
-    public ResponseEntity<StaffAndVolunteer> saveStaffOrVolunteer(@RequestBody StaffAndVolunteer staffAndVolunteer) {
-        StaffAndVolunteer savedPerson = staffAndVolunteerService.saveStaffOrVolunteer(staffAndVolunteer);
+    public ResponseEntity<StaffAndVolunteerView> saveStaffOrVolunteer(@RequestBody StaffAndVolunteer staffAndVolunteer) {
+        StaffAndVolunteerView savedPerson = staffAndVolunteerService.saveStaffOrVolunteer(staffAndVolunteer);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedPerson);
     }
 
-    // Get all staff and volunteers
+    // Get a page of staff and volunteers (page, size and sort request parameters)
     @GetMapping
-    public ResponseEntity<List<StaffAndVolunteer>> getAllStaffAndVolunteers() {
-        List<StaffAndVolunteer> personnel = staffAndVolunteerService.getAllStaffAndVolunteers();
+    public ResponseEntity<Page<StaffAndVolunteerView>> getAllStaffAndVolunteers(@PageableDefault(sort = "personID") Pageable pageable) {
+        Page<StaffAndVolunteerView> personnel = staffAndVolunteerService.getAllStaffAndVolunteers(pageable);
         return ResponseEntity.ok(personnel);
     }
 
+    // Export all staff and volunteers as newline-delimited JSON, streamed while the rows are read
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportStaffAndVolunteers() {
+        StreamingResponseBody body = staffAndVolunteerService::exportStaffAndVolunteers;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Get a staff or volunteer by ID
     @GetMapping("/{id}")
-    public ResponseEntity<StaffAndVolunteer> getStaffOrVolunteerById(@PathVariable Integer id) {
-        Optional<StaffAndVolunteer> person = staffAndVolunteerService.getStaffOrVolunteerById(id);
+    public ResponseEntity<StaffAndVolunteerView> getStaffOrVolunteerById(@PathVariable Integer id) {
+        Optional<StaffAndVolunteerView> person = staffAndVolunteerService.getStaffOrVolunteerById(id);
         return person.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     // Update a staff or volunteer
     @PutMapping("/{id}")
-    public ResponseEntity<StaffAndVolunteer> updateStaffOrVolunteer(
+    public ResponseEntity<StaffAndVolunteerView> updateStaffOrVolunteer(
             @PathVariable Integer id,
             @RequestBody StaffAndVolunteer updatedPerson) {
-        Optional<StaffAndVolunteer> updated = staffAndVolunteerService.updateStaffOrVolunteer(id, updatedPerson);
+        Optional<StaffAndVolunteerView> updated = staffAndVolunteerService.updateStaffOrVolunteer(id, updatedPerson);
         return updated.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
@@ -65,42 +78,42 @@ public class StaffAndVolunteerController {
 
     // Get all staff (excluding volunteers)
     @GetMapping("/staff")
-    public ResponseEntity<List<StaffAndVolunteer>> getAllStaff() {
-        List<StaffAndVolunteer> staff = staffAndVolunteerService.getAllStaff();
+    public ResponseEntity<List<StaffAndVolunteerView>> getAllStaff() {
+        List<StaffAndVolunteerView> staff = staffAndVolunteerService.getAllStaff();
         return ResponseEntity.ok(staff);
     }
 
     // Get all volunteers
     @GetMapping("/volunteers")
-    public ResponseEntity<List<StaffAndVolunteer>> getAllVolunteers() {
-        List<StaffAndVolunteer> volunteers = staffAndVolunteerService.getAllVolunteers();
+    public ResponseEntity<List<StaffAndVolunteerView>> getAllVolunteers() {
+        List<StaffAndVolunteerView> volunteers = staffAndVolunteerService.getAllVolunteers();
         return ResponseEntity.ok(volunteers);
     }
 
     // Assign a staff or volunteer to a farm
     @PostMapping("/{personId}/assign-to-farm/{farmId}")
-    public ResponseEntity<StaffAndVolunteer> assignToFarm(
+    public ResponseEntity<StaffAndVolunteerView> assignToFarm(
             @PathVariable Integer personId,
             @PathVariable Integer farmId) {
-        Optional<StaffAndVolunteer> assignedPerson = staffAndVolunteerService.assignToFarm(personId, farmId);
+        Optional<StaffAndVolunteerView> assignedPerson = staffAndVolunteerService.assignToFarm(personId, farmId);
         return assignedPerson.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     // Assign a task to a staff or volunteer
     @PostMapping("/{personId}/assign-task")
-    public ResponseEntity<StaffAndVolunteer> assignTask(
+    public ResponseEntity<StaffAndVolunteerView> assignTask(
             @PathVariable Integer personId,
             @RequestParam String task) {
-        Optional<StaffAndVolunteer> assignedPerson = staffAndVolunteerService.assignTask(personId, task);
+        Optional<StaffAndVolunteerView> assignedPerson = staffAndVolunteerService.assignTask(personId, task);
         return assignedPerson.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     // Get personnel assigned to a specific farm
     @GetMapping("/farm/{farmId}")
-    public ResponseEntity<List<StaffAndVolunteer>> getPersonnelByFarm(@PathVariable Integer farmId) {
-        List<StaffAndVolunteer> personnel = staffAndVolunteerService.getPersonnelByFarm(farmId);
+    public ResponseEntity<List<StaffAndVolunteerView>> getPersonnelByFarm(@PathVariable Integer farmId) {
+        List<StaffAndVolunteerView> personnel = staffAndVolunteerService.getPersonnelByFarm(farmId);
         return ResponseEntity.ok(personnel);
     }
 
@@ -113,15 +126,24 @@ public class StaffAndVolunteerController {
 
     // Find staff and volunteers with minimum work hours
     @GetMapping("/minimum-work-hours/{minHours}")
-    public ResponseEntity<List<StaffAndVolunteer>> findByMinimumWorkHours(@PathVariable Double minHours) {
-        List<StaffAndVolunteer> personnel = staffAndVolunteerService.findByMinimumWorkHours(minHours);
+    public ResponseEntity<List<StaffAndVolunteerView>> findByMinimumWorkHours(@PathVariable Double minHours) {
+        List<StaffAndVolunteerView> personnel = staffAndVolunteerService.findByMinimumWorkHours(minHours);
+        return ResponseEntity.ok(personnel);
+    }
+
+    // Find staff and volunteers whose work hours fall within a range
+    @GetMapping("/work-hours-range")
+    public ResponseEntity<List<StaffAndVolunteerView>> findByWorkHoursRange(
+            @RequestParam Double minHours,
+            @RequestParam Double maxHours) {
+        List<StaffAndVolunteerView> personnel = staffAndVolunteerService.findByWorkHoursRange(minHours, maxHours);
         return ResponseEntity.ok(personnel);
     }
 
     // Find staff and volunteers with multiple tasks
     @GetMapping("/multiple-tasks")
-    public ResponseEntity<List<StaffAndVolunteer>> findWithMultipleTasks() {
-        List<StaffAndVolunteer> personnel = staffAndVolunteerService.findWithMultipleTasks();
+    public ResponseEntity<List<StaffAndVolunteerView>> findWithMultipleTasks() {
+        List<StaffAndVolunteerView> personnel = staffAndVolunteerService.findWithMultipleTasks();
         return ResponseEntity.ok(personnel);
     }
 
@@ -134,10 +156,10 @@ public class StaffAndVolunteerController {
 
     // Update work hours for a staff or volunteer
     @PutMapping("/{personId}/update-work-hours")
-    public ResponseEntity<StaffAndVolunteer> updateWorkHours(
+    public ResponseEntity<StaffAndVolunteerView> updateWorkHours(
             @PathVariable Integer personId,
             @RequestParam Double newHours) {
-        Optional<StaffAndVolunteer> updatedPerson = staffAndVolunteerService.updateWorkHours(personId, newHours);
+        Optional<StaffAndVolunteerView> updatedPerson = staffAndVolunteerService.updateWorkHours(personId, newHours);
         return updatedPerson.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
@@ -1,12 +1,32 @@
 package auca.ac.urbanfarmingmgt.Controller;
 
+import auca.ac.urbanfarmingmgt.DTO.BatchImportResult;
+import auca.ac.urbanfarmingmgt.DTO.FarmMetricAverages;
+import auca.ac.urbanfarmingmgt.DTO.FarmScore;
+import auca.ac.urbanfarmingmgt.DTO.SensorReadingRollupView;
+import auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView;
+import auca.ac.urbanfarmingmgt.Model.RollupGranularity;
+import auca.ac.urbanfarmingmgt.Services.SensorReadingImporter;
+import auca.ac.urbanfarmingmgt.Services.SensorReadingService;
 import auca.ac.urbanfarmingmgt.Services.SustainabilityService;
 import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -17,31 +37,78 @@ public class SustainabilityController {
     @Autowired
     private SustainabilityService sustainabilityService;
 
+    @Autowired
+    private SensorReadingService sensorReadingService;
+
+    @Autowired
+    private SensorReadingImporter sensorReadingImporter;
+
     // Save a new sustainability metric
     @PostMapping("/metrics")
-    public ResponseEntity<SustainabilityMetric> saveSustainabilityMetric(@RequestBody SustainabilityMetric sustainabilityMetric) {
-        SustainabilityMetric savedMetric = sustainabilityService.saveSustainabilityMetric(sustainabilityMetric);
+    public ResponseEntity<SustainabilityMetricView> saveSustainabilityMetric(@RequestBody SustainabilityMetric sustainabilityMetric) {
+        SustainabilityMetricView savedMetric = sustainabilityService.saveSustainabilityMetric(sustainabilityMetric);
         return ResponseEntity.ok(savedMetric);
     }
 
-    // Get all sustainability metrics
+    // Append timestamped sensor readings sent as newline-delimited JSON
+    @PostMapping(value = "/readings", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchImportResult> importReadingStream(InputStream body) {
+        try {
+            return ResponseEntity.ok(sensorReadingImporter.importNdjson(body));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // Append timestamped sensor readings sent as CSV with a header line
+    @PostMapping(value = "/readings", consumes = "text/csv")
+    public ResponseEntity<BatchImportResult> importReadingCsv(InputStream body) {
+        try {
+            return ResponseEntity.ok(sensorReadingImporter.importCsv(body));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // Get hourly or daily min, max and average readings for a farm, optionally for one crop
+    @GetMapping("/readings/farm/{farmId}/rollups")
+    public ResponseEntity<List<SensorReadingRollupView>> getReadingRollups(
+            @PathVariable Integer farmId,
+            @RequestParam(required = false) Integer cropId,
+            @RequestParam(defaultValue = "HOURLY") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        List<SensorReadingRollupView> rollups = sensorReadingService.getRollups(farmId, cropId, granularity, from, to);
+        return ResponseEntity.ok(rollups);
+    }
+
+    // Get a page of sustainability metrics (page, size and sort request parameters)
     @GetMapping("/metrics")
-    public ResponseEntity<List<SustainabilityMetric>> getAllSustainabilityMetrics() {
-        List<SustainabilityMetric> metrics = sustainabilityService.getAllSustainabilityMetrics();
+    public ResponseEntity<Page<SustainabilityMetricView>> getAllSustainabilityMetrics(@PageableDefault(sort = "metricID") Pageable pageable) {
+        Page<SustainabilityMetricView> metrics = sustainabilityService.getAllSustainabilityMetrics(pageable);
         return ResponseEntity.ok(metrics);
     }
 
+    // Export all sustainability metrics as newline-delimited JSON, streamed while the rows are read
+    @GetMapping(value = "/metrics/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSustainabilityMetrics() {
+        StreamingResponseBody body = sustainabilityService::exportSustainabilityMetrics;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Get a sustainability metric by ID
     @GetMapping("/metrics/{id}")
-    public ResponseEntity<SustainabilityMetric> getSustainabilityMetricById(@PathVariable Integer id) {
-        Optional<SustainabilityMetric> metric = sustainabilityService.getSustainabilityMetricById(id);
+    public ResponseEntity<SustainabilityMetricView> getSustainabilityMetricById(@PathVariable Integer id) {
+        Optional<SustainabilityMetricView> metric = sustainabilityService.getSustainabilityMetricById(id);
         return metric.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     // Update a sustainability metric
     @PutMapping("/metrics/{id}")
-    public ResponseEntity<SustainabilityMetric> updateSustainabilityMetric(@PathVariable Integer id, @RequestBody SustainabilityMetric updatedMetric) {
-        Optional<SustainabilityMetric> updated = sustainabilityService.updateSustainabilityMetric(id, updatedMetric);
+    public ResponseEntity<SustainabilityMetricView> updateSustainabilityMetric(@PathVariable Integer id, @RequestBody SustainabilityMetric updatedMetric) {
+        Optional<SustainabilityMetricView> updated = sustainabilityService.updateSustainabilityMetric(id, updatedMetric);
         return updated.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -54,53 +121,60 @@ public class SustainabilityController {
 
     // Track sustainability metrics for a specific crop
     @GetMapping("/metrics/crop/{cropId}")
-    public ResponseEntity<List<SustainabilityMetric>> trackPerCrop(@PathVariable Integer cropId) {
-        List<SustainabilityMetric> metrics = sustainabilityService.trackPerCrop(cropId);
+    public ResponseEntity<List<SustainabilityMetricView>> trackPerCrop(@PathVariable Integer cropId) {
+        List<SustainabilityMetricView> metrics = sustainabilityService.trackPerCrop(cropId);
         return ResponseEntity.ok(metrics);
     }
 
     // Monitor sustainability metrics for a specific farm
     @GetMapping("/metrics/farm/{farmId}")
-    public ResponseEntity<List<SustainabilityMetric>> monitorPerFarm(@PathVariable Integer farmId) {
-        List<SustainabilityMetric> metrics = sustainabilityService.monitorPerFarm(farmId);
+    public ResponseEntity<List<SustainabilityMetricView>> monitorPerFarm(@PathVariable Integer farmId) {
+        List<SustainabilityMetricView> metrics = sustainabilityService.monitorPerFarm(farmId);
         return ResponseEntity.ok(metrics);
     }
 
     // Get sustainability metrics by water usage
     @GetMapping("/metrics/water-usage/{waterUsage}")
-    public ResponseEntity<List<SustainabilityMetric>> getMetricsByWaterUsage(@PathVariable Double waterUsage) {
-        List<SustainabilityMetric> metrics = sustainabilityService.getMetricsByWaterUsage(waterUsage);
+    public ResponseEntity<List<SustainabilityMetricView>> getMetricsByWaterUsage(@PathVariable Double waterUsage) {
+        List<SustainabilityMetricView> metrics = sustainabilityService.getMetricsByWaterUsage(waterUsage);
         return ResponseEntity.ok(metrics);
     }
 
     // Get sustainability metrics with water usage below a threshold
     @GetMapping("/metrics/water-usage/below/{threshold}")
-    public ResponseEntity<List<SustainabilityMetric>> getMetricsByWaterUsageBelowThreshold(@PathVariable Double threshold) {
-        List<SustainabilityMetric> metrics = sustainabilityService.getMetricsByWaterUsageBelowThreshold(threshold);
+    public ResponseEntity<List<SustainabilityMetricView>> getMetricsByWaterUsageBelowThreshold(@PathVariable Double threshold) {
+        List<SustainabilityMetricView> metrics = sustainabilityService.getMetricsByWaterUsageBelowThreshold(threshold);
         return ResponseEntity.ok(metrics);
     }
 
     // Get sustainability metrics with soil health above a threshold
     @GetMapping("/metrics/soil-health/above/{threshold}")
-    public ResponseEntity<List<SustainabilityMetric>> getMetricsBySoilHealthAboveThreshold(@PathVariable Double threshold) {
-        List<SustainabilityMetric> metrics = sustainabilityService.getMetricsBySoilHealthAboveThreshold(threshold);
+    public ResponseEntity<List<SustainabilityMetricView>> getMetricsBySoilHealthAboveThreshold(@PathVariable Double threshold) {
+        List<SustainabilityMetricView> metrics = sustainabilityService.getMetricsBySoilHealthAboveThreshold(threshold);
         return ResponseEntity.ok(metrics);
     }
 
     // Get sustainability metrics with pesticide application below a threshold
     @GetMapping("/metrics/pesticide-application/below/{threshold}")
-    public ResponseEntity<List<SustainabilityMetric>> getMetricsByPesticideApplicationBelowThreshold(@PathVariable Double threshold) {
-        List<SustainabilityMetric> metrics = sustainabilityService.getMetricsByPesticideApplicationBelowThreshold(threshold);
+    public ResponseEntity<List<SustainabilityMetricView>> getMetricsByPesticideApplicationBelowThreshold(@PathVariable Double threshold) {
+        List<SustainabilityMetricView> metrics = sustainabilityService.getMetricsByPesticideApplicationBelowThreshold(threshold);
         return ResponseEntity.ok(metrics);
     }
 
     // Get sustainability metrics with energy usage below a threshold
     @GetMapping("/metrics/energy-usage/below/{threshold}")
-    public ResponseEntity<List<SustainabilityMetric>> getMetricsByEnergyUsageBelowThreshold(@PathVariable Double threshold) {
-        List<SustainabilityMetric> metrics = sustainabilityService.getMetricsByEnergyUsageBelowThreshold(threshold);
+    public ResponseEntity<List<SustainabilityMetricView>> getMetricsByEnergyUsageBelowThreshold(@PathVariable Double threshold) {
+        List<SustainabilityMetricView> metrics = sustainabilityService.getMetricsByEnergyUsageBelowThreshold(threshold);
         return ResponseEntity.ok(metrics);
     }
 
+    // Get the metric count and all four metric averages for a farm
+    @GetMapping("/metrics/farm/{farmId}/averages")
+    public ResponseEntity<FarmMetricAverages> getFarmMetricAverages(@PathVariable Integer farmId) {
+        Optional<FarmMetricAverages> averages = sustainabilityService.getFarmMetricAverages(farmId);
+        return averages.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     // Calculate average water usage for a farm
     @GetMapping("/metrics/farm/{farmId}/average-water-usage")
     public ResponseEntity<Double> calculateAverageWaterUsageForFarm(@PathVariable Integer farmId) {
@@ -122,6 +196,28 @@ public class SustainabilityController {
         return sustainabilityScore != null ? ResponseEntity.ok(sustainabilityScore) : ResponseEntity.notFound().build();
     }
 
+    // Calculate sustainability scores for many farms in one query (all farms with metrics when farmIds is omitted)
+    @GetMapping("/metrics/farms/sustainability-scores")
+    public ResponseEntity<Map<Integer, Double>> calculateFarmSustainabilityScores(
+            @RequestParam(required = false) List<Integer> farmIds) {
+        Map<Integer, Double> scores = sustainabilityService.calculateFarmSustainabilityScores(farmIds);
+        return ResponseEntity.ok(scores);
+    }
+
+    // Get the top farms by sustainability score, highest first
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<FarmScore>> getLeaderboard(@RequestParam(defaultValue = "10") int limit) {
+        List<FarmScore> leaderboard = sustainabilityService.getLeaderboard(limit);
+        return ResponseEntity.ok(leaderboard);
+    }
+
+    // Rebuild the leaderboard rollups for all farms from their metrics
+    @PostMapping("/leaderboard/rebuild")
+    public ResponseEntity<String> rebuildLeaderboard() {
+        int rebuilt = sustainabilityService.rebuildLeaderboard();
+        return ResponseEntity.ok("Sustainability rollups rebuilt for " + rebuilt + " farms");
+    }
+
     // Get sustainability recommendations for a farm based on its metrics
     @GetMapping("/metrics/farm/{farmId}/recommendations")
     public ResponseEntity<List<String>> getSustainabilityRecommendations(@PathVariable Integer farmId) {
@@ -0,0 +1,8 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// A rejected row of a bulk upload, numbered from 1 in upload order
+public record BatchImportError(
+        long row,
+        String message
+) {
+}
@@ -0,0 +1,14 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import java.util.List;
+
+// Outcome of a bulk upload; errors lists at most the first BatchImport.MAX_REPORTED_ERRORS rows
+public record BatchImportResult(
+        long received,
+        long inserted,
+        long failed,
+        long elapsedMillis,
+        double rowsPerSecond,
+        List<BatchImportError> errors
+) {
+}
@@ -0,0 +1,11 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// Hit, miss and put counters of one Hibernate second-level or query cache region since startup
+public record CacheRegionStatsView(
+        String region,
+        long hitCount,
+        long missCount,
+        long putCount,
+        long elementCount
+) {
+}
@@ -0,0 +1,12 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// Size and hit, miss and eviction counters of one cache since startup
+public record CacheStatsView(
+        String name,
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount
+) {
+}
@@ -0,0 +1,19 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.Client;
+
+// Client columns with its current order referenced by ID
+public record ClientView(
+        Integer clientID,
+        String name,
+        String contactInfo,
+        String orderPreferences,
+        String paymentHistory,
+        Integer orderID
+) {
+    public static ClientView from(Client client) {
+        return new ClientView(client.getClientID(), client.getName(), client.getContactInfo(),
+                client.getOrderPreferences(), client.getPaymentHistory(),
+                client.getOrder() != null ? client.getOrder().getOrderID() : null);
+    }
+}
@@ -0,0 +1,18 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+import java.util.Set;
+
+// A crop with the relations requested through ?expand=; relations that were not expanded are omitted
+public record CropDetails(
+        @JsonUnwrapped CropView crop,
+        @JsonInclude(JsonInclude.Include.NON_NULL) FarmView farm,
+        @JsonInclude(JsonInclude.Include.NON_NULL) InventoryView inventory,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<HarvestView> harvests,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<SustainabilityMetricView> sustainabilityMetrics
+) {
+    public static final Set<String> EXPANSIONS = Set.of("farm", "inventory", "harvests", "sustainabilityMetrics");
+}
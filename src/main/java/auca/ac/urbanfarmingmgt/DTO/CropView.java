@@ -0,0 +1,28 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+
+import java.util.Date;
+
+// Crop columns with its farm and inventory referenced by ID
+public record CropView(
+        Integer cropID,
+        String cropType,
+        Date plantingSchedule,
+        boolean growingConditions,
+        Double averageYield,
+        Double totalHarvestYield,
+        Long harvestCount,
+        String growingSeason,
+        String locationRequirement,
+        Integer farmID,
+        Integer inventoryID
+) {
+    public static CropView from(Crop crop) {
+        return new CropView(crop.getCropID(), crop.getCropType(), crop.getPlantingSchedule(),
+                crop.isGrowingConditions(), crop.getAverageYield(), crop.getTotalHarvestYield(),
+                crop.getHarvestCount(), crop.getGrowingSeason(), crop.getLocationRequirement(),
+                crop.getFarm() != null ? crop.getFarm().getFarmID() : null,
+                crop.getInventory() != null ? crop.getInventory().getInventoryID() : null);
+    }
+}
@@ -0,0 +1,34 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Parses the comma-separated ?expand= parameter used by detail endpoints to opt into nested collections
+public final class Expansions {
+
+    private Expansions() {
+    }
+
+    public static Set<String> parse(String expand, Set<String> allowed) {
+        if (expand == null || expand.isBlank()) {
+            return Set.of();
+        }
+
+        Set<String> requested = Arrays.stream(expand.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+
+        for (String name : requested) {
+            if (!allowed.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown expand value '" + name + "'; allowed values are " + allowed);
+            }
+        }
+        return requested;
+    }
+}
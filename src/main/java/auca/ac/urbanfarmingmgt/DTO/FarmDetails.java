@@ -0,0 +1,18 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+import java.util.Set;
+
+// A farm with the collections requested through ?expand=; collections that were not expanded are omitted
+public record FarmDetails(
+        @JsonUnwrapped FarmView farm,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<CropView> crops,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<HarvestView> harvests,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<StaffAndVolunteerView> assignedStaff,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<SustainabilityMetricView> sustainabilityMetrics
+) {
+    public static final Set<String> EXPANSIONS = Set.of("crops", "harvests", "assignedStaff", "sustainabilityMetrics");
+}
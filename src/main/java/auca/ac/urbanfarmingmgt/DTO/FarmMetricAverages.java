@@ -0,0 +1,26 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// Per-farm sustainability averages over metrics and sensor readings, read from the farm's rollup
+public record FarmMetricAverages(
+        Integer farmID,
+        Long metricCount,
+        Double averageWaterUsage,
+        Double averageSoilHealth,
+        Double averagePesticideApplication,
+        Double averageEnergyUsage
+) {
+    // Overall 0-100 score; an average over no readings counts as zero
+    public double sustainabilityScore() {
+        double waterScore = 100 - (orZero(averageWaterUsage) * 10); // Lower water usage is better
+        double soilScore = orZero(averageSoilHealth) * 10; // Higher soil health is better
+        double pesticideScore = 100 - (orZero(averagePesticideApplication) * 20); // Lower pesticide usage is better
+        double energyScore = 100 - (orZero(averageEnergyUsage) * 5); // Lower energy usage is better
+
+        double overallScore = (waterScore + soilScore + pesticideScore + energyScore) / 4.0;
+        return Math.max(0, Math.min(100, overallScore));
+    }
+
+    private static double orZero(Double average) {
+        return average != null ? average : 0.0;
+    }
+}
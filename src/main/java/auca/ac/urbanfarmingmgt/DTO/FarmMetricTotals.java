@@ -0,0 +1,24 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// Per-farm sums and non-null reading counts of the four sustainability metric columns
+public record FarmMetricTotals(
+        Integer farmID,
+        Long metricCount,
+        Double waterUsageSum,
+        Long waterUsageCount,
+        Double soilHealthSum,
+        Long soilHealthCount,
+        Double pesticideApplicationSum,
+        Long pesticideApplicationCount,
+        Double energyUsageSum,
+        Long energyUsageCount
+) {
+    // Totals of the same farm from two sources, e.g. manual metrics and sensor readings
+    public FarmMetricTotals plus(FarmMetricTotals other) {
+        return new FarmMetricTotals(farmID, metricCount + other.metricCount,
+                waterUsageSum + other.waterUsageSum, waterUsageCount + other.waterUsageCount,
+                soilHealthSum + other.soilHealthSum, soilHealthCount + other.soilHealthCount,
+                pesticideApplicationSum + other.pesticideApplicationSum, pesticideApplicationCount + other.pesticideApplicationCount,
+                energyUsageSum + other.energyUsageSum, energyUsageCount + other.energyUsageCount);
+    }
+}
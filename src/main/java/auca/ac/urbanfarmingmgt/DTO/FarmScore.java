@@ -0,0 +1,5 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// A farm's position on the sustainability leaderboard
+public record FarmScore(Integer farmID, Double sustainabilityScore, Long metricCount) {
+}
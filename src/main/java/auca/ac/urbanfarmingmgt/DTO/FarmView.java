@@ -0,0 +1,15 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.Farm;
+
+// Farm columns without its crop, harvest, staff and metric collections
+public record FarmView(
+        Integer farmID,
+        String name,
+        String location,
+        Double totalPlantingArea
+) {
+    public static FarmView from(Farm farm) {
+        return new FarmView(farm.getFarmID(), farm.getName(), farm.getLocation(), farm.getTotalPlantingArea());
+    }
+}
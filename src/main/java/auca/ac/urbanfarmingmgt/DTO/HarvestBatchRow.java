@@ -0,0 +1,12 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import java.util.Date;
+
+// One harvest in a bulk upload; the farm and inventory come from the crop and a missing date means now
+public record HarvestBatchRow(
+        Integer cropID,
+        Double yield,
+        Integer qualityRating,
+        Date date
+) {
+}
@@ -0,0 +1,10 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import java.util.List;
+
+// One page of most-recent harvests, undated harvests left out; nextCursor is null on the last page
+public record HarvestCursorPage(
+        List<HarvestView> harvests,
+        String nextCursor
+) {
+}
@@ -0,0 +1,23 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.Harvest;
+
+import java.util.Date;
+
+// Harvest columns with its crop, farm and inventory referenced by ID
+public record HarvestView(
+        Integer harvestID,
+        Date date,
+        Double yield,
+        Integer qualityRating,
+        Integer cropID,
+        Integer farmID,
+        Integer inventoryID
+) {
+    public static HarvestView from(Harvest harvest) {
+        return new HarvestView(harvest.getHarvestID(), harvest.getDate(), harvest.getYield(), harvest.getQualityRating(),
+                harvest.getCrop() != null ? harvest.getCrop().getCropID() : null,
+                harvest.getFarm() != null ? harvest.getFarm().getFarmID() : null,
+                harvest.getInventory() != null ? harvest.getInventory().getInventoryID() : null);
+    }
+}
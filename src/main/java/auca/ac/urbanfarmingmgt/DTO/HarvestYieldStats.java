@@ -0,0 +1,12 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// Aggregate yield figures computed by the database for a set of harvests
+public record HarvestYieldStats(
+        Long harvestCount,
+        Double totalYield,
+        Double averageYield,
+        Double minYield,
+        Double maxYield,
+        Double averageQualityRating
+) {
+}
@@ -0,0 +1,17 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+import java.util.Set;
+
+// An inventory item with the collections requested through ?expand=; collections that were not expanded are omitted
+public record InventoryDetails(
+        @JsonUnwrapped InventoryView inventory,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<HarvestView> harvestList,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<CropView> cropList,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<OrderView> orderList
+) {
+    public static final Set<String> EXPANSIONS = Set.of("harvestList", "cropList", "orderList");
+}
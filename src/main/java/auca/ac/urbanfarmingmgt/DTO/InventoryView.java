@@ -0,0 +1,20 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+
+// Inventory columns without its harvest, crop and order collections
+public record InventoryView(
+        Integer inventoryID,
+        Double quantity,
+        boolean freshnessStatus,
+        String storageLocation,
+        Integer stock,
+        String produceType,
+        Long version
+) {
+    public static InventoryView from(Inventory inventory) {
+        return new InventoryView(inventory.getInventoryID(), inventory.getQuantity(), inventory.isFreshnessStatus(),
+                inventory.getStorageLocation(), inventory.getStock(), inventory.getProduceType(),
+                inventory.getVersion());
+    }
+}
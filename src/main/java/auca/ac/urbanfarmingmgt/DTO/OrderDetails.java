@@ -0,0 +1,16 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+import java.util.Set;
+
+// An order with the relations requested through ?expand=; relations that were not expanded are omitted
+public record OrderDetails(
+        @JsonUnwrapped OrderView order,
+        @JsonInclude(JsonInclude.Include.NON_NULL) InventoryView inventory,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<ClientView> clientList
+) {
+    public static final Set<String> EXPANSIONS = Set.of("inventory", "clientList");
+}
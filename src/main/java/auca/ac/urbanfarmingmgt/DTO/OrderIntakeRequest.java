@@ -0,0 +1,9 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// An order submitted to the asynchronous intake queue; clientID is optional and links the client to the new order
+public record OrderIntakeRequest(
+        Integer inventoryID,
+        Double quantityOrdered,
+        Integer clientID
+) {
+}
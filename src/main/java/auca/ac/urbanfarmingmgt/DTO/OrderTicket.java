@@ -0,0 +1,32 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import java.util.Date;
+
+// Where a queued order stands: PENDING until its batch is written, then ACCEPTED with the order ID or REJECTED
+public record OrderTicket(
+        String ticketID,
+        Status status,
+        Integer inventoryID,
+        Double quantityOrdered,
+        Integer clientID,
+        Integer orderID,
+        String message,
+        Date submittedAt
+) {
+    public enum Status { PENDING, ACCEPTED, REJECTED }
+
+    public static OrderTicket pending(String ticketId, OrderIntakeRequest request) {
+        return new OrderTicket(ticketId, Status.PENDING, request.inventoryID(), request.quantityOrdered(),
+                request.clientID(), null, "Queued", new Date());
+    }
+
+    public OrderTicket accepted(Integer orderId) {
+        return new OrderTicket(ticketID, Status.ACCEPTED, inventoryID, quantityOrdered, clientID, orderId,
+                "Order placed", submittedAt);
+    }
+
+    public OrderTicket rejected(String reason) {
+        return new OrderTicket(ticketID, Status.REJECTED, inventoryID, quantityOrdered, clientID, null,
+                reason, submittedAt);
+    }
+}
@@ -0,0 +1,20 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
+import auca.ac.urbanfarmingmgt.Model.Order;
+
+import java.util.Date;
+
+// Order columns with its inventory referenced by ID
+public record OrderView(
+        Integer orderID,
+        Date orderDate,
+        Double quantityOrdered,
+        DeliveryStatus deliveryStatus,
+        Integer inventoryID
+) {
+    public static OrderView from(Order order) {
+        return new OrderView(order.getOrderID(), order.getOrderDate(), order.getQuantityOrdered(), order.getDeliveryStatus(),
+                order.getInventory() != null ? order.getInventory().getInventoryID() : null);
+    }
+}
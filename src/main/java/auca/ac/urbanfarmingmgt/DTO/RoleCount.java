@@ -0,0 +1,5 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// Number of staff and volunteers holding a role
+public record RoleCount(String role, Long count) {
+}
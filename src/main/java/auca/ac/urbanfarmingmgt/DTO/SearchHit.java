@@ -0,0 +1,13 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+// One ranked /api/search result: the matching record, the field that matched best and a score between 0 and 1
+public record SearchHit(
+        Type type,
+        Integer id,
+        String label,
+        String matchedField,
+        String matchedValue,
+        double score
+) {
+    public enum Type { CROP, FARM, CLIENT }
+}
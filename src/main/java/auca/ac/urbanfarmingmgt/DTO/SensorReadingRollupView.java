@@ -0,0 +1,44 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.RollupGranularity;
+import auca.ac.urbanfarmingmgt.Model.SensorReadingRollup;
+
+import java.util.Date;
+
+// One hourly or daily bucket of a crop's sensor readings with min, max and average of each metric
+public record SensorReadingRollupView(
+        RollupGranularity granularity,
+        Date bucketStart,
+        Integer farmID,
+        Integer cropID,
+        Long readingCount,
+        Double minWaterUsage,
+        Double maxWaterUsage,
+        Double averageWaterUsage,
+        Double minSoilHealth,
+        Double maxSoilHealth,
+        Double averageSoilHealth,
+        Double minPesticideApplication,
+        Double maxPesticideApplication,
+        Double averagePesticideApplication,
+        Double minEnergyUsage,
+        Double maxEnergyUsage,
+        Double averageEnergyUsage
+) {
+    public static SensorReadingRollupView from(SensorReadingRollup rollup) {
+        return new SensorReadingRollupView(rollup.getGranularity(), rollup.getBucketStart(), rollup.getFarmID(),
+                rollup.getCropID(), rollup.getReadingCount(),
+                rollup.getWaterUsageMin(), rollup.getWaterUsageMax(),
+                average(rollup.getWaterUsageSum(), rollup.getWaterUsageCount()),
+                rollup.getSoilHealthMin(), rollup.getSoilHealthMax(),
+                average(rollup.getSoilHealthSum(), rollup.getSoilHealthCount()),
+                rollup.getPesticideApplicationMin(), rollup.getPesticideApplicationMax(),
+                average(rollup.getPesticideApplicationSum(), rollup.getPesticideApplicationCount()),
+                rollup.getEnergyUsageMin(), rollup.getEnergyUsageMax(),
+                average(rollup.getEnergyUsageSum(), rollup.getEnergyUsageCount()));
+    }
+
+    private static Double average(Double sum, Long count) {
+        return count > 0 ? sum / count : null;
+    }
+}
@@ -0,0 +1,15 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import java.util.Date;
+
+// One reading in a sensor upload; farmID may be left out and is then taken from the crop
+public record SensorReadingRow(
+        Integer farmID,
+        Integer cropID,
+        Date recordedAt,
+        Double waterUsage,
+        Double soilHealth,
+        Double pesticideApplication,
+        Double energyUsage
+) {
+}
@@ -0,0 +1,19 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.StaffAndVolunteer;
+
+// Staff or volunteer columns with the assigned farm referenced by ID
+public record StaffAndVolunteerView(
+        Integer personID,
+        String name,
+        String role,
+        String assignedTask,
+        Double workHours,
+        Integer assignedFarmID
+) {
+    public static StaffAndVolunteerView from(StaffAndVolunteer person) {
+        return new StaffAndVolunteerView(person.getPersonID(), person.getName(), person.getRole(),
+                person.getAssignedTask(), person.getWorkHours(),
+                person.getAssignedFarm() != null ? person.getAssignedFarm().getFarmID() : null);
+    }
+}
@@ -0,0 +1,24 @@
+package auca.ac.urbanfarmingmgt.DTO;
+
+import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
+
+import java.util.Date;
+
+// Sustainability metric columns with its farm and crop referenced by ID
+public record SustainabilityMetricView(
+        Integer metricID,
+        Double waterUsage,
+        Double soilHealth,
+        Double pesticideApplication,
+        Double energyUsage,
+        Date recordedAt,
+        Integer farmID,
+        Integer cropID
+) {
+    public static SustainabilityMetricView from(SustainabilityMetric metric) {
+        return new SustainabilityMetricView(metric.getMetricID(), metric.getWaterUsage(), metric.getSoilHealth(),
+                metric.getPesticideApplication(), metric.getEnergyUsage(), metric.getRecordedAt(),
+                metric.getFarm() != null ? metric.getFarm().getFarmID() : null,
+                metric.getCrop() != null ? metric.getCrop().getCropID() : null);
+    }
+}
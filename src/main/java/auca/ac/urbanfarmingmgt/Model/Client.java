@@ -9,17 +9,17 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "Clients")
+@Table(name = "Clients", indexes = @Index(name = "idx_client_contact", columnList = "contactInfo"))
 public class Client {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("Clients")
     private Integer clientID;
     private String name;
     private String contactInfo;
     private String orderPreferences;
     private String paymentHistory;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "orderID", nullable = false)
     private Order order;
 }
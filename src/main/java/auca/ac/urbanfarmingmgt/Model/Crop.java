@@ -1,5 +1,6 @@
 package auca.ac.urbanfarmingmgt.Model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,24 +13,38 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "Crops")
+@Table(name = "Crops", indexes = {
+        @Index(name = "idx_crop_type", columnList = "cropType, farmID"),
+        @Index(name = "idx_crop_season", columnList = "growingSeason"),
+        @Index(name = "idx_crop_location", columnList = "locationRequirement"),
+        @Index(name = "idx_crop_average_yield", columnList = "averageYield")
+})
 public class Crop {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("Crops")
     private Integer cropID;
     private String cropType;
     private Date plantingSchedule;
     private boolean growingConditions;
     private Double averageYield;
+
+    // Running totals behind averageYield, maintained by CropRepository.applyHarvestYieldDelta
+    @Builder.Default
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double totalHarvestYield = 0.0;
+
+    @Builder.Default
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long harvestCount = 0L;
+
     private String growingSeason;
     private String locationRequirement;
 
-
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "farmID", nullable = false)
     private Farm farm;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "inventoryID", nullable = false)
     private Inventory inventory;
 
@@ -0,0 +1,63 @@
+package auca.ac.urbanfarmingmgt.Model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+// Lifecycle of an order. Dispatchers claim PENDING orders as PROCESSING, an order holds its quantity out of inventory
+// from the moment it enters PROCESSING or PLACED, and DELIVERED and CANCELLED are final. JSON and request parameters use
+// the labels.
+public enum DeliveryStatus {
+    PENDING("Pending"),
+    PROCESSING("Processing"),
+    PLACED("Placed"),
+    DELIVERED("Delivered"),
+    CANCELLED("Cancelled");
+
+    private final String label;
+
+    DeliveryStatus(String label) {
+        this.label = label;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    // Statuses an order in this status may move to
+    public Set<DeliveryStatus> next() {
+        return switch (this) {
+            // PROCESSING goes back to PENDING when a dispatcher releases an order it claimed
+            case PENDING -> EnumSet.of(PROCESSING, PLACED, CANCELLED);
+            case PROCESSING -> EnumSet.of(PENDING, PLACED, DELIVERED, CANCELLED);
+            case PLACED -> EnumSet.of(DELIVERED, CANCELLED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(DeliveryStatus.class);
+        };
+    }
+
+    public boolean canMoveTo(DeliveryStatus status) {
+        return next().contains(status);
+    }
+
+    // Whether an order in this status has its quantity taken out of inventory; a delivered order keeps it
+    public boolean holdsStock() {
+        return this == PROCESSING || this == PLACED || this == DELIVERED;
+    }
+
+    // Status by label or name, ignoring case
+    public static Optional<DeliveryStatus> parse(String value) {
+        return Arrays.stream(values())
+                .filter(status -> status.label.equalsIgnoreCase(value) || status.name().equalsIgnoreCase(value))
+                .findFirst();
+    }
+
+    @JsonCreator
+    static DeliveryStatus fromJson(String value) {
+        return parse(value).orElseThrow(() -> new IllegalArgumentException("Unknown delivery status: " + value));
+    }
+}
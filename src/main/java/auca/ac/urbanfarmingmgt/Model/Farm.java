@@ -14,7 +14,7 @@ import java.util.List;
 @Table(name = "Farms")
 public class Farm {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("Farms")
     private Integer farmID;
     private String name;
     private String location;
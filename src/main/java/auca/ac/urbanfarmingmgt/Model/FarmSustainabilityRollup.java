@@ -0,0 +1,111 @@
+package auca.ac.urbanfarmingmgt.Model;
+
+import auca.ac.urbanfarmingmgt.DTO.FarmMetricAverages;
+import auca.ac.urbanfarmingmgt.DTO.FarmMetricTotals;
+import jakarta.persistence.*;
+import lombok.*;
+
+// Running sums and counts of a farm's sustainability metrics and sensor readings, kept in step by
+// SustainabilityLeaderboardService; the farm score, averages and recommendations are read from here
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "FarmSustainabilityRollups",
+        indexes = @Index(name = "idx_rollup_score", columnList = "sustainabilityScore"))
+public class FarmSustainabilityRollup {
+    @Id
+    private Integer farmID;
+
+    @Builder.Default
+    private Long metricCount = 0L;
+
+    @Builder.Default
+    private Double waterUsageSum = 0.0;
+    @Builder.Default
+    private Long waterUsageCount = 0L;
+
+    @Builder.Default
+    private Double soilHealthSum = 0.0;
+    @Builder.Default
+    private Long soilHealthCount = 0L;
+
+    @Builder.Default
+    private Double pesticideApplicationSum = 0.0;
+    @Builder.Default
+    private Long pesticideApplicationCount = 0L;
+
+    @Builder.Default
+    private Double energyUsageSum = 0.0;
+    @Builder.Default
+    private Long energyUsageCount = 0L;
+
+    private Double sustainabilityScore;
+
+    public static FarmSustainabilityRollup from(FarmMetricTotals totals) {
+        FarmSustainabilityRollup rollup = FarmSustainabilityRollup.builder()
+                .farmID(totals.farmID())
+                .metricCount(totals.metricCount())
+                .waterUsageSum(totals.waterUsageSum())
+                .waterUsageCount(totals.waterUsageCount())
+                .soilHealthSum(totals.soilHealthSum())
+                .soilHealthCount(totals.soilHealthCount())
+                .pesticideApplicationSum(totals.pesticideApplicationSum())
+                .pesticideApplicationCount(totals.pesticideApplicationCount())
+                .energyUsageSum(totals.energyUsageSum())
+                .energyUsageCount(totals.energyUsageCount())
+                .build();
+        rollup.refreshScore();
+        return rollup;
+    }
+
+    // Add (sign 1) or remove (sign -1) one metric's readings and rescore
+    public void apply(SustainabilityMetric metric, int sign) {
+        apply(metric.getWaterUsage(), metric.getSoilHealth(), metric.getPesticideApplication(), metric.getEnergyUsage(), sign);
+    }
+
+    // Add one sensor reading and rescore
+    public void apply(SensorReading reading) {
+        apply(reading.getWaterUsage(), reading.getSoilHealth(), reading.getPesticideApplication(), reading.getEnergyUsage(), 1);
+    }
+
+    private void apply(Double waterUsage, Double soilHealth, Double pesticideApplication, Double energyUsage, int sign) {
+        metricCount += sign;
+        if (waterUsage != null) {
+            waterUsageSum += sign * waterUsage;
+            waterUsageCount += sign;
+        }
+        if (soilHealth != null) {
+            soilHealthSum += sign * soilHealth;
+            soilHealthCount += sign;
+        }
+        if (pesticideApplication != null) {
+            pesticideApplicationSum += sign * pesticideApplication;
+            pesticideApplicationCount += sign;
+        }
+        if (energyUsage != null) {
+            energyUsageSum += sign * energyUsage;
+            energyUsageCount += sign;
+        }
+        refreshScore();
+    }
+
+    // The farm's averages over everything counted so far
+    public FarmMetricAverages toAverages() {
+        return new FarmMetricAverages(farmID, metricCount,
+                average(waterUsageSum, waterUsageCount),
+                average(soilHealthSum, soilHealthCount),
+                average(pesticideApplicationSum, pesticideApplicationCount),
+                average(energyUsageSum, energyUsageCount));
+    }
+
+    private void refreshScore() {
+        sustainabilityScore = toAverages().sustainabilityScore();
+    }
+
+    private static Double average(Double sum, Long count) {
+        return count > 0 ? sum / count : null;
+    }
+}
@@ -11,24 +11,30 @@ import java.util.Date;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "Harvests")
+@Table(name = "Harvests", indexes = {
+        @Index(name = "idx_harvest_date", columnList = "date, harvestID"),
+        @Index(name = "idx_harvest_quality", columnList = "qualityRating"),
+        @Index(name = "idx_harvest_yield", columnList = "yield"),
+        @Index(name = "idx_harvest_farm_yield", columnList = "farmID, yield, qualityRating"),
+        @Index(name = "idx_harvest_crop_yield", columnList = "cropID, yield, qualityRating")
+})
 public class Harvest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("Harvests")
     private Integer harvestID;
     private Date date;
     private Double yield;
     private Integer qualityRating;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cropID", nullable = false)
     private Crop crop;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "farmID", nullable = false)
     private Farm farm;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "inventoryID", nullable = false)
     private Inventory inventory;
 }
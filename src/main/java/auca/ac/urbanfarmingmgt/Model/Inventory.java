@@ -12,10 +12,10 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "Inventory")
+@Table(name = "Inventory", indexes = @Index(name = "idx_inventory_produce_type", columnList = "produceType"))
 public class Inventory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("Inventory")
     private Integer inventoryID;
     private Double quantity;
     private boolean freshnessStatus;
@@ -23,6 +23,12 @@ public class Inventory {
     private Integer stock;
     private String produceType;
 
+    // Optimistic lock; the bulk quantity and stock updates in InventoryRepository bump it as well
+    @Version
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version = 0L;
+
     @OneToMany(mappedBy = "inventory", fetch = FetchType.LAZY)
     private List<Harvest> harvestList;
 
@@ -12,19 +12,23 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "Orders")
+@Table(name = "Orders", indexes = @Index(name = "idx_order_status", columnList = "deliveryStatus, orderID"))
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("Orders")
     private Integer orderID;
     private Date orderDate;
     private Double quantityOrdered;
-    private String deliveryStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Builder.Default
+    private DeliveryStatus deliveryStatus = DeliveryStatus.PENDING;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
     private List<Client> clientList;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "inventoryID", nullable = false)
     private Inventory inventory;
 }
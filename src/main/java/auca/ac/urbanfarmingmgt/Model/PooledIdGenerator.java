@@ -0,0 +1,45 @@
+package auca.ac.urbanfarmingmgt.Model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+// Table-backed pooled-lo generator behind @PooledId. Every entity shares the id_generators table, one row each,
+// and reserves urbanfarming.id-allocation-size IDs per round trip so Hibernate can batch its inserts.
+// With pooled-lo the stored value is the next unused ID, so the allocation size can be changed between runs.
+public class PooledIdGenerator extends TableGenerator {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "generator_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final String ALLOCATION_SIZE_SETTING = "urbanfarming.id-allocation-size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String generatorName;
+
+    public PooledIdGenerator(PooledId config) {
+        this.generatorName = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+
+        parameters.setProperty(TABLE_PARAM, TABLE);
+        parameters.setProperty(SEGMENT_COLUMN_PARAM, NAME_COLUMN);
+        parameters.setProperty(VALUE_COLUMN_PARAM, VALUE_COLUMN);
+        parameters.setProperty(SEGMENT_VALUE_PARAM, generatorName);
+        parameters.setProperty(OptimizableGenerator.INITIAL_PARAM, "1");
+        parameters.setProperty(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.setProperty(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package auca.ac.urbanfarmingmgt.Model;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+// Bucket sizes the sensor readings are downsampled into; buckets start on UTC hour and day boundaries
+public enum RollupGranularity {
+    HOURLY(ChronoUnit.HOURS),
+    DAILY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    // Start of the bucket holding the given time
+    public Date bucketStart(Date time) {
+        return Date.from(time.toInstant().truncatedTo(unit));
+    }
+}
@@ -0,0 +1,40 @@
+package auca.ac.urbanfarmingmgt.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+// One timestamped sensor reading for a crop bed. Rows are only ever appended; reads go through SensorReadingRollup.
+// The (farmID, recordedAt) index keeps each farm's readings together in time order.
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "SensorReadings", indexes = {
+        @Index(name = "idx_reading_farm_time", columnList = "farmID, recordedAt"),
+        @Index(name = "idx_reading_crop_time", columnList = "cropID, recordedAt")
+})
+public class SensorReading {
+    @Id
+    @PooledId("SensorReadings")
+    private Long readingID;
+
+    @Column(nullable = false)
+    private Date recordedAt;
+
+    private Double waterUsage;
+    private Double soilHealth;
+    private Double pesticideApplication;
+    private Double energyUsage;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "farmID", nullable = false)
+    private Farm farm;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cropID", nullable = false)
+    private Crop crop;
+}
@@ -0,0 +1,100 @@
+package auca.ac.urbanfarmingmgt.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+// Hourly or daily downsample of one crop's sensor readings: reading count plus count, sum, min and max of each metric.
+// Kept in step with SensorReadings by SensorReadingService as readings are appended.
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "SensorReadingRollups", uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket",
+        columnNames = {"granularity", "farmID", "cropID", "bucketStart"}),
+        indexes = @Index(name = "idx_reading_rollup_crop", columnList = "cropID, farmID"))
+public class SensorReadingRollup {
+    @Id
+    @PooledId("SensorReadingRollups")
+    private Long rollupID;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private Date bucketStart;
+
+    @Column(nullable = false)
+    private Integer farmID;
+
+    @Column(nullable = false)
+    private Integer cropID;
+
+    @Builder.Default
+    private Long readingCount = 0L;
+
+    @Builder.Default
+    private Double waterUsageSum = 0.0;
+    @Builder.Default
+    private Long waterUsageCount = 0L;
+    private Double waterUsageMin;
+    private Double waterUsageMax;
+
+    @Builder.Default
+    private Double soilHealthSum = 0.0;
+    @Builder.Default
+    private Long soilHealthCount = 0L;
+    private Double soilHealthMin;
+    private Double soilHealthMax;
+
+    @Builder.Default
+    private Double pesticideApplicationSum = 0.0;
+    @Builder.Default
+    private Long pesticideApplicationCount = 0L;
+    private Double pesticideApplicationMin;
+    private Double pesticideApplicationMax;
+
+    @Builder.Default
+    private Double energyUsageSum = 0.0;
+    @Builder.Default
+    private Long energyUsageCount = 0L;
+    private Double energyUsageMin;
+    private Double energyUsageMax;
+
+    // Fold one reading into the bucket
+    public void add(SensorReading reading) {
+        readingCount++;
+        Double water = reading.getWaterUsage();
+        if (water != null) {
+            waterUsageSum += water;
+            waterUsageCount++;
+            waterUsageMin = waterUsageMin == null ? water : Math.min(waterUsageMin, water);
+            waterUsageMax = waterUsageMax == null ? water : Math.max(waterUsageMax, water);
+        }
+        Double soil = reading.getSoilHealth();
+        if (soil != null) {
+            soilHealthSum += soil;
+            soilHealthCount++;
+            soilHealthMin = soilHealthMin == null ? soil : Math.min(soilHealthMin, soil);
+            soilHealthMax = soilHealthMax == null ? soil : Math.max(soilHealthMax, soil);
+        }
+        Double pesticide = reading.getPesticideApplication();
+        if (pesticide != null) {
+            pesticideApplicationSum += pesticide;
+            pesticideApplicationCount++;
+            pesticideApplicationMin = pesticideApplicationMin == null ? pesticide : Math.min(pesticideApplicationMin, pesticide);
+            pesticideApplicationMax = pesticideApplicationMax == null ? pesticide : Math.max(pesticideApplicationMax, pesticide);
+        }
+        Double energy = reading.getEnergyUsage();
+        if (energy != null) {
+            energyUsageSum += energy;
+            energyUsageCount++;
+            energyUsageMin = energyUsageMin == null ? energy : Math.min(energyUsageMin, energy);
+            energyUsageMax = energyUsageMax == null ? energy : Math.max(energyUsageMax, energy);
+        }
+    }
+}
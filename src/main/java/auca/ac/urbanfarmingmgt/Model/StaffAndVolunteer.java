@@ -9,17 +9,21 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "staff_and_volunteers")
+@Table(name = "staff_and_volunteers", indexes = {
+        @Index(name = "idx_staff_farm_hours", columnList = "assigned_farm, workHours"),
+        @Index(name = "idx_staff_work_hours", columnList = "workHours"),
+        @Index(name = "idx_staff_role", columnList = "role")
+})
 public class StaffAndVolunteer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("staff_and_volunteers")
     private Integer personID;
     private String name;
     private String role;
     private String assignedTask;
     private Double workHours;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_farm", nullable = true)
     private Farm assignedFarm;
 }
\ No newline at end of file
@@ -3,27 +3,43 @@ package auca.ac.urbanfarmingmgt.Model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.Date;
+
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "SustainabilityMetrics")
+// The latest metric of a crop is the one recorded last, the higher ID winning a tie; this index answers that with a single seek
+@Table(name = "SustainabilityMetrics", indexes = {
+        @Index(name = "idx_metric_crop_latest", columnList = "cropID, recordedAt, metricID")
+})
 public class SustainabilityMetric {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("SustainabilityMetrics")
     private Integer metricID;
     private Double waterUsage;
     private Double soilHealth;
     private Double pesticideApplication;
     private Double energyUsage;
 
-    @ManyToOne
+    @Column(nullable = false)
+    private Date recordedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "farmID", nullable = false)
     private Farm farm;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cropID", nullable = false)
     private Crop crop;
+
+    // Metrics saved without a time are taken as recorded now
+    @PrePersist
+    void defaultRecordedAt() {
+        if (recordedAt == null) {
+            recordedAt = new Date();
+        }
+    }
 }
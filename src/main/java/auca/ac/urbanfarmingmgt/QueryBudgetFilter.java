@@ -0,0 +1,136 @@
+package auca.ac.urbanfarmingmgt;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+// Counts the JDBC executions (a batch counts once) each HTTP request runs on its own thread. The count goes out as
+// the X-Query-Count response header, set just before the body starts so it covers the handler's work, and into the
+// urbanfarming.request.statements summary per route. A request running more than urbanfarming.query-budget.per-request
+// statements is logged as a warning, which is how N+1 loads show up.
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String STATEMENTS_PER_REQUEST = "urbanfarming.request.statements";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    // The request being served on this thread and the statements it has run so far
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private static class RequestStatements {
+        final HttpServletRequest request;
+        int count;
+
+        RequestStatements(HttpServletRequest request) {
+            this.request = request;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${urbanfarming.query-budget.per-request:25}")
+    private int budget;
+
+    // Count one JDBC execution against the current request, if there is one
+    public static void countStatement() {
+        RequestStatements current = CURRENT.get();
+        if (current != null) {
+            current.count++;
+        }
+    }
+
+    // Method and route pattern of the current request, e.g. GET /api/farms/{farmId}, or "no request" off request threads
+    public static String currentRoute() {
+        RequestStatements current = CURRENT.get();
+        return current != null ? route(current.request) : "no request";
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatements current = new RequestStatements(request);
+        CURRENT.set(current);
+        try {
+            chain.doFilter(request, new QueryCountHeaderResponse(response, current));
+        } finally {
+            CURRENT.remove();
+        }
+        if (!response.isCommitted()) {
+            response.setIntHeader(QUERY_COUNT_HEADER, current.count);
+        }
+
+        String route = route(request);
+        DistributionSummary.builder(STATEMENTS_PER_REQUEST)
+                .description("JDBC executions per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", patternOf(request))
+                .register(meterRegistry).record(current.count);
+        if (current.count > budget) {
+            log.warn("{} ran {} SQL statements, over the budget of {}", route, current.count, budget);
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        return request.getMethod() + " " + patternOf(request);
+    }
+
+    // The matched route pattern, so every farm ID lands on the same tag; the raw URI when no handler matched
+    private static String patternOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    // Sets the query count header at the last moment it can still be sent: when the body is about to be written
+    private static class QueryCountHeaderResponse extends HttpServletResponseWrapper {
+
+        private final RequestStatements current;
+
+        QueryCountHeaderResponse(HttpServletResponse response, RequestStatements current) {
+            super(response);
+            this.current = current;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setCountHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setCountHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setCountHeader();
+            super.flushBuffer();
+        }
+
+        private void setCountHeader() {
+            if (!isCommitted()) {
+                setIntHeader(QUERY_COUNT_HEADER, current.count);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package auca.ac.urbanfarmingmgt;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Wraps the DataSource in a datasource-proxy so every JDBC execution goes through SlowQueryListener, which counts
+// it for QueryBudgetFilter and logs it when it is slower than urbanfarming.slow-query.threshold. This replaces
+// spring.jpa.show-sql, which printed every statement to stdout on the request thread.
+@Configuration
+public class QueryLogConfig {
+
+    // Static, so the DataSource is wrapped before anything else asks for it
+    @Bean
+    public static BeanPostProcessor queryLoggingDataSourcePostProcessor(Environment environment) {
+        Duration threshold = environment.getProperty("urbanfarming.slow-query.threshold", Duration.class, Duration.ofMillis(200));
+        double sampleRate = environment.getProperty("urbanfarming.slow-query.sample-rate", Double.class, 1.0);
+        SlowQueryListener listener = new SlowQueryListener(threshold.toMillis(), sampleRate);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource).listener(listener).build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,10 +1,40 @@
 package auca.ac.urbanfarmingmgt.Repository;
 
+import auca.ac.urbanfarmingmgt.DTO.ClientView;
 import auca.ac.urbanfarmingmgt.Model.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ClientRepository extends JpaRepository<Client, Integer> {
-    List<Client> findByContactInfo(String contactInfo);
+
+    // Client columns plus the order ID read straight from the foreign key
+    String CLIENT_VIEW = "SELECT new auca.ac.urbanfarmingmgt.DTO.ClientView(cl.clientID, cl.name, cl.contactInfo, " +
+            "cl.orderPreferences, cl.paymentHistory, cl.order.orderID) FROM Client cl";
+
+    @Query(value = CLIENT_VIEW, countQuery = "SELECT COUNT(cl) FROM Client cl")
+    Page<ClientView> findAllViews(Pageable pageable);
+
+    @Query(CLIENT_VIEW + " WHERE cl.clientID = :clientId")
+    Optional<ClientView> findViewById(@Param("clientId") Integer clientId);
+
+    @Query(CLIENT_VIEW + " WHERE cl.contactInfo = :contactInfo")
+    List<ClientView> findByContactInfo(@Param("contactInfo") String contactInfo);
+
+    @Query(CLIENT_VIEW + " WHERE cl.order.orderID = :orderId")
+    List<ClientView> findByOrderId(@Param("orderId") Integer orderId);
+
+    // Streams every row with a server-side cursor for NDJSON export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(CLIENT_VIEW)
+    Stream<ClientView> streamAllViews();
 }
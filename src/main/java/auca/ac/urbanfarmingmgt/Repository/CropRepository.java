@@ -1,29 +1,92 @@
 package auca.ac.urbanfarmingmgt.Repository;
 
+import auca.ac.urbanfarmingmgt.CacheConfig;
+import auca.ac.urbanfarmingmgt.DTO.CropView;
 import auca.ac.urbanfarmingmgt.Model.Crop;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CropRepository extends JpaRepository<Crop, Integer> {
 
-    List<Crop> findByCropType(String cropType);
+    // Crop columns plus farm and inventory IDs read straight from the foreign keys
+    String CROP_VIEW = "SELECT new auca.ac.urbanfarmingmgt.DTO.CropView(c.cropID, c.cropType, c.plantingSchedule, " +
+            "c.growingConditions, c.averageYield, c.totalHarvestYield, c.harvestCount, c.growingSeason, " +
+            "c.locationRequirement, c.farm.farmID, c.inventory.inventoryID) FROM Crop c";
 
-    List<Crop> findByGrowingSeason(String growingSeason);
+    @Query(value = CROP_VIEW, countQuery = "SELECT COUNT(c) FROM Crop c")
+    Page<CropView> findAllViews(Pageable pageable);
 
-    List<Crop> findByLocationRequirement(String locationRequirement);
+    @Cacheable(CacheConfig.CROPS)
+    @Query(CROP_VIEW + " WHERE c.cropID = :cropId")
+    Optional<CropView> findViewById(@Param("cropId") Integer cropId);
 
-    List<Crop> findByFarmFarmID(Integer farmID);
+    @Query(CROP_VIEW + " WHERE c.cropType = :cropType")
+    List<CropView> findByCropType(@Param("cropType") String cropType);
 
-    List<Crop> findByAverageYieldGreaterThan(Double yield);
+    // Repeated finders are answered from the query cache until the Crops table is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(CROP_VIEW + " WHERE c.growingSeason = :growingSeason")
+    List<CropView> findByGrowingSeason(@Param("growingSeason") String growingSeason);
 
-    @Query("SELECT c FROM Crop c WHERE c.locationRequirement LIKE %:location%")
-    List<Crop> findCropsEligibleForLocation(@Param("location") String location);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(CROP_VIEW + " WHERE c.locationRequirement = :locationRequirement")
+    List<CropView> findByLocationRequirement(@Param("locationRequirement") String locationRequirement);
 
-    List<Crop> findByGrowingConditions(boolean condition);
+    @Query(CROP_VIEW + " WHERE c.farm.farmID = :farmId")
+    List<CropView> findByFarmFarmID(@Param("farmId") Integer farmID);
 
-}
\ No newline at end of file
+    @Query(CROP_VIEW + " WHERE c.inventory.inventoryID = :inventoryId")
+    List<CropView> findByInventoryId(@Param("inventoryId") Integer inventoryId);
+
+    @Query(CROP_VIEW + " WHERE c.averageYield > :yield")
+    List<CropView> findByAverageYieldGreaterThan(@Param("yield") Double yield);
+
+    @Query(CROP_VIEW + " WHERE c.cropID IN :cropIds ORDER BY c.cropID")
+    List<CropView> findViewsByIds(@Param("cropIds") Collection<Integer> cropIds);
+
+    @Query(CROP_VIEW + " WHERE c.growingConditions = :condition")
+    List<CropView> findByGrowingConditions(@Param("condition") boolean condition);
+
+    // averageYield is assigned first because MySQL evaluates single-table UPDATE assignments left to right
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Crop c SET " +
+            "c.averageYield = CASE WHEN COALESCE(c.harvestCount, 0) + :countDelta > 0 " +
+            "THEN (COALESCE(c.totalHarvestYield, 0.0) + :yieldDelta) / (COALESCE(c.harvestCount, 0) + :countDelta) " +
+            "ELSE c.averageYield END, " +
+            "c.totalHarvestYield = COALESCE(c.totalHarvestYield, 0.0) + :yieldDelta, " +
+            "c.harvestCount = COALESCE(c.harvestCount, 0) + :countDelta " +
+            "WHERE c.cropID = :cropId")
+    int applyHarvestYieldDelta(@Param("cropId") Integer cropId,
+                               @Param("yieldDelta") double yieldDelta,
+                               @Param("countDelta") long countDelta);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Crop c SET " +
+            "c.averageYield = COALESCE((SELECT AVG(h.yield) FROM Harvest h WHERE h.crop.cropID = c.cropID), c.averageYield), " +
+            "c.totalHarvestYield = (SELECT COALESCE(SUM(h.yield), 0.0) FROM Harvest h WHERE h.crop.cropID = c.cropID), " +
+            "c.harvestCount = (SELECT COUNT(h.yield) FROM Harvest h WHERE h.crop.cropID = c.cropID)")
+    int recomputeHarvestYieldTotals();
+
+    // Streams every row with a server-side cursor for NDJSON export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(CROP_VIEW)
+    Stream<CropView> streamAllViews();
+}
@@ -1,24 +1,58 @@
 package auca.ac.urbanfarmingmgt.Repository;
 
+import auca.ac.urbanfarmingmgt.CacheConfig;
+import auca.ac.urbanfarmingmgt.DTO.FarmView;
 import auca.ac.urbanfarmingmgt.Model.Farm;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FarmRepository extends JpaRepository<Farm, Integer> {
 
-    List<Farm> findByNameContaining(String name);
+    // Farm columns only; the crop, harvest, staff and metric collections are never touched
+    String FARM_VIEW = "SELECT new auca.ac.urbanfarmingmgt.DTO.FarmView(f.farmID, f.name, f.location, " +
+            "f.totalPlantingArea) FROM Farm f";
 
-    @Query("SELECT f FROM Farm f JOIN f.crops c WHERE c.cropType = :cropType")
-    List<Farm> findByCropType(@Param("cropType") String cropType);
+    @Query(value = FARM_VIEW, countQuery = "SELECT COUNT(f) FROM Farm f")
+    Page<FarmView> findAllViews(Pageable pageable);
 
-    @Query("SELECT f FROM Farm f JOIN f.assignedStaff s WHERE s.personID = :staffId")
-    List<Farm> findByStaffId(@Param("staffId") Integer staffId);
+    @Cacheable(CacheConfig.FARMS)
+    @Query(FARM_VIEW + " WHERE f.farmID = :farmId")
+    Optional<FarmView> findViewById(@Param("farmId") Integer farmId);
 
-    @Query("SELECT f FROM Farm f JOIN f.sustainabilityMetrics sm WHERE sm.metricID = :metricId")
-    List<Farm> findByMetricId(@Param("metricId") Integer metricId);
-}
\ No newline at end of file
+    @Query(FARM_VIEW + " WHERE f.farmID IN :farmIds ORDER BY f.farmID")
+    List<FarmView> findViewsByIds(@Param("farmIds") Collection<Integer> farmIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(FARM_VIEW + " WHERE f.farmID IN (SELECT c.farm.farmID FROM Crop c WHERE c.cropType = :cropType)")
+    List<FarmView> findByCropType(@Param("cropType") String cropType);
+
+    @Query(FARM_VIEW + " WHERE f.farmID IN (SELECT s.assignedFarm.farmID FROM StaffAndVolunteer s WHERE s.personID = :staffId)")
+    List<FarmView> findByStaffId(@Param("staffId") Integer staffId);
+
+    @Query(FARM_VIEW + " WHERE f.farmID IN (SELECT sm.farm.farmID FROM SustainabilityMetric sm WHERE sm.metricID = :metricId)")
+    List<FarmView> findByMetricId(@Param("metricId") Integer metricId);
+
+    // Loads the farm and its crops in one joined select
+    @EntityGraph(attributePaths = "crops")
+    Optional<Farm> findWithCropsByFarmID(Integer farmId);
+
+    // Streams every row with a server-side cursor for NDJSON export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(FARM_VIEW)
+    Stream<FarmView> streamAllViews();
+}
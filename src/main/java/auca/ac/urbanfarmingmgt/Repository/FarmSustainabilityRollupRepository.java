@@ -0,0 +1,47 @@
+package auca.ac.urbanfarmingmgt.Repository;
+
+import auca.ac.urbanfarmingmgt.DTO.FarmScore;
+import auca.ac.urbanfarmingmgt.Model.FarmSustainabilityRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FarmSustainabilityRollupRepository extends JpaRepository<FarmSustainabilityRollup, Integer> {
+
+    // Creates the farm's empty rollup row unless it is already there. On a duplicate key the row is locked for update
+    // rather than the insert failing, so writers racing to create the same farm's row queue up behind each other.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO farm_sustainability_rollups (farmid, metric_count, water_usage_sum, water_usage_count, " +
+            "soil_health_sum, soil_health_count, pesticide_application_sum, pesticide_application_count, " +
+            "energy_usage_sum, energy_usage_count) VALUES (:farmId, 0, 0, 0, 0, 0, 0, 0, 0, 0) " +
+            "ON DUPLICATE KEY UPDATE farmid = farmid", nativeQuery = true)
+    int insertIfAbsent(@Param("farmId") Integer farmId);
+
+    // Locks the farm's rollup row so concurrent metric writes apply their deltas one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM FarmSustainabilityRollup r WHERE r.farmID = :farmId")
+    Optional<FarmSustainabilityRollup> findForUpdate(@Param("farmId") Integer farmId);
+
+    // Top farms by score, read from the score index without touching SustainabilityMetrics
+    @Query("SELECT new auca.ac.urbanfarmingmgt.DTO.FarmScore(r.farmID, r.sustainabilityScore, r.metricCount) " +
+            "FROM FarmSustainabilityRollup r ORDER BY r.sustainabilityScore DESC, r.farmID")
+    List<FarmScore> findTopScores(Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM FarmSustainabilityRollup r WHERE r.farmID IN :farmIds")
+    void deleteByFarmIds(@Param("farmIds") Collection<Integer> farmIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM FarmSustainabilityRollup r")
+    void deleteAllRollups();
+}
@@ -1,34 +1,89 @@
 package auca.ac.urbanfarmingmgt.Repository;
 
+import auca.ac.urbanfarmingmgt.DTO.HarvestView;
+import auca.ac.urbanfarmingmgt.DTO.HarvestYieldStats;
 import auca.ac.urbanfarmingmgt.Model.Harvest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface HarvestRepository extends JpaRepository<Harvest, Integer> {
 
-    List<Harvest> findByQualityRating(Integer qualityRating);
+    // Harvest columns plus parent IDs read straight from the foreign keys, without loading any entity
+    String HARVEST_VIEW = "SELECT new auca.ac.urbanfarmingmgt.DTO.HarvestView(h.harvestID, h.date, h.yield, " +
+            "h.qualityRating, h.crop.cropID, h.farm.farmID, h.inventory.inventoryID) FROM Harvest h";
 
-    @Query("SELECT h FROM Harvest h WHERE h.date BETWEEN :startDate AND :endDate")
-    List<Harvest> findByDateRange(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+    @Query(value = HARVEST_VIEW, countQuery = "SELECT COUNT(h) FROM Harvest h")
+    Page<HarvestView> findAllViews(Pageable pageable);
 
-    @Query("SELECT h FROM Harvest h WHERE h.farm.farmID = :farmId")
-    List<Harvest> findByFarmId(@Param("farmId") Integer farmId);
+    @Query(HARVEST_VIEW + " WHERE h.harvestID = :harvestId")
+    Optional<HarvestView> findViewById(@Param("harvestId") Integer harvestId);
 
-    @Query("SELECT h FROM Harvest h WHERE h.crop.cropID = :cropId")
-    List<Harvest> findByCropId(@Param("cropId") Integer cropId);
+    @Query(HARVEST_VIEW + " WHERE h.qualityRating = :qualityRating")
+    List<HarvestView> findByQualityRating(@Param("qualityRating") Integer qualityRating);
 
-    @Query("SELECT h FROM Harvest h WHERE h.inventory.inventoryID = :inventoryId")
-    List<Harvest> findByInventoryId(@Param("inventoryId") Integer inventoryId);
+    @Query(HARVEST_VIEW + " WHERE h.date BETWEEN :startDate AND :endDate")
+    List<HarvestView> findByDateRange(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
 
-    @Query("SELECT h FROM Harvest h WHERE h.yield > :threshold")
-    List<Harvest> findByYieldAboveThreshold(@Param("threshold") Double threshold);
+    @Query(HARVEST_VIEW + " WHERE h.farm.farmID = :farmId")
+    List<HarvestView> findByFarmId(@Param("farmId") Integer farmId);
 
-    @Query("SELECT h FROM Harvest h ORDER BY h.date DESC")
-    List<Harvest> findMostRecentHarvests();
-}
\ No newline at end of file
+    @Query(HARVEST_VIEW + " WHERE h.crop.cropID = :cropId")
+    List<HarvestView> findByCropId(@Param("cropId") Integer cropId);
+
+    @Query(HARVEST_VIEW + " WHERE h.inventory.inventoryID = :inventoryId")
+    List<HarvestView> findByInventoryId(@Param("inventoryId") Integer inventoryId);
+
+    @Query(HARVEST_VIEW + " WHERE h.yield > :threshold")
+    List<HarvestView> findByYieldAboveThreshold(@Param("threshold") Double threshold);
+
+    // Harvests without a date have no place in the ordering and are left out, here and in the keyset pages
+    @Query(HARVEST_VIEW + " WHERE h.date IS NOT NULL ORDER BY h.date DESC, h.harvestID DESC")
+    List<HarvestView> findMostRecentHarvests(Pageable pageable);
+
+    // Keyset page: harvests strictly older than the (date, harvestID) cursor; undated harvests never match
+    @Query(HARVEST_VIEW + " WHERE h.date < :date OR (h.date = :date AND h.harvestID < :harvestId) " +
+            "ORDER BY h.date DESC, h.harvestID DESC")
+    List<HarvestView> findHarvestsBefore(@Param("date") Date date, @Param("harvestId") Integer harvestId, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(h.yield), 0.0) FROM Harvest h")
+    Double sumYield();
+
+    @Query("SELECT COALESCE(SUM(h.yield), 0.0) FROM Harvest h WHERE h.farm.farmID = :farmId")
+    Double sumYieldByFarmId(@Param("farmId") Integer farmId);
+
+    @Query("SELECT COALESCE(SUM(h.yield), 0.0) FROM Harvest h WHERE h.crop.cropID = :cropId")
+    Double sumYieldByCropId(@Param("cropId") Integer cropId);
+
+    @Query("SELECT COALESCE(AVG(h.qualityRating), 0.0) FROM Harvest h")
+    Double averageQualityRating();
+
+    @Query("SELECT new auca.ac.urbanfarmingmgt.DTO.HarvestYieldStats(COUNT(h), COALESCE(SUM(h.yield), 0.0), " +
+            "AVG(h.yield), MIN(h.yield), MAX(h.yield), AVG(h.qualityRating)) FROM Harvest h")
+    HarvestYieldStats getYieldStats();
+
+    @Query("SELECT new auca.ac.urbanfarmingmgt.DTO.HarvestYieldStats(COUNT(h), COALESCE(SUM(h.yield), 0.0), " +
+            "AVG(h.yield), MIN(h.yield), MAX(h.yield), AVG(h.qualityRating)) FROM Harvest h WHERE h.farm.farmID = :farmId")
+    HarvestYieldStats getYieldStatsByFarmId(@Param("farmId") Integer farmId);
+
+    @Query("SELECT new auca.ac.urbanfarmingmgt.DTO.HarvestYieldStats(COUNT(h), COALESCE(SUM(h.yield), 0.0), " +
+            "AVG(h.yield), MIN(h.yield), MAX(h.yield), AVG(h.qualityRating)) FROM Harvest h WHERE h.crop.cropID = :cropId")
+    HarvestYieldStats getYieldStatsByCropId(@Param("cropId") Integer cropId);
+
+    // Streams every row with a server-side cursor for NDJSON export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(HARVEST_VIEW)
+    Stream<HarvestView> streamAllViews();
+}
@@ -1,28 +1,81 @@
 package auca.ac.urbanfarmingmgt.Repository;
 
+import auca.ac.urbanfarmingmgt.CacheConfig;
+import auca.ac.urbanfarmingmgt.DTO.InventoryView;
 import auca.ac.urbanfarmingmgt.Model.Inventory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
-    List<Inventory> findByProduceType(String produceType);
+
+    // Inventory columns only; the harvest, crop and order collections are never touched
+    String INVENTORY_VIEW = "SELECT new auca.ac.urbanfarmingmgt.DTO.InventoryView(i.inventoryID, i.quantity, " +
+            "i.freshnessStatus, i.storageLocation, i.stock, i.produceType, i.version) FROM Inventory i";
+
+    @Query(value = INVENTORY_VIEW, countQuery = "SELECT COUNT(i) FROM Inventory i")
+    Page<InventoryView> findAllViews(Pageable pageable);
+
+    @Cacheable(CacheConfig.INVENTORY)
+    @Query(INVENTORY_VIEW + " WHERE i.inventoryID = :inventoryId")
+    Optional<InventoryView> findViewById(@Param("inventoryId") Integer inventoryId);
+
+    @Cacheable(CacheConfig.INVENTORY_BY_PRODUCE_TYPE)
+    @Query(INVENTORY_VIEW + " WHERE i.produceType = :produceType")
+    List<InventoryView> findByProduceType(@Param("produceType") String produceType);
 
     @Modifying
     @Transactional
-    @Query("UPDATE Inventory i SET i.stock = i.stock + :harvestAmount WHERE i.inventoryID = :harvestId")
+    @Query("UPDATE Inventory i SET i.stock = i.stock + :harvestAmount, i.version = i.version + 1 WHERE i.inventoryID = :harvestId")
     void updateStock(int harvestId, int harvestAmount);
 
     @Modifying
     @Transactional
-    @Query("UPDATE Inventory i SET i.freshnessStatus = true, i.quantity = i.quantity + :harvestYield WHERE i.inventoryID = :harvestId")
+    @Query("UPDATE Inventory i SET i.freshnessStatus = true, i.quantity = i.quantity + :harvestYield, " +
+            "i.version = i.version + 1 WHERE i.inventoryID = :harvestId")
     void trackHarvest(int harvestId, double harvestYield);
 
+    // Takes the quantity off only while enough is left, in one statement; returns 0 when the order cannot be filled
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, i.version = i.version + 1 " +
+            "WHERE i.inventoryID = :inventoryId AND i.quantity >= :quantity")
+    int decrementQuantityIfAvailable(@Param("inventoryId") Integer inventoryId, @Param("quantity") Double quantity);
+
+    // Puts quantity back, e.g. when a placed order is cancelled
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :quantity, i.version = i.version + 1 " +
+            "WHERE i.inventoryID = :inventoryId")
+    int incrementQuantity(@Param("inventoryId") Integer inventoryId, @Param("quantity") Double quantity);
+
+    // Locks the rows in ID order so a batch writer can share out their quantity before its one net update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.inventoryID IN :inventoryIds ORDER BY i.inventoryID")
+    List<Inventory> findAllForUpdate(@Param("inventoryIds") Collection<Integer> inventoryIds);
+
     @Modifying
     @Transactional
     @Query("UPDATE Inventory i SET i.orderList = :orderId WHERE i.inventoryID = :inventoryId")
     void linkToOrders(int inventoryId, int orderId);
-}
\ No newline at end of file
+
+    // Streams every row with a server-side cursor for NDJSON export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(INVENTORY_VIEW)
+    Stream<InventoryView> streamAllViews();
+}
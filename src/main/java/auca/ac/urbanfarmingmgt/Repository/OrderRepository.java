@@ -1,24 +1,58 @@
 package auca.ac.urbanfarmingmgt.Repository;
 
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
 import auca.ac.urbanfarmingmgt.Model.Order;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 
-    List<Order> findByDeliveryStatus(String deliveryStatus);
+    // Order columns plus the inventory ID read straight from the foreign key
+    String ORDER_VIEW = "SELECT new auca.ac.urbanfarmingmgt.DTO.OrderView(o.orderID, o.orderDate, o.quantityOrdered, " +
+            "o.deliveryStatus, o.inventory.inventoryID) FROM Order o";
 
-    @Transactional
-    @Modifying
-    @Query("UPDATE Order o SET o.deliveryStatus = 'Placed' WHERE o.orderID = :orderId")
-    void ordering(int orderId);
+    @Query(value = ORDER_VIEW, countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderView> findAllViews(Pageable pageable);
 
-    @Transactional
-    @Modifying
-    @Query("UPDATE Inventory i SET i.stock = i.stock - :orderQuantity WHERE i.inventoryID = :inventoryId")
-    void keepInventory(int inventoryId, double orderQuantity);
+    @Query(ORDER_VIEW + " WHERE o.orderID = :orderId")
+    Optional<OrderView> findViewById(@Param("orderId") Integer orderId);
+
+    @Query(ORDER_VIEW + " WHERE o.deliveryStatus = :deliveryStatus ORDER BY o.orderID")
+    List<OrderView> findByDeliveryStatus(@Param("deliveryStatus") DeliveryStatus deliveryStatus);
+
+    @Query(ORDER_VIEW + " WHERE o.inventory.inventoryID = :inventoryId")
+    List<OrderView> findByInventoryId(@Param("inventoryId") Integer inventoryId);
+
+    // Locks one order for a status change, so concurrent moves of the same order run one after the other and each
+    // sees the status the previous one left
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderID = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") Integer orderId);
+
+    // Locks the oldest orders in a status through idx_order_status (FOR UPDATE SKIP LOCKED); rows another
+    // transaction holds are passed over instead of waited for, so concurrent dispatchers each get different orders
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // Lock timeout -2 is Hibernate's SKIP LOCKED
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT o FROM Order o WHERE o.deliveryStatus = :deliveryStatus ORDER BY o.orderID")
+    List<Order> findNextForUpdateSkipLocked(@Param("deliveryStatus") DeliveryStatus deliveryStatus, Pageable pageable);
+
+    // Streams every row with a server-side cursor for NDJSON export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ORDER_VIEW)
+    Stream<OrderView> streamAllViews();
 }
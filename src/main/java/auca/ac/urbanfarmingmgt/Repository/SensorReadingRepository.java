@@ -0,0 +1,20 @@
+package auca.ac.urbanfarmingmgt.Repository;
+
+import auca.ac.urbanfarmingmgt.Model.SensorReading;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SensorReadingRepository extends JpaRepository<SensorReading, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SensorReading r WHERE r.farm.farmID = :farmId")
+    int deleteByFarmId(@Param("farmId") Integer farmId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SensorReading r WHERE r.crop.cropID = :cropId")
+    int deleteByCropId(@Param("cropId") Integer cropId);
+}
@@ -0,0 +1,68 @@
+package auca.ac.urbanfarmingmgt.Repository;
+
+import auca.ac.urbanfarmingmgt.DTO.FarmMetricTotals;
+import auca.ac.urbanfarmingmgt.Model.RollupGranularity;
+import auca.ac.urbanfarmingmgt.Model.SensorReadingRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface SensorReadingRollupRepository extends JpaRepository<SensorReadingRollup, Long> {
+
+    // Locks the buckets a batch of readings falls into so concurrent uploads fold in one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM SensorReadingRollup r WHERE r.granularity = :granularity AND r.farmID IN :farmIds " +
+            "AND r.bucketStart BETWEEN :from AND :to ORDER BY r.rollupID")
+    List<SensorReadingRollup> findForUpdate(@Param("granularity") RollupGranularity granularity,
+                                            @Param("farmIds") Collection<Integer> farmIds,
+                                            @Param("from") Date from,
+                                            @Param("to") Date to);
+
+    @Query("SELECT r FROM SensorReadingRollup r WHERE r.granularity = :granularity AND r.farmID = :farmId " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart, r.cropID")
+    List<SensorReadingRollup> findByFarm(@Param("granularity") RollupGranularity granularity,
+                                         @Param("farmId") Integer farmId,
+                                         @Param("from") Date from,
+                                         @Param("to") Date to);
+
+    @Query("SELECT r FROM SensorReadingRollup r WHERE r.granularity = :granularity AND r.farmID = :farmId " +
+            "AND r.cropID = :cropId AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<SensorReadingRollup> findByFarmAndCrop(@Param("granularity") RollupGranularity granularity,
+                                                @Param("farmId") Integer farmId,
+                                                @Param("cropId") Integer cropId,
+                                                @Param("from") Date from,
+                                                @Param("to") Date to);
+
+    // Per-farm sums and counts over every reading, read from the daily buckets; used to rebuild the farm rollups
+    String FARM_TOTALS = "SELECT new auca.ac.urbanfarmingmgt.DTO.FarmMetricTotals(r.farmID, SUM(r.readingCount), " +
+            "SUM(r.waterUsageSum), SUM(r.waterUsageCount), SUM(r.soilHealthSum), SUM(r.soilHealthCount), " +
+            "SUM(r.pesticideApplicationSum), SUM(r.pesticideApplicationCount), " +
+            "SUM(r.energyUsageSum), SUM(r.energyUsageCount)) FROM SensorReadingRollup r " +
+            "WHERE r.granularity = auca.ac.urbanfarmingmgt.Model.RollupGranularity.DAILY";
+
+    @Query(FARM_TOTALS + " AND r.farmID IN :farmIds GROUP BY r.farmID")
+    List<FarmMetricTotals> getTotalsByFarmIds(@Param("farmIds") Collection<Integer> farmIds);
+
+    @Query(FARM_TOTALS + " GROUP BY r.farmID")
+    List<FarmMetricTotals> getTotalsForAllFarms();
+
+    @Query("SELECT DISTINCT r.farmID FROM SensorReadingRollup r WHERE r.cropID = :cropId")
+    List<Integer> findFarmIdsByCropId(@Param("cropId") Integer cropId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SensorReadingRollup r WHERE r.farmID = :farmId")
+    int deleteByFarmId(@Param("farmId") Integer farmId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SensorReadingRollup r WHERE r.cropID = :cropId")
+    int deleteByCropId(@Param("cropId") Integer cropId);
+}
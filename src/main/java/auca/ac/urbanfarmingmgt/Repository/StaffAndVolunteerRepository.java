@@ -1,8 +1,61 @@
 package auca.ac.urbanfarmingmgt.Repository;
 
+import auca.ac.urbanfarmingmgt.DTO.RoleCount;
+import auca.ac.urbanfarmingmgt.DTO.StaffAndVolunteerView;
 import auca.ac.urbanfarmingmgt.Model.StaffAndVolunteer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface StaffAndVolunteerRepository extends JpaRepository<StaffAndVolunteer, Integer> {
 
-}
\ No newline at end of file
+    // Person columns plus the assigned farm ID, read from the foreign key column so no join to Farms is needed
+    String PERSON_VIEW = "SELECT new auca.ac.urbanfarmingmgt.DTO.StaffAndVolunteerView(p.personID, p.name, p.role, " +
+            "p.assignedTask, p.workHours, p.assignedFarm.farmID) FROM StaffAndVolunteer p";
+
+    @Query(value = PERSON_VIEW, countQuery = "SELECT COUNT(p) FROM StaffAndVolunteer p")
+    Page<StaffAndVolunteerView> findAllViews(Pageable pageable);
+
+    @Query(PERSON_VIEW + " WHERE p.personID = :personId")
+    Optional<StaffAndVolunteerView> findViewById(@Param("personId") Integer personId);
+
+    @Query(PERSON_VIEW + " WHERE p.assignedFarm.farmID = :farmId")
+    List<StaffAndVolunteerView> findViewsByFarmId(@Param("farmId") Integer farmId);
+
+    @Query(PERSON_VIEW + " WHERE LOWER(p.role) NOT LIKE '%volunteer%'")
+    List<StaffAndVolunteerView> findStaff();
+
+    @Query(PERSON_VIEW + " WHERE LOWER(p.role) LIKE '%volunteer%'")
+    List<StaffAndVolunteerView> findVolunteers();
+
+    @Query(PERSON_VIEW + " WHERE p.workHours >= :minHours")
+    List<StaffAndVolunteerView> findByMinimumWorkHours(@Param("minHours") Double minHours);
+
+    @Query(PERSON_VIEW + " WHERE p.workHours BETWEEN :minHours AND :maxHours")
+    List<StaffAndVolunteerView> findByWorkHoursBetween(@Param("minHours") Double minHours,
+                                                       @Param("maxHours") Double maxHours);
+
+    @Query(PERSON_VIEW + " WHERE p.assignedTask LIKE '%,%' OR p.assignedTask LIKE '%;%'")
+    List<StaffAndVolunteerView> findWithMultipleTasks();
+
+    @Query("SELECT new auca.ac.urbanfarmingmgt.DTO.RoleCount(p.role, COUNT(p)) FROM StaffAndVolunteer p " +
+            "WHERE p.role IS NOT NULL GROUP BY p.role")
+    List<RoleCount> countByRole();
+
+    @Query("SELECT COALESCE(SUM(p.workHours), 0.0) FROM StaffAndVolunteer p WHERE p.assignedFarm.farmID = :farmId")
+    Double sumWorkHoursByFarmId(@Param("farmId") Integer farmId);
+
+    // Streams every row with a server-side cursor for NDJSON export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(PERSON_VIEW)
+    Stream<StaffAndVolunteerView> streamAllViews();
+}
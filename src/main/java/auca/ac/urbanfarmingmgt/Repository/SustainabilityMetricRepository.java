@@ -1,17 +1,39 @@
 package auca.ac.urbanfarmingmgt.Repository;
 
+import auca.ac.urbanfarmingmgt.DTO.FarmMetricTotals;
+import auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView;
 import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SustainabilityMetricRepository extends JpaRepository<SustainabilityMetric, Integer> {
 
-    List<SustainabilityMetric> findByWaterUsage(Double waterUsage);
+    // Metric columns plus farm and crop IDs read straight from the foreign keys
+    String METRIC_VIEW = "SELECT new auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView(sm.metricID, sm.waterUsage, " +
+            "sm.soilHealth, sm.pesticideApplication, sm.energyUsage, sm.recordedAt, sm.farm.farmID, sm.crop.cropID) " +
+            "FROM SustainabilityMetric sm";
+
+    @Query(value = METRIC_VIEW, countQuery = "SELECT COUNT(sm) FROM SustainabilityMetric sm")
+    Page<SustainabilityMetricView> findAllViews(Pageable pageable);
+
+    @Query(METRIC_VIEW + " WHERE sm.metricID = :metricId")
+    Optional<SustainabilityMetricView> findViewById(@Param("metricId") Integer metricId);
+
+    @Query(METRIC_VIEW + " WHERE sm.waterUsage = :waterUsage")
+    List<SustainabilityMetricView> findByWaterUsage(@Param("waterUsage") Double waterUsage);
 
     @Query("SELECT sm FROM SustainabilityMetric sm WHERE sm.crop.cropID = :cropId")
     List<SustainabilityMetric> findByCropId(@Param("cropId") Integer cropId);
@@ -19,15 +41,55 @@ public interface SustainabilityMetricRepository extends JpaRepository<Sustainabi
     @Query("SELECT sm FROM SustainabilityMetric sm WHERE sm.farm.farmID = :farmId")
     List<SustainabilityMetric> findByFarmId(@Param("farmId") Integer farmId);
 
-    @Query("SELECT sm FROM SustainabilityMetric sm WHERE sm.waterUsage < :threshold")
-    List<SustainabilityMetric> findByWaterUsageBelowThreshold(@Param("threshold") Double threshold);
+    @Query(METRIC_VIEW + " WHERE sm.crop.cropID = :cropId")
+    List<SustainabilityMetricView> findViewsByCropId(@Param("cropId") Integer cropId);
+
+    // The crop's most recent metric, read from the end of idx_metric_crop_latest
+    @Query(METRIC_VIEW + " WHERE sm.crop.cropID = :cropId ORDER BY sm.recordedAt DESC, sm.metricID DESC LIMIT 1")
+    Optional<SustainabilityMetricView> findLatestViewByCropId(@Param("cropId") Integer cropId);
+
+    // One row per existing crop with its most recent metric, or null metric columns when it has none
+    @Query("SELECT new auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView(sm.metricID, sm.waterUsage, " +
+            "sm.soilHealth, sm.pesticideApplication, sm.energyUsage, sm.recordedAt, sm.farm.farmID, c.cropID) " +
+            "FROM Crop c LEFT JOIN SustainabilityMetric sm ON sm.crop.cropID = c.cropID AND sm.metricID = " +
+            "(SELECT latest.metricID FROM SustainabilityMetric latest WHERE latest.crop.cropID = c.cropID " +
+            "ORDER BY latest.recordedAt DESC, latest.metricID DESC LIMIT 1) " +
+            "WHERE c.cropID IN :cropIds ORDER BY c.cropID")
+    List<SustainabilityMetricView> findLatestViewsByCropIds(@Param("cropIds") Collection<Integer> cropIds);
+
+    @Query(METRIC_VIEW + " WHERE sm.farm.farmID = :farmId")
+    List<SustainabilityMetricView> findViewsByFarmId(@Param("farmId") Integer farmId);
+
+    @Query(METRIC_VIEW + " WHERE sm.waterUsage < :threshold")
+    List<SustainabilityMetricView> findByWaterUsageBelowThreshold(@Param("threshold") Double threshold);
+
+    @Query(METRIC_VIEW + " WHERE sm.soilHealth > :threshold")
+    List<SustainabilityMetricView> findBySoilHealthAboveThreshold(@Param("threshold") Double threshold);
+
+    @Query(METRIC_VIEW + " WHERE sm.pesticideApplication < :threshold")
+    List<SustainabilityMetricView> findByPesticideApplicationBelowThreshold(@Param("threshold") Double threshold);
+
+    @Query(METRIC_VIEW + " WHERE sm.energyUsage < :threshold")
+    List<SustainabilityMetricView> findByEnergyUsageBelowThreshold(@Param("threshold") Double threshold);
+
+    // Sums and non-null counts per farm, used to rebuild the leaderboard rollups
+    String FARM_TOTALS = "SELECT new auca.ac.urbanfarmingmgt.DTO.FarmMetricTotals(sm.farm.farmID, COUNT(sm), " +
+            "COALESCE(SUM(sm.waterUsage), 0.0), COUNT(sm.waterUsage), " +
+            "COALESCE(SUM(sm.soilHealth), 0.0), COUNT(sm.soilHealth), " +
+            "COALESCE(SUM(sm.pesticideApplication), 0.0), COUNT(sm.pesticideApplication), " +
+            "COALESCE(SUM(sm.energyUsage), 0.0), COUNT(sm.energyUsage)) FROM SustainabilityMetric sm";
+
+    @Query(FARM_TOTALS + " WHERE sm.farm.farmID IN :farmIds GROUP BY sm.farm.farmID")
+    List<FarmMetricTotals> getTotalsByFarmIds(@Param("farmIds") Collection<Integer> farmIds);
 
-    @Query("SELECT sm FROM SustainabilityMetric sm WHERE sm.soilHealth > :threshold")
-    List<SustainabilityMetric> findBySoilHealthAboveThreshold(@Param("threshold") Double threshold);
+    @Query(FARM_TOTALS + " GROUP BY sm.farm.farmID")
+    List<FarmMetricTotals> getTotalsForAllFarms();
 
-    @Query("SELECT sm FROM SustainabilityMetric sm WHERE sm.pesticideApplication < :threshold")
-    List<SustainabilityMetric> findByPesticideApplicationBelowThreshold(@Param("threshold") Double threshold);
+    @Query("SELECT DISTINCT sm.farm.farmID FROM SustainabilityMetric sm WHERE sm.crop.cropID = :cropId")
+    List<Integer> findFarmIdsByCropId(@Param("cropId") Integer cropId);
 
-    @Query("SELECT sm FROM SustainabilityMetric sm WHERE sm.energyUsage < :threshold")
-    List<SustainabilityMetric> findByEnergyUsageBelowThreshold(@Param("threshold") Double threshold);
-}
\ No newline at end of file
+    // Streams every row with a server-side cursor for NDJSON export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(METRIC_VIEW)
+    Stream<SustainabilityMetricView> streamAllViews();
+}
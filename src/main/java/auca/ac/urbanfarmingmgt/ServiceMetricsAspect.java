@@ -0,0 +1,43 @@
+package auca.ac.urbanfarmingmgt;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Times every public method of the @Service beans in Services as urbanfarming.service, tagged with the class,
+// method and the exception it threw (or "none"). Calls a service makes to its own methods are not proxied and
+// so are not timed separately. HTTP routes (http.server.requests) and repository methods
+// (spring.data.repository.invocations) are timed by Spring Boot itself.
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    public static final String SERVICE_TIMER = "urbanfarming.service";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Time one service call
+    @Around("within(auca.ac.urbanfarmingmgt.Services..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return call.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .description("Service method calls")
+                    .tag("class", call.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", call.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.BatchImportError;
+import auca.ac.urbanfarmingmgt.DTO.BatchImportResult;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// One bulk upload: rows are read one at a time into T and handed to the writer in chunks, one transaction per chunk,
+// so a stream of any length is never held in memory and one bad row only costs itself.
+// The writer gets the chunk keyed by row number and returns the rows it rejected.
+class BatchImport<T> {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(BatchImport.class);
+
+    private final ObjectMapper objectMapper;
+    private final Class<T> rowType;
+    private final int chunkSize;
+    private final Function<Map<Long, T>, List<BatchImportError>> writer;
+
+    private final long startedAt = System.nanoTime();
+    private final List<BatchImportError> errors = new ArrayList<>();
+    private Map<Long, T> chunk = new LinkedHashMap<>();
+    private long received;
+    private long inserted;
+    private long failed;
+
+    BatchImport(ObjectMapper objectMapper, Class<T> rowType, int chunkSize,
+                Function<Map<Long, T>, List<BatchImportError>> writer) {
+        this.objectMapper = objectMapper;
+        this.rowType = rowType;
+        this.chunkSize = chunkSize;
+        this.writer = writer;
+    }
+
+    // Read a JSON array of rows
+    BatchImportResult readJsonArray(InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array");
+            }
+            readArrayRows(parser);
+        }
+        return finish();
+    }
+
+    // Read rows up to the closing bracket. The parser cannot find its place again after broken JSON or a dropped
+    // connection, so the row it was on is rejected and the upload ends with the rows read before it.
+    private void readArrayRows(JsonParser parser) {
+        try {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == null) {
+                    reject("Unterminated JSON array");
+                    return;
+                }
+                add(parser.readValueAsTree());
+            }
+        } catch (JsonProcessingException e) {
+            reject("Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            reject("Upload interrupted: " + e.getMessage());
+        }
+    }
+
+    // Read newline-delimited JSON, one row per line; blank lines are skipped
+    BatchImportResult readNdjson(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                add(objectMapper.readTree(line));
+            } catch (JsonProcessingException e) {
+                reject("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return finish();
+    }
+
+    // Read CSV whose header line names the row's fields; empty cells are left unset.
+    // Cells are plain values without quoting, which is what the sensor gateways send.
+    BatchImportResult readCsv(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null || headerLine.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a CSV header line");
+        }
+        String[] header = headerLine.strip().split(",");
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] cells = line.strip().split(",", -1);
+            if (cells.length != header.length) {
+                reject("Expected " + header.length + " columns but found " + cells.length);
+                continue;
+            }
+            ObjectNode row = objectMapper.createObjectNode();
+            for (int i = 0; i < header.length; i++) {
+                if (!cells[i].isBlank()) {
+                    row.put(header[i].strip(), cells[i].strip());
+                }
+            }
+            add(row);
+        }
+        return finish();
+    }
+
+    private void add(JsonNode node) {
+        received++;
+        try {
+            chunk.put(received, objectMapper.treeToValue(node, rowType));
+        } catch (JsonProcessingException e) {
+            recordError(new BatchImportError(received, "Invalid row: " + e.getOriginalMessage()));
+            return;
+        }
+        if (chunk.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    private void reject(String message) {
+        received++;
+        recordError(new BatchImportError(received, message));
+    }
+
+    private void flush() {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<BatchImportError> chunkErrors = writer.apply(chunk);
+            inserted += chunk.size() - chunkErrors.size();
+            chunkErrors.forEach(this::recordError);
+        } catch (RuntimeException e) {
+            log.error("Import chunk of {} {} rows failed", chunk.size(), rowType.getSimpleName(), e);
+            chunk.keySet().forEach(row -> recordError(new BatchImportError(row, "Chunk failed: " + e.getMessage())));
+        }
+        chunk = new LinkedHashMap<>();
+    }
+
+    private void recordError(BatchImportError error) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    private BatchImportResult finish() {
+        flush();
+        long elapsedNanos = System.nanoTime() - startedAt;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double rowsPerSecond = seconds > 0 ? Math.round(inserted / seconds * 10) / 10.0 : 0;
+        log.info("Imported {} of {} {} rows in {} ms ({} rows/sec)",
+                inserted, received, rowType.getSimpleName(), elapsedNanos / 1_000_000, rowsPerSecond);
+        return new BatchImportResult(received, inserted, failed, elapsedNanos / 1_000_000, rowsPerSecond, List.copyOf(errors));
+    }
+}
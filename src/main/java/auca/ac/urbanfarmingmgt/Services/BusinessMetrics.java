@@ -0,0 +1,65 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Business counters next to the technical meters. Orders and harvests are counted once their transaction commits,
+// so a rolled back write is not counted; rejected orders are counted straight away, since a rejection usually
+// rolls back. The channel tag says which path took the order: "order" (placing a saved order), "dispatch" (a
+// dispatcher claiming a pending order), "client" (a client placing an order) or "intake" (the asynchronous order queue).
+@Component
+public class BusinessMetrics {
+
+    public static final String ORDERS_PLACED = "urbanfarming.orders.placed";
+    public static final String OVERSELL_REJECTED = "urbanfarming.orders.oversell.rejected";
+    public static final String HARVEST_RECORDED = "urbanfarming.harvest.recorded";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // An order took its quantity off inventory
+    public void orderPlaced(String channel) {
+        ordersPlaced(channel, 1);
+    }
+
+    // Several orders took their quantity off inventory in one transaction
+    public void ordersPlaced(String channel, int count) {
+        afterCommit(() -> Counter.builder(ORDERS_PLACED)
+                .description("Orders that took their quantity off inventory")
+                .tag("channel", channel)
+                .register(meterRegistry).increment(count));
+    }
+
+    // An order asked for more than the inventory had left
+    public void oversellRejected(String channel) {
+        Counter.builder(OVERSELL_REJECTED)
+                .description("Orders rejected for insufficient inventory")
+                .tag("channel", channel)
+                .register(meterRegistry).increment();
+    }
+
+    // Harvests were saved with this much yield in total
+    public void harvestRecorded(double kilograms) {
+        afterCommit(() -> Counter.builder(HARVEST_RECORDED)
+                .description("Harvest yield recorded")
+                .baseUnit("kg")
+                .register(meterRegistry).increment(kilograms));
+    }
+
+    private void afterCommit(Runnable count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.run();
+            }
+        });
+    }
+}
@@ -1,16 +1,23 @@
 package auca.ac.urbanfarmingmgt.Services;
 
+import auca.ac.urbanfarmingmgt.DTO.ClientView;
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
 import auca.ac.urbanfarmingmgt.Repository.ClientRepository;
 import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
 import auca.ac.urbanfarmingmgt.Model.Client;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
 import auca.ac.urbanfarmingmgt.Model.Inventory;
 import auca.ac.urbanfarmingmgt.Model.Order;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 @Service
@@ -25,6 +32,15 @@ public class ClientService {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     private Client getClientByIdOrThrow(Integer clientId) {
         return clientRepository.findById(clientId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found"));
@@ -35,6 +51,7 @@ public class ClientService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The order must be specified for the client");
         }
         clientRepository.save(client);
+        searchService.clientSaved(ClientView.from(client));
         return "Client saved successfully";
     }
 
@@ -52,6 +69,7 @@ public class ClientService {
         }
 
         clientRepository.save(client);
+        searchService.clientSaved(ClientView.from(client));
         return "Client information updated successfully";
     }
 
@@ -61,6 +79,7 @@ public class ClientService {
 
         // Check if the inventory has enough stock for the order
         if (!inventoryService.checkAvailability(order.getInventory().getInventoryID(), order.getQuantityOrdered())) {
+            businessMetrics.oversellRejected("client");
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient inventory for this order");
         }
 
@@ -96,34 +115,46 @@ public class ClientService {
     public String deleteClient(Integer clientId) {
         if (clientRepository.existsById(clientId)) {
             clientRepository.deleteById(clientId);
+            searchService.clientDeleted(clientId);
             return "Client deleted successfully";
         } else {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found");
         }
     }
 
-    // Fetch all clients
-    public List<Client> getAllClients() {
-        return clientRepository.findAll();
+    // Fetch a page of clients
+    public Page<ClientView> getAllClients(Pageable pageable) {
+        return clientRepository.findAllViews(pageable);
+    }
+
+    // Stream all clients as NDJSON
+    public long exportClients(OutputStream out) throws IOException {
+        return ndjsonExporter.write(clientRepository::streamAllViews, out);
     }
 
     // Fetch client by ID
-    public Client getClientById(Integer clientId) {
-        return getClientByIdOrThrow(clientId);
+    public ClientView getClientById(Integer clientId) {
+        return clientRepository.findViewById(clientId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found"));
     }
 
     // Fetch clients by contact information
-    public List<Client> getClientsByContactInfo(String contactInfo) {
+    public List<ClientView> getClientsByContactInfo(String contactInfo) {
         return clientRepository.findByContactInfo(contactInfo);
     }
 
     // Method for placing a client order
     @Transactional
-    public Order placeClientOrder(Integer clientId, Integer inventoryId, Double quantityOrdered) {
+    public OrderView placeClientOrder(Integer clientId, Integer inventoryId, Double quantityOrdered) {
         Client client = getClientByIdOrThrow(clientId);
 
-        // Check if the inventory has enough stock for the order
-        if (!inventoryService.checkAvailability(inventoryId, quantityOrdered)) {
+        // Fetchs the inventory to associate it with the order
+        Inventory inventory = inventoryService.getInventoryById(inventoryId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory not found"));
+
+        // Reserve the quantity first; the availability check and the decrement are one conditional update
+        if (!inventoryService.updateQuantityAfterOrder(inventoryId, quantityOrdered)) {
+            businessMetrics.oversellRejected("client");
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient inventory for this order");
         }
 
@@ -131,32 +162,33 @@ public class ClientService {
         Order order = new Order();
         order.setQuantityOrdered(quantityOrdered);
         order.setOrderDate(new java.util.Date());
-        order.setDeliveryStatus("Pending");
-
-        // Fetchs the inventory and associate it with the order
-        Inventory inventory = inventoryService.getInventoryById(inventoryId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory not found"));
+        // The quantity is already taken, so the order starts out Placed rather than Pending
+        order.setDeliveryStatus(DeliveryStatus.PLACED);
         order.setInventory(inventory);
 
         // Save the order
         orderRepository.save(order);
 
-        inventoryService.updateQuantityAfterOrder(inventoryId, quantityOrdered);
-
         client.setOrder(order);
         clientRepository.save(client);
+        businessMetrics.orderPlaced("client");
 
-        return order; // Return created order
+        return OrderView.from(order); // Return created order
     }
 
     // Handle delivery receipt (updating inventory and order status)
     @Transactional
     public void handleDeliveryReceipt(Integer inventoryId, Integer orderId) {
         // Fetch the order
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
 
-        order.setDeliveryStatus("Delivered");
+        // Only orders a dispatcher has taken or that were placed can be delivered
+        if (!order.getDeliveryStatus().canMoveTo(DeliveryStatus.DELIVERED)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    OrderService.transitionError(order.getDeliveryStatus(), DeliveryStatus.DELIVERED));
+        }
+        order.setDeliveryStatus(DeliveryStatus.DELIVERED);
         orderRepository.save(order);
 
     }
@@ -1,19 +1,34 @@
 package auca.ac.urbanfarmingmgt.Services;
 
+import auca.ac.urbanfarmingmgt.DTO.CropDetails;
+import auca.ac.urbanfarmingmgt.DTO.CropView;
+import auca.ac.urbanfarmingmgt.DTO.Expansions;
+import auca.ac.urbanfarmingmgt.DTO.HarvestView;
+import auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView;
 import auca.ac.urbanfarmingmgt.Repository.CropRepository;
 import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
 import auca.ac.urbanfarmingmgt.Repository.HarvestRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
 import auca.ac.urbanfarmingmgt.Repository.SustainabilityMetricRepository;
 import auca.ac.urbanfarmingmgt.Model.Crop;
 import auca.ac.urbanfarmingmgt.Model.Farm;
 import auca.ac.urbanfarmingmgt.Model.Harvest;
 import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class CropService {
@@ -27,32 +42,77 @@ public class CropService {
     @Autowired
     private HarvestRepository harvestRepository;
 
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
     @Autowired
     private SustainabilityMetricRepository metricsRepository;
 
+    @Autowired
+    private SustainabilityLeaderboardService leaderboardService;
+
+    @Autowired
+    private SensorReadingService sensorReadingService;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private SearchService searchService;
+
     // Save a new crop
     @Transactional
     public void saveCrop(Crop crop) {
         try {
             cropRepository.save(crop);
+            referenceDataCache.evictCrop(crop.getCropID());
+            searchService.cropSaved(CropView.from(crop));
         } catch (Exception e) {
             throw new RuntimeException("Failed to save crop: " + e.getMessage(), e);
         }
     }
 
-    // Get all crops
-    public List<Crop> getAllCrops() {
-        return cropRepository.findAll();
+    // Get a page of crops
+    public Page<CropView> getAllCrops(Pageable pageable) {
+        return cropRepository.findAllViews(pageable);
+    }
+
+    // Stream all crops as NDJSON
+    public long exportCrops(OutputStream out) throws IOException {
+        return ndjsonExporter.write(cropRepository::streamAllViews, out);
     }
 
     // Get a crop by ID
-    public Crop getCropById(Integer cropId) {
+    public CropView getCropById(Integer cropId) {
+        return cropRepository.findViewById(cropId)
+                .orElseThrow(() -> new RuntimeException("Crop not found with ID: " + cropId));
+    }
+
+    // Get a crop by ID with the relations named in expand, one query per expanded relation
+    public CropDetails getCropDetails(Integer cropId, String expand) {
+        Set<String> expansions = Expansions.parse(expand, CropDetails.EXPANSIONS);
+        CropView crop = getCropById(cropId);
+
+        return new CropDetails(
+                crop,
+                expansions.contains("farm") && crop.farmID() != null
+                        ? farmRepository.findViewById(crop.farmID()).orElse(null) : null,
+                expansions.contains("inventory") && crop.inventoryID() != null
+                        ? inventoryRepository.findViewById(crop.inventoryID()).orElse(null) : null,
+                expansions.contains("harvests") ? harvestRepository.findByCropId(cropId) : null,
+                expansions.contains("sustainabilityMetrics") ? metricsRepository.findViewsByCropId(cropId) : null);
+    }
+
+    private Crop findCropOrThrow(Integer cropId) {
         return cropRepository.findById(cropId)
                 .orElseThrow(() -> new RuntimeException("Crop not found with ID: " + cropId));
     }
 
     // Get crops by type
-    public List<Crop> getCropsByType(String cropType) {
+    public List<CropView> getCropsByType(String cropType) {
         return cropRepository.findByCropType(cropType);
     }
 
@@ -63,7 +123,14 @@ public class CropService {
             if (!cropRepository.existsById(cropId)) {
                 throw new RuntimeException("Crop not found with ID: " + cropId);
             }
+            // The crop's metrics are removed by cascade and its sensor readings here,
+            // so rebuild the rollups of the farms they counted towards
+            Set<Integer> affectedFarmIds = new HashSet<>(metricsRepository.findFarmIdsByCropId(cropId));
+            affectedFarmIds.addAll(sensorReadingService.deleteForCrop(cropId));
             cropRepository.deleteById(cropId);
+            referenceDataCache.evictCrop(cropId);
+            searchService.cropDeleted(cropId);
+            leaderboardService.rebuild(affectedFarmIds);
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete crop: " + e.getMessage(), e);
         }
@@ -78,15 +145,16 @@ public class CropService {
         return farmLocation != null && farmLocation.contains(cropRequirement);
     }
 
-    // Get crops eligible for a specific location
-    public List<Crop> getCropsEligibleForLocation(String location) {
-        return cropRepository.findCropsEligibleForLocation(location);
+    // Get crops whose location requirement contains the location, found through the search index
+    public List<CropView> getCropsEligibleForLocation(String location) {
+        List<Integer> cropIds = searchService.findCropIdsByLocationRequirement(location);
+        return cropIds.isEmpty() ? List.of() : cropRepository.findViewsByIds(cropIds);
     }
 
     // Record a harvest for a crop
     @Transactional
-    public Harvest recordHarvest(Integer cropId, Double yield, Integer qualityRating) {
-        Crop crop = getCropById(cropId);
+    public HarvestView recordHarvest(Integer cropId, Double yield, Integer qualityRating) {
+        Crop crop = findCropOrThrow(cropId);
         Farm farm = crop.getFarm();
 
         Harvest harvest = Harvest.builder()
@@ -101,34 +169,28 @@ public class CropService {
         harvest = harvestRepository.save(harvest);
 
         // Update average yield for the crop
-        updateCropAverageYield(crop);
-
-        return harvest;
-    }
-
-    // Update the average yield of a crop
-    private void updateCropAverageYield(Crop crop) {
-        List<Harvest> harvests = harvestRepository.findByCropId(crop.getCropID());
-
-        if (harvests.isEmpty()) {
-            return;
+        if (yield != null) {
+            cropRepository.applyHarvestYieldDelta(cropId, yield, 1);
+            referenceDataCache.evictCrop(cropId);
         }
 
-        double totalYield = harvests.stream()
-                .mapToDouble(Harvest::getYield)
-                .sum();
+        return HarvestView.from(harvest);
+    }
 
-        double avgYield = totalYield / harvests.size();
-        crop.setAverageYield(avgYield);
-        cropRepository.save(crop);
+    // Recompute every crop's running yield totals and average yield from its harvests
+    @Transactional
+    public int recomputeYieldTotals() {
+        int updated = cropRepository.recomputeHarvestYieldTotals();
+        referenceDataCache.evictAllCrops();
+        return updated;
     }
 
     // Record sustainability metrics for a crop
     @Transactional
-    public SustainabilityMetric recordSustainabilityMetrics(Integer cropId, Double waterUsage,
-                                                            Double soilHealth, Double pesticideApplication,
-                                                            Double energyUsage) {
-        Crop crop = getCropById(cropId);
+    public SustainabilityMetricView recordSustainabilityMetrics(Integer cropId, Double waterUsage,
+                                                                Double soilHealth, Double pesticideApplication,
+                                                                Double energyUsage) {
+        Crop crop = findCropOrThrow(cropId);
         Farm farm = crop.getFarm();
 
         SustainabilityMetric metric = SustainabilityMetric.builder()
@@ -140,48 +202,59 @@ public class CropService {
                 .energyUsage(energyUsage)
                 .build();
 
-        return metricsRepository.save(metric);
+        metric = metricsRepository.save(metric);
+        leaderboardService.metricAdded(metric);
+        return SustainabilityMetricView.from(metric);
     }
 
-    // Calculate sustainability score for a crop
+    // Calculate sustainability score for a crop from its most recent metric
     public Double calculateSustainabilityScore(Integer cropId) {
-        Crop crop = getCropById(cropId);
-        List<SustainabilityMetric> metrics = metricsRepository.findByCropId(crop.getCropID());
-
-        if (metrics.isEmpty()) {
-            return 0.0;
+        Optional<SustainabilityMetricView> latest = metricsRepository.findLatestViewByCropId(cropId);
+        if (latest.isEmpty() && !cropRepository.existsById(cropId)) {
+            throw new RuntimeException("Crop not found with ID: " + cropId);
         }
+        return latest.map(CropService::score).orElse(0.0);
+    }
 
-        // Get most recent metrics
-        SustainabilityMetric latest = metrics.getFirst();
+    // Calculate sustainability scores for many crops in one query; unknown crop IDs are left out
+    public Map<Integer, Double> calculateSustainabilityScores(List<Integer> cropIds) {
+        Map<Integer, Double> scores = new LinkedHashMap<>();
+        if (cropIds == null || cropIds.isEmpty()) {
+            return scores;
+        }
+        metricsRepository.findLatestViewsByCropIds(new HashSet<>(cropIds)).forEach(latest ->
+                scores.put(latest.cropID(), latest.metricID() != null ? score(latest) : 0.0));
+        return scores;
+    }
 
-        // Calculate score (example calculation - adjust weights as needed)
-        double waterScore = Math.max(0, 100 - latest.getWaterUsage() * 10); // Lower water usage is better
-        double soilScore = latest.getSoilHealth() * 10; // Higher soil health is better
-        double pesticideScore = Math.max(0, 100 - latest.getPesticideApplication() * 20); // Lower pesticide use is better
-        double energyScore = Math.max(0, 100 - latest.getEnergyUsage() * 5); // Lower energy use is better
+    // Score one metric (example calculation - adjust weights as needed)
+    private static double score(SustainabilityMetricView latest) {
+        double waterScore = Math.max(0, 100 - latest.waterUsage() * 10); // Lower water usage is better
+        double soilScore = latest.soilHealth() * 10; // Higher soil health is better
+        double pesticideScore = Math.max(0, 100 - latest.pesticideApplication() * 20); // Lower pesticide use is better
+        double energyScore = Math.max(0, 100 - latest.energyUsage() * 5); // Lower energy use is better
 
         // Weighted average
         return (waterScore * 0.3 + soilScore * 0.3 + pesticideScore * 0.25 + energyScore * 0.15);
     }
 
     // Get crops by growing season
-    public List<Crop> getCropsByGrowingSeason(String season) {
+    public List<CropView> getCropsByGrowingSeason(String season) {
         return cropRepository.findByGrowingSeason(season);
     }
 
     // Get crops by location requirement
-    public List<Crop> getCropsByLocationRequirement(String locationRequirement) {
+    public List<CropView> getCropsByLocationRequirement(String locationRequirement) {
         return cropRepository.findByLocationRequirement(locationRequirement);
     }
 
     // Get crops by farm ID
-    public List<Crop> getCropsByFarm(Integer farmId) {
+    public List<CropView> getCropsByFarm(Integer farmId) {
         return cropRepository.findByFarmFarmID(farmId);
     }
 
     // Get high-yielding crops
-    public List<Crop> getHighYieldingCrops(Double minimumYield) {
+    public List<CropView> getHighYieldingCrops(Double minimumYield) {
         return cropRepository.findByAverageYieldGreaterThan(minimumYield);
     }
 
@@ -189,10 +262,17 @@ public class CropService {
     @Transactional
     public String updateCrop(Crop crop) {
         try {
-            if (!cropRepository.existsById(crop.getCropID())) {
+            Crop existingCrop = cropRepository.findById(crop.getCropID()).orElse(null);
+            if (existingCrop == null) {
                 return "Crop not found with ID: " + crop.getCropID();
             }
+            // The average yield and its running totals are maintained by harvest writes, not by crop updates
+            crop.setAverageYield(existingCrop.getAverageYield());
+            crop.setTotalHarvestYield(existingCrop.getTotalHarvestYield());
+            crop.setHarvestCount(existingCrop.getHarvestCount());
             cropRepository.save(crop);
+            referenceDataCache.evictCrop(crop.getCropID());
+            searchService.cropSaved(CropView.from(crop));
             return "Crop updated successfully";
         } catch (Exception e) {
             throw new RuntimeException("Failed to update crop: " + e.getMessage(), e);
@@ -203,12 +283,14 @@ public class CropService {
     @Transactional
     public String assignCropToFarm(Integer cropId, Integer farmId) {
         try {
-            Crop crop = getCropById(cropId);
+            Crop crop = findCropOrThrow(cropId);
             Farm farm = farmRepository.findById(farmId)
                     .orElseThrow(() -> new RuntimeException("Farm not found with ID: " + farmId));
 
             crop.setFarm(farm);
             cropRepository.save(crop);
+            referenceDataCache.evictCrop(cropId);
+            searchService.cropSaved(CropView.from(crop));
             return "Crop successfully assigned to farm";
         } catch (Exception e) {
             throw new RuntimeException("Failed to assign crop to farm: " + e.getMessage(), e);
@@ -216,7 +298,7 @@ public class CropService {
     }
 
     // Get crops by growing condition
-    public List<Crop> getCropsByGrowingCondition(boolean condition) {
+    public List<CropView> getCropsByGrowingCondition(boolean condition) {
         return cropRepository.findByGrowingConditions(condition);
     }
 
@@ -224,9 +306,10 @@ public class CropService {
     @Transactional
     public String updateCropPlantingSchedule(Integer cropId, Date newSchedule) {
         try {
-            Crop crop = getCropById(cropId);
+            Crop crop = findCropOrThrow(cropId);
             crop.setPlantingSchedule(newSchedule);
             cropRepository.save(crop);
+            referenceDataCache.evictCrop(cropId);
             return "Crop planting schedule updated successfully";
         } catch (Exception e) {
             throw new RuntimeException("Failed to update crop planting schedule: " + e.getMessage(), e);
@@ -0,0 +1,27 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// One-off job that rebuilds the crop running yield totals from the Harvests table at startup.
+// Enable with urbanfarming.crop-yield-backfill.enabled=true after deploying the new columns.
+@Component
+@ConditionalOnProperty(name = "urbanfarming.crop-yield-backfill.enabled", havingValue = "true")
+public class CropYieldBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CropYieldBackfillRunner.class);
+
+    @Autowired
+    private CropService cropService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = cropService.recomputeYieldTotals();
+        log.info("Recomputed harvest yield totals for {} crops", updated);
+    }
+}
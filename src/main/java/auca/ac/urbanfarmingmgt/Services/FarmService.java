@@ -1,7 +1,13 @@
 package auca.ac.urbanfarmingmgt.Services;
 
+import auca.ac.urbanfarmingmgt.DTO.CropView;
+import auca.ac.urbanfarmingmgt.DTO.Expansions;
+import auca.ac.urbanfarmingmgt.DTO.FarmDetails;
+import auca.ac.urbanfarmingmgt.DTO.FarmView;
+import auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView;
 import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
 import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.HarvestRepository;
 import auca.ac.urbanfarmingmgt.Repository.StaffAndVolunteerRepository;
 import auca.ac.urbanfarmingmgt.Repository.SustainabilityMetricRepository;
 import auca.ac.urbanfarmingmgt.Model.Crop;
@@ -10,11 +16,18 @@ import auca.ac.urbanfarmingmgt.Model.StaffAndVolunteer;
 import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class FarmService {
@@ -25,48 +38,98 @@ public class FarmService {
     @Autowired
     private CropRepository cropRepository;
 
+    @Autowired
+    private HarvestRepository harvestRepository;
+
     @Autowired
     private StaffAndVolunteerRepository staffRepository;
 
     @Autowired
     private SustainabilityMetricRepository metricsRepository;
 
+    @Autowired
+    private SustainabilityLeaderboardService leaderboardService;
+
+    @Autowired
+    private SensorReadingService sensorReadingService;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private SearchService searchService;
+
     // Save a farm
     public String saveFarm(Farm farm) {
         try {
             farmRepository.save(farm);
+            referenceDataCache.evictFarm(farm.getFarmID());
+            searchService.farmSaved(FarmView.from(farm));
             return "Farm saved successfully with ID: " + farm.getFarmID();
         } catch (Exception e) {
             return "Failed to save farm: " + e.getMessage();
         }
     }
 
-    // Get all farms
-    public List<Farm> getAllFarms() {
-        return farmRepository.findAll();
+    // Get a page of farms
+    public Page<FarmView> getAllFarms(Pageable pageable) {
+        return farmRepository.findAllViews(pageable);
+    }
+
+    // Stream all farms as NDJSON
+    public long exportFarms(OutputStream out) throws IOException {
+        return ndjsonExporter.write(farmRepository::streamAllViews, out);
     }
 
     // Get a farm by ID
-    public Farm getFarmById(Integer farmId) {
-        Optional<Farm> farm = farmRepository.findById(farmId);
+    public FarmView getFarmById(Integer farmId) {
+        Optional<FarmView> farm = farmRepository.findViewById(farmId);
         return farm.orElse(null);
     }
 
-    // Get farms by name containing a search term
-    public List<Farm> getFarmsByName(String name) {
-        return farmRepository.findByNameContaining(name);
+    // Get a farm by ID with the collections named in expand, one query per expanded collection
+    public FarmDetails getFarmDetails(Integer farmId, String expand) {
+        Set<String> expansions = Expansions.parse(expand, FarmDetails.EXPANSIONS);
+        FarmView farm = getFarmById(farmId);
+        if (farm == null) {
+            return null;
+        }
+
+        return new FarmDetails(
+                farm,
+                expansions.contains("crops") ? cropRepository.findByFarmFarmID(farmId) : null,
+                expansions.contains("harvests") ? harvestRepository.findByFarmId(farmId) : null,
+                expansions.contains("assignedStaff") ? staffRepository.findViewsByFarmId(farmId) : null,
+                expansions.contains("sustainabilityMetrics") ? metricsRepository.findViewsByFarmId(farmId) : null);
+    }
+
+    // Get farms by name containing a search term, found through the search index
+    public List<FarmView> getFarmsByName(String name) {
+        List<Integer> farmIds = searchService.findFarmIdsByName(name);
+        return farmIds.isEmpty() ? List.of() : farmRepository.findViewsByIds(farmIds);
     }
 
-    // Delete a farm by ID
+    // Delete a farm by ID, together with its readings and its leaderboard entry; if any step fails none of it is kept
+    @Transactional
     public String deleteFarm(Integer farmId) {
         try {
             if (farmRepository.existsById(farmId)) {
+                sensorReadingService.deleteForFarm(farmId);
                 farmRepository.deleteById(farmId);
+                // The farm's crops are deleted with it by cascade
+                referenceDataCache.evictFarm(farmId);
+                referenceDataCache.evictAllCrops();
+                searchService.farmDeleted(farmId);
+                leaderboardService.rebuild(List.of(farmId));
                 return "Farm deleted successfully";
             } else {
                 return "Farm not found with ID: " + farmId;
             }
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return "Failed to delete farm: " + e.getMessage();
         }
     }
@@ -74,7 +137,7 @@ public class FarmService {
     // Track crops for a specific farm
     public String trackCrops(Integer farmId, String cropType, Date plantingSchedule, boolean growingConditions) {
         try {
-            Optional<Farm> farmOptional = farmRepository.findById(farmId);
+            Optional<Farm> farmOptional = farmRepository.findWithCropsByFarmID(farmId);
             if (farmOptional.isPresent()) {
                 Farm farm = farmOptional.get();
 
@@ -95,6 +158,8 @@ public class FarmService {
                         .build();
 
                 cropRepository.save(newCrop);
+                referenceDataCache.evictCrop(newCrop.getCropID());
+                searchService.cropSaved(CropView.from(newCrop));
                 return "Crop tracked successfully for farm: " + farm.getName();
             } else {
                 return "Farm not found with ID: " + farmId;
@@ -128,6 +193,7 @@ public class FarmService {
     }
 
     // Track sustainability metrics for a farm
+    @Transactional
     public String trackMetrics(Integer farmId, Integer metricsId) {
         try {
             Optional<Farm> farmOptional = farmRepository.findById(farmId);
@@ -137,9 +203,11 @@ public class FarmService {
                 Farm farm = farmOptional.get();
                 SustainabilityMetric metric = metricOptional.get();
 
-                // Assign the metric to the farm
+                // Assign the metric to the farm, moving its readings between farm rollups
+                leaderboardService.metricRemoved(metric);
                 metric.setFarm(farm);
                 metricsRepository.save(metric);
+                leaderboardService.metricAdded(metric);
 
                 return "Sustainability metric added successfully to farm: " + farm.getName();
             } else {
@@ -152,7 +220,7 @@ public class FarmService {
 
     // Calculate total yield for a farm
     public Double calculateTotalYield(Integer farmId) {
-        Optional<Farm> farmOptional = farmRepository.findById(farmId);
+        Optional<Farm> farmOptional = farmRepository.findWithCropsByFarmID(farmId);
         if (farmOptional.isPresent()) {
             Farm farm = farmOptional.get();
             double totalYield = 0.0;
@@ -171,28 +239,22 @@ public class FarmService {
     }
 
     // Get sustainability report for a farm
-    public List<SustainabilityMetric> getSustainabilityReport(Integer farmId) {
-        Optional<Farm> farmOptional = farmRepository.findById(farmId);
-        if (farmOptional.isPresent()) {
-            Farm farm = farmOptional.get();
-            return farm.getSustainabilityMetrics();
-        } else {
-            return List.of();
-        }
+    public List<SustainabilityMetricView> getSustainabilityReport(Integer farmId) {
+        return metricsRepository.findViewsByFarmId(farmId);
     }
 
     // Find farms by crop type
-    public List<Farm> getFarmsByCropType(String cropType) {
+    public List<FarmView> getFarmsByCropType(String cropType) {
         return farmRepository.findByCropType(cropType);
     }
 
     // Find farms by staff member ID
-    public List<Farm> getFarmsByStaffId(Integer staffId) {
+    public List<FarmView> getFarmsByStaffId(Integer staffId) {
         return farmRepository.findByStaffId(staffId);
     }
 
     // Find farms by sustainability metric ID
-    public List<Farm> getFarmsByMetricId(Integer metricId) {
+    public List<FarmView> getFarmsByMetricId(Integer metricId) {
         return farmRepository.findByMetricId(metricId);
     }
 
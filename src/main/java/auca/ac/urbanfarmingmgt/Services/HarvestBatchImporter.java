@@ -0,0 +1,39 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.BatchImportResult;
+import auca.ac.urbanfarmingmgt.DTO.HarvestBatchRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Bulk harvest uploads, written through HarvestService one chunk per transaction
+@Service
+public class HarvestBatchImporter {
+
+    @Autowired
+    private HarvestService harvestService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${urbanfarming.harvest-batch.chunk-size:1000}")
+    private int chunkSize;
+
+    // Import a JSON array of harvest rows
+    public BatchImportResult importJsonArray(InputStream body) throws IOException {
+        return newImport().readJsonArray(body);
+    }
+
+    // Import newline-delimited JSON, one harvest row per line
+    public BatchImportResult importNdjson(InputStream body) throws IOException {
+        return newImport().readNdjson(body);
+    }
+
+    private BatchImport<HarvestBatchRow> newImport() {
+        return new BatchImport<>(objectMapper, HarvestBatchRow.class, chunkSize, harvestService::saveHarvestBatch);
+    }
+}
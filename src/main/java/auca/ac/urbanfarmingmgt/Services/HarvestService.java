@@ -1,5 +1,10 @@
 package auca.ac.urbanfarmingmgt.Services;
 
+import auca.ac.urbanfarmingmgt.DTO.BatchImportError;
+import auca.ac.urbanfarmingmgt.DTO.HarvestBatchRow;
+import auca.ac.urbanfarmingmgt.DTO.HarvestCursorPage;
+import auca.ac.urbanfarmingmgt.DTO.HarvestView;
+import auca.ac.urbanfarmingmgt.DTO.HarvestYieldStats;
 import auca.ac.urbanfarmingmgt.Repository.CropRepository;
 import auca.ac.urbanfarmingmgt.Repository.HarvestRepository;
 import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
@@ -8,15 +13,32 @@ import auca.ac.urbanfarmingmgt.Model.Farm;
 import auca.ac.urbanfarmingmgt.Model.Harvest;
 import auca.ac.urbanfarmingmgt.Model.Inventory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class HarvestService {
 
+    private static final int MAX_RECENT_HARVESTS = 500;
+
     @Autowired
     private HarvestRepository harvestRepository;
 
@@ -26,30 +48,71 @@ public class HarvestService {
     @Autowired
     private InventoryRepository inventoryRepository;
 
-    // Save a new harvest
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    // Save a new harvest, or replace an existing one and move its yield between the old and new crop's totals
     @Transactional
     public String saveHarvest(Harvest harvest) {
         try {
+            if (harvest.getHarvestID() == null) {
+                harvestRepository.save(harvest);
+                applyYieldChange(harvest.getCrop(), null, harvest.getYield());
+                if (harvest.getYield() != null) {
+                    businessMetrics.harvestRecorded(harvest.getYield());
+                }
+                return "Harvest saved successfully with ID: " + harvest.getHarvestID();
+            }
+
+            Harvest existing = harvestRepository.findById(harvest.getHarvestID()).orElse(null);
+            if (existing == null) {
+                return "Harvest not found with ID: " + harvest.getHarvestID();
+            }
+            // Read before the save copies the new values onto the loaded row
+            Crop oldCrop = existing.getCrop();
+            Double oldYield = existing.getYield();
             harvestRepository.save(harvest);
+            if (sameCrop(oldCrop, harvest.getCrop())) {
+                applyYieldChange(oldCrop, oldYield, harvest.getYield());
+            } else {
+                applyYieldChange(oldCrop, oldYield, null);
+                applyYieldChange(harvest.getCrop(), null, harvest.getYield());
+            }
             return "Harvest saved successfully with ID: " + harvest.getHarvestID();
         } catch (Exception e) {
             return "Failed to save harvest: " + e.getMessage();
         }
     }
 
-    // Get all harvests
-    public List<Harvest> getAllHarvests() {
-        return harvestRepository.findAll();
+    // Get a page of harvests
+    public Page<HarvestView> getAllHarvests(Pageable pageable) {
+        return harvestRepository.findAllViews(pageable);
+    }
+
+    // Stream all harvests as NDJSON
+    public long exportHarvests(OutputStream out) throws IOException {
+        return ndjsonExporter.write(harvestRepository::streamAllViews, out);
     }
 
     // Get a harvest by ID
-    public Harvest getHarvestById(Integer harvestId) {
+    public HarvestView getHarvestById(Integer harvestId) {
+        return harvestRepository.findViewById(harvestId)
+                .orElseThrow(() -> new RuntimeException("Harvest not found with ID: " + harvestId));
+    }
+
+    private Harvest findHarvestOrThrow(Integer harvestId) {
         return harvestRepository.findById(harvestId)
                 .orElseThrow(() -> new RuntimeException("Harvest not found with ID: " + harvestId));
     }
 
     // Get harvests by quality rating
-    public List<Harvest> getHarvestsByQualityRating(Integer qualityRating) {
+    public List<HarvestView> getHarvestsByQualityRating(Integer qualityRating) {
         return harvestRepository.findByQualityRating(qualityRating);
     }
 
@@ -57,10 +120,12 @@ public class HarvestService {
     @Transactional
     public String deleteHarvest(Integer harvestId) {
         try {
-            if (!harvestRepository.existsById(harvestId)) {
+            Harvest harvest = harvestRepository.findById(harvestId).orElse(null);
+            if (harvest == null) {
                 return "Harvest not found with ID: " + harvestId;
             }
-            harvestRepository.deleteById(harvestId);
+            harvestRepository.delete(harvest);
+            applyYieldChange(harvest.getCrop(), harvest.getYield(), null);
             return "Harvest deleted successfully";
         } catch (Exception e) {
             return "Failed to delete harvest: " + e.getMessage();
@@ -97,7 +162,8 @@ public class HarvestService {
             harvestRepository.save(harvest);
 
             // Update average yield for the crop
-            updateCropAverageYield(crop);
+            applyYieldChange(crop, null, yield);
+            businessMetrics.harvestRecorded(yield);
 
             return "Yield recorded successfully for crop: " + crop.getCropType();
         } catch (Exception e) {
@@ -105,40 +171,87 @@ public class HarvestService {
         }
     }
 
-    // Update the average yield of a crop
-    private void updateCropAverageYield(Crop crop) {
-        List<Harvest> harvests = harvestRepository.findByCropId(crop.getCropID());
+    // Insert one chunk of a bulk upload keyed by row number and return the rows that were rejected.
+    // The inserts go out as JDBC batches, then each crop's totals and each inventory's quantity are updated once.
+    @Transactional
+    public List<BatchImportError> saveHarvestBatch(Map<Long, HarvestBatchRow> rows) {
+        Map<Integer, Crop> crops = cropRepository.findAllById(
+                        rows.values().stream().map(HarvestBatchRow::cropID).filter(Objects::nonNull).distinct().toList()).stream()
+                .collect(Collectors.toMap(Crop::getCropID, Function.identity()));
+
+        List<BatchImportError> errors = new ArrayList<>();
+        List<Harvest> harvests = new ArrayList<>(rows.size());
+        Map<Integer, Double> yieldByCrop = new LinkedHashMap<>();
+        Map<Integer, Long> countByCrop = new LinkedHashMap<>();
+        Map<Integer, Double> yieldByInventory = new LinkedHashMap<>();
+
+        rows.forEach((rowNumber, row) -> {
+            Crop crop = row.cropID() != null ? crops.get(row.cropID()) : null;
+            if (row.cropID() == null) {
+                errors.add(new BatchImportError(rowNumber, "cropID is required"));
+            } else if (row.yield() == null) {
+                errors.add(new BatchImportError(rowNumber, "yield is required"));
+            } else if (crop == null) {
+                errors.add(new BatchImportError(rowNumber, "Crop not found with ID: " + row.cropID()));
+            } else if (crop.getFarm() == null) {
+                errors.add(new BatchImportError(rowNumber, "Crop is not associated with a farm"));
+            } else if (crop.getInventory() == null) {
+                errors.add(new BatchImportError(rowNumber, "Crop is not associated with inventory"));
+            } else {
+                harvests.add(Harvest.builder()
+                        .date(row.date() != null ? row.date() : new Date())
+                        .yield(row.yield())
+                        .qualityRating(row.qualityRating())
+                        .crop(crop)
+                        .farm(crop.getFarm())
+                        .inventory(crop.getInventory())
+                        .build());
+                yieldByCrop.merge(crop.getCropID(), row.yield(), Double::sum);
+                countByCrop.merge(crop.getCropID(), 1L, Long::sum);
+                yieldByInventory.merge(crop.getInventory().getInventoryID(), row.yield(), Double::sum);
+            }
+        });
+
+        harvestRepository.saveAll(harvests);
+        yieldByCrop.forEach((cropId, yield) -> cropRepository.applyHarvestYieldDelta(cropId, yield, countByCrop.get(cropId)));
+        yieldByInventory.forEach(inventoryRepository::trackHarvest);
+        referenceDataCache.evictCrops(yieldByCrop.keySet());
+        referenceDataCache.evictInventories(yieldByInventory.keySet());
+        businessMetrics.harvestRecorded(yieldByCrop.values().stream().mapToDouble(Double::doubleValue).sum());
+        return errors;
+    }
 
-        if (harvests.isEmpty()) {
+    // Apply a harvest yield change to the crop's running totals and average yield in one UPDATE
+    private void applyYieldChange(Crop crop, Double oldYield, Double newYield) {
+        if (crop == null || crop.getCropID() == null) {
             return;
         }
 
-        double totalYield = harvests.stream()
-                .mapToDouble(Harvest::getYield)
-                .sum();
-
-        double avgYield = totalYield / harvests.size();
-        crop.setAverageYield(avgYield);
-        cropRepository.save(crop);
+        long countDelta = (newYield != null ? 1 : 0) - (oldYield != null ? 1 : 0);
+        double yieldDelta = (newYield != null ? newYield : 0.0) - (oldYield != null ? oldYield : 0.0);
+        if (countDelta != 0 || yieldDelta != 0) {
+            cropRepository.applyHarvestYieldDelta(crop.getCropID(), yieldDelta, countDelta);
+            referenceDataCache.evictCrop(crop.getCropID());
+        }
     }
 
     // Get harvests by date range
-    public List<Harvest> getHarvestsByDateRange(Date startDate, Date endDate) {
+    public List<HarvestView> getHarvestsByDateRange(Date startDate, Date endDate) {
         return harvestRepository.findByDateRange(startDate, endDate);
     }
 
     // Get harvests by farm ID
-    public List<Harvest> getHarvestsByFarm(Integer farmId) {
+    public List<HarvestView> getHarvestsByFarm(Integer farmId) {
         return harvestRepository.findByFarmId(farmId);
     }
 
     // Get harvests by crop ID
-    public List<Harvest> getHarvestsByCrop(Integer cropId) {
+    public List<HarvestView> getHarvestsByCrop(Integer cropId) {
         return harvestRepository.findByCropId(cropId);
     }
 
     // Get harvests by inventory ID
-    public List<Harvest> getHarvestsByInventory(Integer inventoryId) {
+    public List<HarvestView> getHarvestsByInventory(Integer inventoryId) {
         return harvestRepository.findByInventoryId(inventoryId);
     }
 
@@ -146,7 +259,7 @@ public class HarvestService {
     @Transactional
     public String updateHarvestQuality(Integer harvestId, Integer qualityRating) {
         try {
-            Harvest harvest = getHarvestById(harvestId);
+            Harvest harvest = findHarvestOrThrow(harvestId);
             harvest.setQualityRating(qualityRating);
             harvestRepository.save(harvest);
             return "Harvest quality updated successfully";
@@ -155,20 +268,21 @@ public class HarvestService {
         }
     }
 
+    private static boolean sameCrop(Crop a, Crop b) {
+        return a != null && b != null && Objects.equals(a.getCropID(), b.getCropID());
+    }
+
     // Update the yield of a harvest
     @Transactional
     public String updateHarvestYield(Integer harvestId, Double yield) {
         try {
-            Harvest harvest = getHarvestById(harvestId);
+            Harvest harvest = findHarvestOrThrow(harvestId);
             Double oldYield = harvest.getYield();
             harvest.setYield(yield);
             harvestRepository.save(harvest);
 
             // Update average yield for the crop
-            Crop crop = harvest.getCrop();
-            if (crop != null) {
-                updateCropAverageYield(crop);
-            }
+            applyYieldChange(harvest.getCrop(), oldYield, yield);
 
             return "Harvest yield updated successfully";
         } catch (Exception e) {
@@ -178,54 +292,103 @@ public class HarvestService {
 
     // Get total yield across all harvests
     public Double getTotalYield() {
-        return harvestRepository.findAll().stream()
-                .mapToDouble(Harvest::getYield)
-                .sum();
+        return harvestRepository.sumYield();
     }
 
     // Get total yield for a specific farm
     public Double getTotalYieldByFarm(Integer farmId) {
-        return getHarvestsByFarm(farmId).stream()
-                .mapToDouble(Harvest::getYield)
-                .sum();
+        return harvestRepository.sumYieldByFarmId(farmId);
     }
 
     // Get total yield for a specific crop
     public Double getTotalYieldByCrop(Integer cropId) {
-        return getHarvestsByCrop(cropId).stream()
-                .mapToDouble(Harvest::getYield)
-                .sum();
+        return harvestRepository.sumYieldByCropId(cropId);
     }
 
     // Get average quality rating across all harvests
     public Double getAverageQualityRating() {
-        List<Harvest> harvests = harvestRepository.findAll();
-        if (harvests.isEmpty()) {
-            return 0.0;
-        }
-        return harvests.stream()
-                .mapToDouble(Harvest::getQualityRating)
-                .average()
-                .orElse(0.0);
+        return harvestRepository.averageQualityRating();
+    }
+
+    // Get count, sum, average, min and max yield across all harvests
+    public HarvestYieldStats getYieldStats() {
+        return harvestRepository.getYieldStats();
+    }
+
+    // Get yield statistics for a specific farm
+    public HarvestYieldStats getYieldStatsByFarm(Integer farmId) {
+        return harvestRepository.getYieldStatsByFarmId(farmId);
+    }
+
+    // Get yield statistics for a specific crop
+    public HarvestYieldStats getYieldStatsByCrop(Integer cropId) {
+        return harvestRepository.getYieldStatsByCropId(cropId);
     }
 
     // Get harvests with yield above a threshold
-    public List<Harvest> getHarvestsAboveYieldThreshold(Double threshold) {
+    public List<HarvestView> getHarvestsAboveYieldThreshold(Double threshold) {
         return harvestRepository.findByYieldAboveThreshold(threshold);
     }
 
-    // Get most recent harvests
-    public List<Harvest> getMostRecentHarvests(int limit) {
-        return harvestRepository.findMostRecentHarvests().stream()
-                .limit(limit)
-                .toList();
+    // Get most recent harvests; harvests without a date are not listed
+    public List<HarvestView> getMostRecentHarvests(int limit) {
+        checkLimit(limit);
+        return harvestRepository.findMostRecentHarvests(PageRequest.of(0, limit));
+    }
+
+    // Get a page of most recent harvests older than the given cursor (first page when cursor is null).
+    // Harvests without a date are not listed, so every harvest on a page can be a cursor.
+    public HarvestCursorPage getMostRecentHarvestsPage(int limit, String cursor) {
+        checkLimit(limit);
+        // Fetch one extra row to find out whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1);
+
+        List<HarvestView> harvests;
+        if (cursor == null || cursor.isBlank()) {
+            harvests = harvestRepository.findMostRecentHarvests(pageable);
+        } else {
+            String[] position = decodeCursor(cursor);
+            harvests = harvestRepository.findHarvestsBefore(
+                    new Date(Long.parseLong(position[0])), Integer.valueOf(position[1]), pageable);
+        }
+
+        if (harvests.size() <= limit) {
+            return new HarvestCursorPage(harvests, null);
+        }
+
+        List<HarvestView> page = harvests.subList(0, limit);
+        HarvestView last = page.getLast();
+        return new HarvestCursorPage(List.copyOf(page), encodeCursor(last.date(), last.harvestID()));
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_RECENT_HARVESTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_RECENT_HARVESTS);
+        }
+    }
+
+    private String encodeCursor(Date date, Integer harvestId) {
+        String position = date.getTime() + ":" + harvestId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split(":");
+            Long.parseLong(parts[0]);
+            Integer.parseInt(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid harvest cursor");
+        }
     }
 
     // Transfer a harvest to a different inventory
     @Transactional
     public String transferHarvestToInventory(Integer harvestId, Integer inventoryId) {
         try {
-            Harvest harvest = getHarvestById(harvestId);
+            Harvest harvest = findHarvestOrThrow(harvestId);
             Inventory inventory = inventoryRepository.findById(inventoryId)
                     .orElseThrow(() -> new RuntimeException("Inventory not found with ID: " + inventoryId));
 
@@ -0,0 +1,78 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.Model.PooledIdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+// Moves each @PooledId generator past the highest ID already in its table before the app takes requests.
+// This is the migration path from AUTO_INCREMENT: existing rows keep their IDs, new blocks start above them,
+// and the AUTO_INCREMENT attribute left on the old MySQL columns is simply never used again.
+@Component
+public class IdGeneratorAligner implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorAligner.class);
+
+    // Generator row name (the value of each @PooledId) and the query for its table's highest ID
+    static final Map<String, String> MAX_ID_QUERIES = Map.of(
+            "Farms", "SELECT MAX(f.farmID) FROM Farm f",
+            "Crops", "SELECT MAX(c.cropID) FROM Crop c",
+            "Harvests", "SELECT MAX(h.harvestID) FROM Harvest h",
+            "Inventory", "SELECT MAX(i.inventoryID) FROM Inventory i",
+            "Orders", "SELECT MAX(o.orderID) FROM Order o",
+            "Clients", "SELECT MAX(cl.clientID) FROM Client cl",
+            "staff_and_volunteers", "SELECT MAX(p.personID) FROM StaffAndVolunteer p",
+            "SustainabilityMetrics", "SELECT MAX(m.metricID) FROM SustainabilityMetric m",
+            "SensorReadings", "SELECT MAX(r.readingID) FROM SensorReading r",
+            "SensorReadingRollups", "SELECT MAX(r.rollupID) FROM SensorReadingRollup r");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        MAX_ID_QUERIES.forEach((generator, maxIdQuery) -> transaction.executeWithoutResult(status -> align(generator, maxIdQuery)));
+    }
+
+    // Set the generator's next value to one above the table's highest ID, creating its row if needed
+    private void align(String generator, String maxIdQuery) {
+        Number maxId = (Number) entityManager.createQuery(maxIdQuery).getSingleResult();
+        long firstFreeId = (maxId != null ? maxId.longValue() : 0) + 1;
+
+        List<?> current = entityManager
+                .createNativeQuery("SELECT " + PooledIdGenerator.VALUE_COLUMN + " FROM " + PooledIdGenerator.TABLE +
+                        " WHERE " + PooledIdGenerator.NAME_COLUMN + " = :generator")
+                .setParameter("generator", generator)
+                .getResultList();
+
+        if (current.isEmpty()) {
+            entityManager.createNativeQuery("INSERT INTO " + PooledIdGenerator.TABLE + " (" + PooledIdGenerator.NAME_COLUMN + ", " +
+                            PooledIdGenerator.VALUE_COLUMN + ") VALUES (:generator, :nextVal)")
+                    .setParameter("generator", generator)
+                    .setParameter("nextVal", firstFreeId)
+                    .executeUpdate();
+        } else if (((Number) current.getFirst()).longValue() < firstFreeId) {
+            entityManager.createNativeQuery("UPDATE " + PooledIdGenerator.TABLE + " SET " + PooledIdGenerator.VALUE_COLUMN +
+                            " = :nextVal WHERE " + PooledIdGenerator.NAME_COLUMN + " = :generator")
+                    .setParameter("generator", generator)
+                    .setParameter("nextVal", firstFreeId)
+                    .executeUpdate();
+        } else {
+            return;
+        }
+        log.info("ID generator {} now starts at {}", generator, firstFreeId);
+    }
+}
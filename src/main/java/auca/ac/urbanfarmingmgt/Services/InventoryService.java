@@ -1,28 +1,61 @@
 package auca.ac.urbanfarmingmgt.Services;
 
+import auca.ac.urbanfarmingmgt.DTO.Expansions;
+import auca.ac.urbanfarmingmgt.DTO.InventoryDetails;
+import auca.ac.urbanfarmingmgt.DTO.InventoryView;
 import auca.ac.urbanfarmingmgt.Model.Inventory;
 import auca.ac.urbanfarmingmgt.Model.Order;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.HarvestRepository;
 import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
 
+    private final HarvestRepository harvestRepository;
+
+    private final CropRepository cropRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final NdjsonExporter ndjsonExporter;
+
+    private final ReferenceDataCache referenceDataCache;
+
     @Autowired
-    public InventoryService(InventoryRepository inventoryRepository) {
+    public InventoryService(InventoryRepository inventoryRepository, HarvestRepository harvestRepository,
+                            CropRepository cropRepository, OrderRepository orderRepository,
+                            NdjsonExporter ndjsonExporter, ReferenceDataCache referenceDataCache) {
         this.inventoryRepository = inventoryRepository;
+        this.harvestRepository = harvestRepository;
+        this.cropRepository = cropRepository;
+        this.orderRepository = orderRepository;
+        this.ndjsonExporter = ndjsonExporter;
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    // Fetch a page of inventory items
+    public Page<InventoryView> getAllInventory(Pageable pageable) {
+        return inventoryRepository.findAllViews(pageable);
     }
 
-    // Fetch all inventory items
-    public List<Inventory> getAllInventory() {
-        return inventoryRepository.findAll();
+    // Stream all inventory items as NDJSON
+    public long exportInventory(OutputStream out) throws IOException {
+        return ndjsonExporter.write(inventoryRepository::streamAllViews, out);
     }
 
     // Fetch a specific inventory item by its ID
@@ -30,24 +63,39 @@ public class InventoryService {
         return inventoryRepository.findById(id);
     }
 
+    // Fetch an inventory item with the collections named in expand (harvestList, cropList, orderList)
+    public Optional<InventoryDetails> getInventoryDetails(Integer id, String expand) {
+        Set<String> expansions = Expansions.parse(expand, InventoryDetails.EXPANSIONS);
+        return inventoryRepository.findViewById(id)
+                .map(inventory -> new InventoryDetails(
+                        inventory,
+                        expansions.contains("harvestList") ? harvestRepository.findByInventoryId(id) : null,
+                        expansions.contains("cropList") ? cropRepository.findByInventoryId(id) : null,
+                        expansions.contains("orderList") ? orderRepository.findByInventoryId(id) : null));
+    }
+
     // Fetch inventory by produce type
-    public List<Inventory> getInventoryByProduceType(String produceType) {
+    public List<InventoryView> getInventoryByProduceType(String produceType) {
         return inventoryRepository.findByProduceType(produceType);
     }
 
     // Save or update an inventory item
-    public Inventory saveInventory(Inventory inventory) {
-        return inventoryRepository.save(inventory);
+    public InventoryView saveInventory(Inventory inventory) {
+        Inventory saved = inventoryRepository.save(inventory);
+        referenceDataCache.evictInventory(saved.getInventoryID());
+        return InventoryView.from(saved);
     }
 
     // Delete an inventory item by its ID
     public void deleteInventory(Integer id) {
         inventoryRepository.deleteById(id);
+        referenceDataCache.evictInventory(id);
     }
 
     // Update stock of the inventory based on harvest
     public void updateInventoryStock(int harvestId, int harvestAmount) {
         inventoryRepository.updateStock(harvestId, harvestAmount);
+        referenceDataCache.evictInventory(harvestId);
     }
 
     // Link inventory item to an order
@@ -58,6 +106,7 @@ public class InventoryService {
             Inventory inventory = inventoryOptional.get();
             inventory.addOrder(order); // Use the helper method
             inventoryRepository.save(inventory);
+            referenceDataCache.evictInventory(inventoryId);
         }
     }
 
@@ -65,6 +114,7 @@ public class InventoryService {
     @Transactional
     public void trackHarvestInInventory(int harvestId, double harvestYield) {
         inventoryRepository.trackHarvest(harvestId, harvestYield);
+        referenceDataCache.evictInventory(harvestId);
     }
 
     // Check if inventory has enough quantity to fulfill order
@@ -77,19 +127,14 @@ public class InventoryService {
         return false;
     }
 
-    // Update inventory quantity after order placement
+    // Update inventory quantity after order placement; false when the item is missing or has too little left
     @Transactional
     public boolean updateQuantityAfterOrder(Integer inventoryId, Double orderedQuantity) {
-        Optional<Inventory> inventoryOptional = inventoryRepository.findById(inventoryId);
-        if (inventoryOptional.isPresent()) {
-            Inventory inventory = inventoryOptional.get();
-            if (inventory.getQuantity() >= orderedQuantity) {
-                inventory.setQuantity(inventory.getQuantity() - orderedQuantity);
-                inventoryRepository.save(inventory); // Persist updated inventory
-                return true;
-            }
+        if (inventoryRepository.decrementQuantityIfAvailable(inventoryId, orderedQuantity) != 1) {
+            return false;
         }
-        return false;
+        referenceDataCache.evictInventory(inventoryId);
+        return true;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes query results as newline-delimited JSON while the result set is still being read
+@Component
+public class NdjsonExporter {
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Writes one JSON line per row and returns the number of rows written.
+    // The persistence context is cleared every CLEAR_INTERVAL rows so memory stays flat for any table size.
+    @Transactional(readOnly = true)
+    public <T> long write(Supplier<Stream<T>> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<T> stream = rows.get()) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
@@ -0,0 +1,275 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.SearchHit;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted trigram index over a few short text fields per record.
+// Words are indexed by their padded trigrams for ranked prefix and typo-tolerant search, and whole field values
+// by their plain trigrams so a "contains" lookup only checks records that hold every trigram of the term.
+// Text is compared lower-cased with accents removed. Reads share a lock; writes take it exclusively.
+class NgramIndex {
+
+    // A fuzzy word match needs at least this trigram overlap (Jaccard) with the query word
+    private static final double MIN_FUZZY_SIMILARITY = 0.35;
+    // Fuzzy matches rank below exact and prefix matches of the same quality
+    private static final double FUZZY_WEIGHT = 0.7;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // One field to index, weighted by how much a match in it counts towards the record's rank
+    record Field(String name, double weight, String value) {
+    }
+
+    private record Key(SearchHit.Type type, int id) {
+    }
+
+    private record Word(String text, Set<String> grams) {
+    }
+
+    private record IndexedField(String name, double weight, String value, String folded, List<Word> words) {
+    }
+
+    private record Document(Key key, String label, Integer parentId, List<IndexedField> fields) {
+    }
+
+    private final Map<Key, Document> documents = new HashMap<>();
+    private final Map<String, Set<Key>> wordPostings = new HashMap<>();
+    private final Map<String, Set<Key>> substringPostings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Add or replace a record; parentId ties it to an owning record so they can be removed together
+    void put(SearchHit.Type type, int id, String label, Integer parentId, List<Field> fields) {
+        Key key = new Key(type, id);
+        List<IndexedField> indexed = fields.stream()
+                .filter(field -> field.value() != null && !field.value().isBlank())
+                .map(field -> {
+                    String folded = fold(field.value());
+                    List<Word> words = Arrays.stream(WORD_SEPARATORS.split(folded))
+                            .filter(word -> !word.isEmpty())
+                            .distinct()
+                            .map(word -> new Word(word, wordGrams(word)))
+                            .toList();
+                    return new IndexedField(field.name(), field.weight(), field.value(), folded, words);
+                })
+                .toList();
+        Document document = new Document(key, label, parentId, indexed);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            documents.put(key, document);
+            for (IndexedField field : indexed) {
+                field.words().forEach(word -> word.grams().forEach(gram ->
+                        wordPostings.computeIfAbsent(gram, missing -> new HashSet<>()).add(key)));
+                substringGrams(field.folded()).forEach(gram ->
+                        substringPostings.computeIfAbsent(field.name() + '\u0000' + gram, missing -> new HashSet<>()).add(key));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove one record
+    void remove(SearchHit.Type type, int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(new Key(type, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove every record of a type owned by parentId
+    void removeChildren(SearchHit.Type type, int parentId) {
+        lock.writeLock().lock();
+        try {
+            documents.values().stream()
+                    .filter(document -> document.key().type() == type && Integer.valueOf(parentId).equals(document.parentId()))
+                    .map(Document::key)
+                    .toList()
+                    .forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rank records of the given types against every word of the query, best first.
+    // Each query word scores its best word in the record: 1 for an equal word, 0.75 to 1 for a word it starts,
+    // or a scaled trigram similarity for a near miss; the record's score is the average over the query words.
+    List<SearchHit> search(String query, Set<SearchHit.Type> types, int limit) {
+        List<Word> queryWords = Arrays.stream(WORD_SEPARATORS.split(fold(query)))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .map(word -> new Word(word, wordGrams(word)))
+                .toList();
+        if (queryWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Key> candidates = new HashSet<>();
+            for (Word queryWord : queryWords) {
+                for (String gram : queryWord.grams()) {
+                    for (Key key : wordPostings.getOrDefault(gram, Set.of())) {
+                        if (types.contains(key.type())) {
+                            candidates.add(key);
+                        }
+                    }
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (Key key : candidates) {
+                Document document = documents.get(key);
+                double total = 0;
+                double bestScore = 0;
+                IndexedField bestField = null;
+                for (Word queryWord : queryWords) {
+                    double wordBest = 0;
+                    for (IndexedField field : document.fields()) {
+                        for (Word word : field.words()) {
+                            double score = wordScore(queryWord, word) * field.weight();
+                            if (score > wordBest) {
+                                wordBest = score;
+                            }
+                            if (score > bestScore) {
+                                bestScore = score;
+                                bestField = field;
+                            }
+                        }
+                    }
+                    total += wordBest;
+                }
+                if (bestField != null) {
+                    double score = Math.round(total / queryWords.size() * 1000) / 1000.0;
+                    hits.add(new SearchHit(key.type(), key.id(), document.label(), bestField.name(), bestField.value(), score));
+                }
+            }
+
+            return hits.stream()
+                    .sorted(Comparator.comparingDouble(SearchHit::score).reversed()
+                            .thenComparing(hit -> hit.label() != null ? hit.label() : "")
+                            .thenComparing(SearchHit::id))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // IDs of the records of a type whose field contains term, ignoring case and accents, in ascending order
+    List<Integer> containing(SearchHit.Type type, String fieldName, String term) {
+        String folded = fold(term);
+        lock.readLock().lock();
+        try {
+            Set<Key> candidates;
+            if (folded.length() < 3) {
+                // Too short for a trigram; such terms match most records anyway
+                candidates = documents.keySet();
+            } else {
+                candidates = null;
+                for (String gram : substringGrams(folded)) {
+                    Set<Key> posting = substringPostings.getOrDefault(fieldName + '\u0000' + gram, Set.of());
+                    if (candidates == null) {
+                        candidates = new HashSet<>(posting);
+                    } else {
+                        candidates.retainAll(posting);
+                    }
+                    if (candidates.isEmpty()) {
+                        return List.of();
+                    }
+                }
+            }
+
+            return candidates.stream()
+                    .filter(key -> key.type() == type)
+                    .filter(key -> documents.get(key).fields().stream()
+                            .anyMatch(field -> field.name().equals(fieldName) && field.folded().contains(folded)))
+                    .map(Key::id)
+                    .sorted()
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Key key) {
+        Document document = documents.remove(key);
+        if (document == null) {
+            return;
+        }
+        for (IndexedField field : document.fields()) {
+            field.words().forEach(word -> word.grams().forEach(gram -> removePosting(wordPostings, gram, key)));
+            substringGrams(field.folded()).forEach(gram -> removePosting(substringPostings, field.name() + '\u0000' + gram, key));
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Key>> postings, String gram, Key key) {
+        Set<Key> posting = postings.get(gram);
+        if (posting != null && posting.remove(key) && posting.isEmpty()) {
+            postings.remove(gram);
+        }
+    }
+
+    private static double wordScore(Word queryWord, Word word) {
+        if (word.text().equals(queryWord.text())) {
+            return 1.0;
+        }
+        if (word.text().startsWith(queryWord.text())) {
+            return 0.75 + 0.25 * queryWord.text().length() / word.text().length();
+        }
+        Set<String> shared = new HashSet<>(queryWord.grams());
+        shared.retainAll(word.grams());
+        double similarity = (double) shared.size() / (queryWord.grams().size() + word.grams().size() - shared.size());
+        return similarity >= MIN_FUZZY_SIMILARITY ? similarity * FUZZY_WEIGHT : 0;
+    }
+
+    // Trigrams of a word padded with two leading blanks and one trailing blank, so prefixes share the leading grams
+    private static Set<String> wordGrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Trigrams of a whole folded value, as used by "contains" lookups
+    private static Set<String> substringGrams(String folded) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Lower-case and strip accents, so "Café" and "cafe" index alike
+    static String fold(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
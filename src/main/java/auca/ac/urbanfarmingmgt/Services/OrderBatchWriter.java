@@ -0,0 +1,111 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.OrderTicket;
+import auca.ac.urbanfarmingmgt.Model.Client;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.Order;
+import auca.ac.urbanfarmingmgt.Repository.ClientRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Writes one drained batch of queued orders in a single transaction for the order intake writers
+@Service
+public class OrderBatchWriter {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    // Fill the batch's orders first come first served, then insert them together and
+    // take each inventory row's accepted total off with one conditional update
+    @Transactional
+    public List<OrderTicket> write(List<OrderTicket> batch) {
+        Map<Integer, Inventory> inventories = inventoryRepository.findAllForUpdate(
+                        batch.stream().map(OrderTicket::inventoryID).distinct().toList()).stream()
+                .collect(Collectors.toMap(Inventory::getInventoryID, Function.identity()));
+        Map<Integer, Client> clients = clientRepository.findAllById(
+                        batch.stream().map(OrderTicket::clientID).filter(Objects::nonNull).distinct().toList()).stream()
+                .collect(Collectors.toMap(Client::getClientID, Function.identity()));
+
+        Map<Integer, Double> netQuantity = new LinkedHashMap<>();
+        List<OrderTicket> resolved = new ArrayList<>(batch.size());
+        List<Order> orders = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+
+        for (OrderTicket ticket : batch) {
+            Inventory inventory = inventories.get(ticket.inventoryID());
+            if (inventory == null) {
+                resolved.add(ticket.rejected("Inventory not found"));
+                continue;
+            }
+            if (ticket.clientID() != null && !clients.containsKey(ticket.clientID())) {
+                resolved.add(ticket.rejected("Client not found"));
+                continue;
+            }
+
+            double taken = netQuantity.getOrDefault(inventory.getInventoryID(), 0.0);
+            double available = inventory.getQuantity() != null ? inventory.getQuantity() : 0.0;
+            if (taken + ticket.quantityOrdered() > available) {
+                businessMetrics.oversellRejected("intake");
+                resolved.add(ticket.rejected("Insufficient inventory for this order"));
+                continue;
+            }
+            netQuantity.put(inventory.getInventoryID(), taken + ticket.quantityOrdered());
+
+            // The batch takes the quantity below, so accepted orders are stored as Placed
+            orders.add(Order.builder()
+                    .orderDate(ticket.submittedAt())
+                    .quantityOrdered(ticket.quantityOrdered())
+                    .deliveryStatus(DeliveryStatus.PLACED)
+                    .inventory(inventory)
+                    .build());
+            acceptedIndexes.add(resolved.size());
+            resolved.add(ticket);
+        }
+
+        // The rows are locked, so every net decrement fits; anything else rolls the batch back
+        netQuantity.forEach((inventoryId, quantity) -> {
+            if (inventoryRepository.decrementQuantityIfAvailable(inventoryId, quantity) != 1) {
+                throw new IllegalStateException("Inventory " + inventoryId + " changed while its rows were locked");
+            }
+        });
+
+        referenceDataCache.evictInventories(netQuantity.keySet());
+        orderRepository.saveAll(orders);
+
+        for (int i = 0; i < orders.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            OrderTicket ticket = resolved.get(index);
+            Order order = orders.get(i);
+            if (ticket.clientID() != null) {
+                clients.get(ticket.clientID()).setOrder(order);
+            }
+            resolved.set(index, ticket.accepted(order.getOrderID()));
+        }
+        businessMetrics.ordersPlaced("intake", orders.size());
+        return resolved;
+    }
+}
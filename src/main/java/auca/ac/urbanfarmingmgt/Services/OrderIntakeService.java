@@ -0,0 +1,158 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.OrderIntakeRequest;
+import auca.ac.urbanfarmingmgt.DTO.OrderTicket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind order intake: orders are queued and acknowledged with a ticket, and one writer thread per
+// inventory shard drains its queue in batches through OrderBatchWriter
+@Service
+public class OrderIntakeService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+
+    @Value("${urbanfarming.order-intake.shards:4}")
+    private int shardCount;
+
+    @Value("${urbanfarming.order-intake.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${urbanfarming.order-intake.batch-size:200}")
+    private int batchSize;
+
+    @Value("${urbanfarming.order-intake.ticket-retention:100000}")
+    private int ticketRetention;
+
+    // Writers run on virtual threads too when requests do
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final List<BlockingQueue<OrderTicket>> queues = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    // Lock-free, so request threads never wait on a monitor here (a virtual thread doing so pins its carrier)
+    private final Map<String, OrderTicket> tickets = new ConcurrentHashMap<>();
+    // Ticket IDs oldest first, for forgetting tickets beyond the retention limit
+    private final Queue<String> ticketOrder = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+
+    // Start one queue and one writer thread per shard
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int shard = 0; shard < shardCount; shard++) {
+            BlockingQueue<OrderTicket> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+            queues.add(queue);
+            writers.add(builder.name("order-intake-" + shard).start(() -> drain(queue)));
+        }
+    }
+
+    // Stop taking orders and let each writer flush what is already queued
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    // Queue an order and return its ticket; 429 when the inventory's shard queue is full
+    public OrderTicket submit(OrderIntakeRequest request) {
+        if (request.inventoryID() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The inventory must be specified for the order");
+        }
+        if (request.quantityOrdered() == null || request.quantityOrdered() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity ordered must be greater than zero");
+        }
+        if (!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order intake is shutting down");
+        }
+
+        OrderTicket ticket = OrderTicket.pending(UUID.randomUUID().toString(), request);
+        remember(ticket);
+        BlockingQueue<OrderTicket> queue = queues.get(Math.floorMod(request.inventoryID(), shardCount));
+        if (!queue.offer(ticket)) {
+            tickets.remove(ticket.ticketID());
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Order queue is full, retry later");
+        }
+        // Stop may have come between the check above and the offer, and the writer may already have made its last
+        // pass. Take the ticket back unless the writer got to it first, in which case it will be written.
+        if (!running && queue.remove(ticket)) {
+            tickets.remove(ticket.ticketID());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order intake is shutting down");
+        }
+        return ticket;
+    }
+
+    // Get the current state of a ticket
+    public Optional<OrderTicket> getTicket(String ticketId) {
+        return Optional.ofNullable(tickets.get(ticketId));
+    }
+
+    // Writer loop: wait for an order, take whatever else is queued up to the batch size and write it together
+    private void drain(BlockingQueue<OrderTicket> queue) {
+        List<OrderTicket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OrderTicket first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<OrderTicket> batch) {
+        try {
+            orderBatchWriter.write(batch).forEach(this::remember);
+        } catch (RuntimeException e) {
+            log.error("Order intake batch of {} failed", batch.size(), e);
+            batch.forEach(ticket -> remember(ticket.rejected("Batch failed: " + e.getMessage())));
+        }
+    }
+
+    // Store or update a ticket; the oldest tickets are forgotten first once more than the retention limit are held
+    private void remember(OrderTicket ticket) {
+        if (tickets.put(ticket.ticketID(), ticket) == null) {
+            ticketOrder.add(ticket.ticketID());
+            while (tickets.size() > ticketRetention) {
+                String oldest = ticketOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                tickets.remove(oldest);
+            }
+        }
+    }
+}
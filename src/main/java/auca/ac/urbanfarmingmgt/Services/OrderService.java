@@ -1,39 +1,103 @@
 package auca.ac.urbanfarmingmgt.Services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import auca.ac.urbanfarmingmgt.DTO.Expansions;
+import auca.ac.urbanfarmingmgt.DTO.OrderDetails;
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
+import auca.ac.urbanfarmingmgt.Repository.ClientRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
 import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
 import auca.ac.urbanfarmingmgt.Model.Order;
-import auca.ac.urbanfarmingmgt.Model.Inventory;
 
 @Service
 public class OrderService {
 
+    // Most orders one dispatcher can claim per call
+    public static final int MAX_CLAIM = 100;
+
     @Autowired
     private OrderRepository orderRepository;
 
-    // Save the order into the repository
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    // Save the order into the repository; new orders start Pending and existing ones may only make a valid move
+    @Transactional
     public String saveOrder(Order order) {
         if (order.getInventory() == null) {
             return "The inventory must be specified for the order";
-        } else {
-            orderRepository.save(order);
-            return "Order saved successfully";
         }
+        if (order.getDeliveryStatus() == null) {
+            order.setDeliveryStatus(DeliveryStatus.PENDING);
+        }
+
+        DeliveryStatus current = order.getOrderID() == null ? null : orderRepository.findByIdForUpdate(order.getOrderID())
+                .map(Order::getDeliveryStatus)
+                .orElse(null);
+        if (current == null && order.getDeliveryStatus() != DeliveryStatus.PENDING) {
+            return "New orders must start as " + DeliveryStatus.PENDING.getLabel();
+        }
+        if (current != null && current != order.getDeliveryStatus()) {
+            DeliveryStatus requested = order.getDeliveryStatus();
+            if (!current.canMoveTo(requested)) {
+                return transitionError(current, requested);
+            }
+            order.setDeliveryStatus(current);
+            if (!moveTo(order, requested, "order")) {
+                return "Insufficient inventory for this order";
+            }
+        }
+
+        orderRepository.save(order);
+        return "Order saved successfully";
     }
 
-    // Update the delivery status of an existing order
+    // Update the delivery status of an existing order, if its current status allows the move
+    @Transactional
     public String updateOrderStatus(Integer orderId, String deliveryStatus) {
-        Optional<Order> getOrder = orderRepository.findById(orderId);
+        Optional<DeliveryStatus> status = DeliveryStatus.parse(deliveryStatus);
+        if (status.isEmpty()) {
+            return "Unknown delivery status: " + deliveryStatus;
+        }
+
+        Optional<Order> getOrder = orderRepository.findByIdForUpdate(orderId);
 
         if (getOrder.isPresent()) {
             Order order = getOrder.get();
-            order.setDeliveryStatus(deliveryStatus);
+            if (!order.getDeliveryStatus().canMoveTo(status.get())) {
+                return transitionError(order.getDeliveryStatus(), status.get());
+            }
+            if (!moveTo(order, status.get(), "order")) {
+                return "Insufficient inventory for this order";
+            }
             orderRepository.save(order);
             return "Order status updated successfully";
         } else {
@@ -41,27 +105,38 @@ public class OrderService {
         }
     }
 
+    // Claim up to limit of the oldest Pending orders for one dispatcher by moving them to Processing.
+    // Orders locked by a concurrent claim are skipped, so parallel dispatchers never receive the same order.
+    // Claiming takes each order's quantity off inventory; an order there is not enough for stays Pending.
+    @Transactional
+    public List<OrderView> claimPendingOrders(int limit) {
+        if (limit < 1 || limit > MAX_CLAIM) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_CLAIM);
+        }
+        List<OrderView> claimed = new ArrayList<>();
+        for (Order order : orderRepository.findNextForUpdateSkipLocked(DeliveryStatus.PENDING, PageRequest.of(0, limit))) {
+            if (moveTo(order, DeliveryStatus.PROCESSING, "dispatch")) {
+                claimed.add(OrderView.from(order));
+            }
+        }
+        return claimed;
+    }
+
     // Place an order and update inventory accordingly
     @Transactional
     public String placeOrder(Integer orderId) {
-        Optional<Order> getOrder = orderRepository.findById(orderId);
+        Optional<Order> getOrder = orderRepository.findByIdForUpdate(orderId);
 
         if (getOrder.isPresent()) {
             Order order = getOrder.get();
-            Inventory inventory = order.getInventory();
 
-            // Check if inventory has enough quantity for the order
-            if (inventory.getQuantity() >= order.getQuantityOrdered()) {
-                // Update inventory by reducing stock
-                orderRepository.keepInventory(inventory.getInventoryID(), order.getQuantityOrdered());
-
-                // Update the order status
-                order.setDeliveryStatus("Processing");
+            if (!order.getDeliveryStatus().canMoveTo(DeliveryStatus.PLACED)) {
+                return transitionError(order.getDeliveryStatus(), DeliveryStatus.PLACED);
+            }
 
-                // Save the order and mark it as ordered
+            // A pending order takes its quantity now; a claimed one already holds it
+            if (moveTo(order, DeliveryStatus.PLACED, "order")) {
                 orderRepository.save(order);
-                orderRepository.ordering(orderId);
-
                 return "Order placed and inventory updated successfully";
             } else {
                 return "Insufficient inventory for this order";
@@ -74,17 +149,17 @@ public class OrderService {
     // Cancel an order and revert changes to inventory if applicable
     @Transactional
     public String cancelOrder(Integer orderId) {
-        Optional<Order> getOrder = orderRepository.findById(orderId);
+        Optional<Order> getOrder = orderRepository.findByIdForUpdate(orderId);
 
         if (getOrder.isPresent()) {
             Order order = getOrder.get();
 
             // Only allow cancellation if the order has not been delivered
-            if (!order.getDeliveryStatus().equals("Delivered")) {
-                order.setDeliveryStatus("Cancelled");
-
-                // Revert inventory changes (return stock to inventory)
-                orderRepository.keepInventory(order.getInventory().getInventoryID(), -order.getQuantityOrdered());
+            if (order.getDeliveryStatus() == DeliveryStatus.CANCELLED) {
+                return "Order is already cancelled";
+            } else if (order.getDeliveryStatus().canMoveTo(DeliveryStatus.CANCELLED)) {
+                // Returns the quantity to inventory if the order was holding it
+                moveTo(order, DeliveryStatus.CANCELLED, "order");
 
                 // Save the order with updated status
                 orderRepository.save(order);
@@ -98,18 +173,64 @@ public class OrderService {
         }
     }
 
-    // Get a list of orders by their delivery status
-    public List<Order> getOrdersByStatus(String deliveryStatus) {
-        return orderRepository.findByDeliveryStatus(deliveryStatus);
+    // Get a list of orders by their delivery status label, oldest first
+    public List<OrderView> getOrdersByStatus(String deliveryStatus) {
+        DeliveryStatus status = DeliveryStatus.parse(deliveryStatus)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown delivery status: " + deliveryStatus));
+        return orderRepository.findByDeliveryStatus(status);
+    }
+
+    // Get a page of orders
+    public Page<OrderView> getAllOrders(Pageable pageable) {
+        return orderRepository.findAllViews(pageable);
     }
 
-    // Get all orders in the system
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    // Stream all orders as NDJSON
+    public long exportOrders(OutputStream out) throws IOException {
+        return ndjsonExporter.write(orderRepository::streamAllViews, out);
     }
 
     // Get a specific order by its ID
-    public Optional<Order> getOrderById(Integer orderId) {
-        return orderRepository.findById(orderId);
+    public Optional<OrderView> getOrderById(Integer orderId) {
+        return orderRepository.findViewById(orderId);
+    }
+
+    // Get an order with the relations named in expand (inventory, clientList)
+    public Optional<OrderDetails> getOrderDetails(Integer orderId, String expand) {
+        Set<String> expansions = Expansions.parse(expand, OrderDetails.EXPANSIONS);
+        return orderRepository.findViewById(orderId)
+                .map(order -> new OrderDetails(
+                        order,
+                        expansions.contains("inventory") && order.inventoryID() != null
+                                ? inventoryRepository.findViewById(order.inventoryID()).orElse(null) : null,
+                        expansions.contains("clientList") ? clientRepository.findByOrderId(orderId) : null));
+    }
+
+    // Move an order to a status it may move to, taking its quantity off inventory when it starts holding stock and
+    // putting it back when it stops. Returns false, leaving the order as it was, if there is not enough left.
+    // The caller must hold the order's row lock, from findByIdForUpdate or the claim query, so no move runs twice.
+    boolean moveTo(Order order, DeliveryStatus status, String channel) {
+        Integer inventoryId = order.getInventory().getInventoryID();
+        boolean held = order.getDeliveryStatus().holdsStock();
+
+        if (!held && status.holdsStock()) {
+            // The availability check and the decrement are one statement
+            if (inventoryRepository.decrementQuantityIfAvailable(inventoryId, order.getQuantityOrdered()) != 1) {
+                businessMetrics.oversellRejected(channel);
+                return false;
+            }
+            referenceDataCache.evictInventory(inventoryId);
+            businessMetrics.orderPlaced(channel);
+        } else if (held && !status.holdsStock()) {
+            inventoryRepository.incrementQuantity(inventoryId, order.getQuantityOrdered());
+            referenceDataCache.evictInventory(inventoryId);
+        }
+
+        order.setDeliveryStatus(status);
+        return true;
+    }
+
+    static String transitionError(DeliveryStatus from, DeliveryStatus to) {
+        return "Cannot move an order from " + from.getLabel() + " to " + to.getLabel();
     }
 }
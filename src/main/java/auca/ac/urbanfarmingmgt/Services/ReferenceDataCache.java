@@ -0,0 +1,116 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.CacheConfig;
+import auca.ac.urbanfarmingmgt.DTO.CacheRegionStatsView;
+import auca.ac.urbanfarmingmgt.DTO.CacheStatsView;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+// Evicts cached farm, crop and inventory views whenever a write changes them, and reports on both cache layers.
+// Entries are evicted straight away and again after the transaction commits, so a read that raced the write
+// and cached the old row is dropped as well; a read that commits later than that is bounded by the cache TTL.
+@Component
+public class ReferenceDataCache {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // A farm was saved or deleted
+    public void evictFarm(Integer farmId) {
+        evict(CacheConfig.FARMS, farmId);
+    }
+
+    // A crop was saved, deleted or had its yield totals changed
+    public void evictCrop(Integer cropId) {
+        evict(CacheConfig.CROPS, cropId);
+    }
+
+    // Several crops changed at once
+    public void evictCrops(Collection<Integer> cropIds) {
+        cropIds.forEach(this::evictCrop);
+    }
+
+    // Every crop may have changed, e.g. after a bulk recompute or a farm delete cascading to its crops
+    public void evictAllCrops() {
+        afterWrite(() -> cache(CacheConfig.CROPS).clear());
+    }
+
+    // An inventory item's columns changed; the produce type lists hold the same columns, so they are all dropped
+    public void evictInventory(Integer inventoryId) {
+        evict(CacheConfig.INVENTORY, inventoryId);
+        afterWrite(() -> cache(CacheConfig.INVENTORY_BY_PRODUCE_TYPE).clear());
+    }
+
+    // Several inventory items changed at once
+    public void evictInventories(Collection<Integer> inventoryIds) {
+        inventoryIds.forEach(inventoryId -> evict(CacheConfig.INVENTORY, inventoryId));
+        afterWrite(() -> cache(CacheConfig.INVENTORY_BY_PRODUCE_TYPE).clear());
+    }
+
+    // Size, hit, miss and eviction counters of every cache
+    public List<CacheStatsView> getStats() {
+        return CacheConfig.CACHE_NAMES.stream()
+                .map(name -> {
+                    com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                            ((CaffeineCache) cache(name)).getNativeCache();
+                    CacheStats stats = nativeCache.stats();
+                    return new CacheStatsView(name, nativeCache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                            stats.hitRate(), stats.evictionCount());
+                })
+                .toList();
+    }
+
+    // Hit, miss and put counters of every Hibernate second-level and query cache region
+    public List<CacheRegionStatsView> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> {
+                    CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                    return new CacheRegionStatsView(region, stats.getHitCount(), stats.getMissCount(),
+                            stats.getPutCount(), stats.getElementCountInMemory());
+                })
+                .toList();
+    }
+
+    private void evict(String cacheName, Integer key) {
+        if (key != null) {
+            afterWrite(() -> cache(cacheName).evict(key));
+        }
+    }
+
+    // Run now and, inside a transaction, once more after it commits
+    private void afterWrite(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), "No cache named " + name);
+    }
+}
@@ -0,0 +1,220 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.ClientView;
+import auca.ac.urbanfarmingmgt.DTO.CropView;
+import auca.ac.urbanfarmingmgt.DTO.FarmView;
+import auca.ac.urbanfarmingmgt.DTO.SearchHit;
+import auca.ac.urbanfarmingmgt.Repository.ClientRepository;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Search over crop type and location requirement, farm name and location, and client name and contact info.
+// The n-gram index is built from the database before the app takes requests and kept in step by the services'
+// writes once they commit, so searches and "contains" lookups never scan the tables. Changes that commit while a
+// rebuild reads the tables are replayed onto the new index before it replaces the old one.
+@Service
+public class SearchService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    static final String CROP_TYPE = "cropType";
+    static final String LOCATION_REQUIREMENT = "locationRequirement";
+    static final String FARM_NAME = "name";
+    static final String FARM_LOCATION = "location";
+    static final String CLIENT_NAME = "name";
+    static final String CONTACT_INFO = "contactInfo";
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile NgramIndex index = new NgramIndex();
+
+    // Guards applying changes, recording them and swapping the index
+    private final Lock changeLock = new ReentrantLock();
+    // Only one rebuild runs at a time
+    private final Lock rebuildLock = new ReentrantLock();
+    // Changes applied since the running rebuild started, or null when no rebuild runs
+    private List<Consumer<NgramIndex>> changesDuringRebuild;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // Rebuild the whole index from the tables and swap it in; returns the number of records indexed
+    public int rebuild() {
+        rebuildLock.lock();
+        try {
+            return rebuildLocked();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private int rebuildLocked() {
+        long startedAt = System.nanoTime();
+        NgramIndex rebuilt = new NgramIndex();
+
+        // Record changes from here on; any that the read below misses are replayed onto the new index
+        changeLock.lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            changeLock.unlock();
+        }
+
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<CropView> crops = cropRepository.streamAllViews()) {
+                    crops.forEach(crop -> putCrop(rebuilt, crop));
+                }
+                try (Stream<FarmView> farms = farmRepository.streamAllViews()) {
+                    farms.forEach(farm -> putFarm(rebuilt, farm));
+                }
+                try (Stream<ClientView> clients = clientRepository.streamAllViews()) {
+                    clients.forEach(client -> putClient(rebuilt, client));
+                }
+            });
+
+            changeLock.lock();
+            try {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                index = rebuilt;
+            } finally {
+                changeLock.unlock();
+            }
+        } finally {
+            changeLock.lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                changeLock.unlock();
+            }
+        }
+        log.info("Search index built with {} records in {} ms", rebuilt.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return rebuilt.size();
+    }
+
+    // Rank crops, farms and clients against q, optionally limited to one type
+    public List<SearchHit> search(String q, SearchHit.Type type, int limit) {
+        Set<SearchHit.Type> types = type != null ? EnumSet.of(type) : EnumSet.allOf(SearchHit.Type.class);
+        return index.search(q, types, limit);
+    }
+
+    // IDs of crops whose location requirement contains the term
+    public List<Integer> findCropIdsByLocationRequirement(String term) {
+        return index.containing(SearchHit.Type.CROP, LOCATION_REQUIREMENT, term);
+    }
+
+    // IDs of farms whose name contains the term
+    public List<Integer> findFarmIdsByName(String term) {
+        return index.containing(SearchHit.Type.FARM, FARM_NAME, term);
+    }
+
+    // A crop was created or updated
+    public void cropSaved(CropView crop) {
+        afterCommit(index -> putCrop(index, crop));
+    }
+
+    // A crop was deleted
+    public void cropDeleted(Integer cropId) {
+        afterCommit(index -> index.remove(SearchHit.Type.CROP, cropId));
+    }
+
+    // A farm was created or updated
+    public void farmSaved(FarmView farm) {
+        afterCommit(index -> putFarm(index, farm));
+    }
+
+    // A farm was deleted together with its crops
+    public void farmDeleted(Integer farmId) {
+        afterCommit(index -> {
+            index.remove(SearchHit.Type.FARM, farmId);
+            index.removeChildren(SearchHit.Type.CROP, farmId);
+        });
+    }
+
+    // A client was created or updated
+    public void clientSaved(ClientView client) {
+        afterCommit(index -> putClient(index, client));
+    }
+
+    // A client was deleted
+    public void clientDeleted(Integer clientId) {
+        afterCommit(index -> index.remove(SearchHit.Type.CLIENT, clientId));
+    }
+
+    private static void putCrop(NgramIndex index, CropView crop) {
+        index.put(SearchHit.Type.CROP, crop.cropID(), crop.cropType(), crop.farmID(), List.of(
+                new NgramIndex.Field(CROP_TYPE, 1.0, crop.cropType()),
+                new NgramIndex.Field(LOCATION_REQUIREMENT, 0.7, crop.locationRequirement())));
+    }
+
+    private static void putFarm(NgramIndex index, FarmView farm) {
+        index.put(SearchHit.Type.FARM, farm.farmID(), farm.name(), null, List.of(
+                new NgramIndex.Field(FARM_NAME, 1.0, farm.name()),
+                new NgramIndex.Field(FARM_LOCATION, 0.7, farm.location())));
+    }
+
+    private static void putClient(NgramIndex index, ClientView client) {
+        index.put(SearchHit.Type.CLIENT, client.clientID(), client.name(), null, List.of(
+                new NgramIndex.Field(CLIENT_NAME, 1.0, client.name()),
+                new NgramIndex.Field(CONTACT_INFO, 0.8, client.contactInfo())));
+    }
+
+    // Apply an index change once the surrounding transaction commits, or now when there is none
+    private void afterCommit(Consumer<NgramIndex> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    // Apply a change to the live index, and keep it for the new index while a rebuild runs
+    private void apply(Consumer<NgramIndex> change) {
+        changeLock.lock();
+        try {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+}
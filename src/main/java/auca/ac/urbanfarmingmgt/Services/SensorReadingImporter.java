@@ -0,0 +1,52 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.BatchImportError;
+import auca.ac.urbanfarmingmgt.DTO.BatchImportResult;
+import auca.ac.urbanfarmingmgt.DTO.SensorReadingRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+// Sensor reading uploads, written through SensorReadingService one chunk per transaction
+@Service
+public class SensorReadingImporter {
+
+    @Autowired
+    private SensorReadingService sensorReadingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${urbanfarming.sensor-readings.chunk-size:5000}")
+    private int chunkSize;
+
+    // Import newline-delimited JSON, one reading per line
+    public BatchImportResult importNdjson(InputStream body) throws IOException {
+        return newImport().readNdjson(body);
+    }
+
+    // Import CSV with a header line, e.g. cropID,recordedAt,waterUsage,soilHealth
+    public BatchImportResult importCsv(InputStream body) throws IOException {
+        return newImport().readCsv(body);
+    }
+
+    private BatchImport<SensorReadingRow> newImport() {
+        return new BatchImport<>(objectMapper, SensorReadingRow.class, chunkSize, this::saveChunk);
+    }
+
+    // Two uploads can create the same new bucket at once; the loser retries and then finds it to lock
+    private List<BatchImportError> saveChunk(Map<Long, SensorReadingRow> rows) {
+        try {
+            return sensorReadingService.saveReadings(rows);
+        } catch (DataIntegrityViolationException e) {
+            return sensorReadingService.saveReadings(rows);
+        }
+    }
+}
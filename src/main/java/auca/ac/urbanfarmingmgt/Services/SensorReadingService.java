@@ -0,0 +1,163 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.BatchImportError;
+import auca.ac.urbanfarmingmgt.DTO.SensorReadingRollupView;
+import auca.ac.urbanfarmingmgt.DTO.SensorReadingRow;
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.RollupGranularity;
+import auca.ac.urbanfarmingmgt.Model.SensorReading;
+import auca.ac.urbanfarmingmgt.Model.SensorReadingRollup;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.SensorReadingRepository;
+import auca.ac.urbanfarmingmgt.Repository.SensorReadingRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Appends timestamped sensor readings and keeps their hourly and daily rollups and the farm rollups in step
+@Service
+public class SensorReadingService {
+
+    private static final Duration DEFAULT_HOURLY_WINDOW = Duration.ofDays(1);
+    private static final Duration DEFAULT_DAILY_WINDOW = Duration.ofDays(30);
+
+    @Autowired
+    private SensorReadingRepository readingRepository;
+
+    @Autowired
+    private SensorReadingRollupRepository rollupRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private SustainabilityLeaderboardService leaderboardService;
+
+    // Append one chunk of an upload keyed by row number and return the rows that were rejected.
+    // The readings go out as JDBC batches and each touched bucket is read and written once per chunk.
+    @Transactional
+    public List<BatchImportError> saveReadings(Map<Long, SensorReadingRow> rows) {
+        Map<Integer, Crop> crops = cropRepository.findAllById(
+                        rows.values().stream().map(SensorReadingRow::cropID).filter(Objects::nonNull).distinct().toList()).stream()
+                .collect(Collectors.toMap(Crop::getCropID, Function.identity()));
+
+        List<BatchImportError> errors = new ArrayList<>();
+        List<SensorReading> readings = new ArrayList<>(rows.size());
+
+        rows.forEach((rowNumber, row) -> {
+            Crop crop = row.cropID() != null ? crops.get(row.cropID()) : null;
+            if (row.cropID() == null) {
+                errors.add(new BatchImportError(rowNumber, "cropID is required"));
+            } else if (crop == null) {
+                errors.add(new BatchImportError(rowNumber, "Crop not found with ID: " + row.cropID()));
+            } else if (crop.getFarm() == null) {
+                errors.add(new BatchImportError(rowNumber, "Crop is not associated with a farm"));
+            } else if (row.farmID() != null && !row.farmID().equals(crop.getFarm().getFarmID())) {
+                errors.add(new BatchImportError(rowNumber, "Crop " + row.cropID() + " does not belong to farm " + row.farmID()));
+            } else if (row.waterUsage() == null && row.soilHealth() == null
+                    && row.pesticideApplication() == null && row.energyUsage() == null) {
+                errors.add(new BatchImportError(rowNumber, "At least one metric value is required"));
+            } else {
+                readings.add(SensorReading.builder()
+                        .recordedAt(row.recordedAt() != null ? row.recordedAt() : new Date())
+                        .waterUsage(row.waterUsage())
+                        .soilHealth(row.soilHealth())
+                        .pesticideApplication(row.pesticideApplication())
+                        .energyUsage(row.energyUsage())
+                        .farm(crop.getFarm())
+                        .crop(crop)
+                        .build());
+            }
+        });
+
+        if (!readings.isEmpty()) {
+            readingRepository.saveAll(readings);
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                foldIntoRollups(granularity, readings);
+            }
+            leaderboardService.readingsAdded(readings);
+        }
+        return errors;
+    }
+
+    // Add the readings to their buckets, creating the buckets that do not exist yet
+    private void foldIntoRollups(RollupGranularity granularity, List<SensorReading> readings) {
+        Map<BucketKey, List<SensorReading>> readingsByBucket = readings.stream()
+                .collect(Collectors.groupingBy(reading -> new BucketKey(
+                        granularity.bucketStart(reading.getRecordedAt()).getTime(),
+                        reading.getFarm().getFarmID(),
+                        reading.getCrop().getCropID())));
+
+        List<Integer> farmIds = readingsByBucket.keySet().stream().map(BucketKey::farmID).distinct().toList();
+        long from = readingsByBucket.keySet().stream().mapToLong(BucketKey::bucketStart).min().orElseThrow();
+        long to = readingsByBucket.keySet().stream().mapToLong(BucketKey::bucketStart).max().orElseThrow();
+
+        Map<BucketKey, SensorReadingRollup> buckets = new LinkedHashMap<>();
+        rollupRepository.findForUpdate(granularity, farmIds, new Date(from), new Date(to))
+                .forEach(rollup -> buckets.put(BucketKey.of(rollup), rollup));
+
+        List<SensorReadingRollup> touched = new ArrayList<>(readingsByBucket.size());
+        readingsByBucket.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(BucketKey::bucketStart)
+                        .thenComparing(BucketKey::farmID).thenComparing(BucketKey::cropID)))
+                .forEach(entry -> {
+                    BucketKey key = entry.getKey();
+                    SensorReadingRollup rollup = buckets.computeIfAbsent(key, missing -> SensorReadingRollup.builder()
+                            .granularity(granularity)
+                            .bucketStart(new Date(missing.bucketStart()))
+                            .farmID(missing.farmID())
+                            .cropID(missing.cropID())
+                            .build());
+                    entry.getValue().forEach(rollup::add);
+                    touched.add(rollup);
+                });
+        rollupRepository.saveAll(touched);
+    }
+
+    // Hourly or daily buckets of a farm's readings, optionally for one crop, between from (inclusive) and to (exclusive).
+    // Without a range the last day of hourly or the last 30 days of daily buckets are returned.
+    public List<SensorReadingRollupView> getRollups(Integer farmId, Integer cropId, RollupGranularity granularity,
+                                                    Date from, Date to) {
+        Date end = to != null ? to : new Date();
+        Date start = from != null ? from : Date.from(end.toInstant().minus(
+                granularity == RollupGranularity.HOURLY ? DEFAULT_HOURLY_WINDOW : DEFAULT_DAILY_WINDOW));
+
+        List<SensorReadingRollup> rollups = cropId != null
+                ? rollupRepository.findByFarmAndCrop(granularity, farmId, cropId, start, end)
+                : rollupRepository.findByFarm(granularity, farmId, start, end);
+        return rollups.stream().map(SensorReadingRollupView::from).toList();
+    }
+
+    // Remove a farm's readings and buckets, before the farm itself is deleted
+    @Transactional
+    public void deleteForFarm(Integer farmId) {
+        readingRepository.deleteByFarmId(farmId);
+        rollupRepository.deleteByFarmId(farmId);
+    }
+
+    // Remove a crop's readings and buckets and return the farms whose rollups counted them
+    @Transactional
+    public List<Integer> deleteForCrop(Integer cropId) {
+        List<Integer> farmIds = rollupRepository.findFarmIdsByCropId(cropId);
+        readingRepository.deleteByCropId(cropId);
+        rollupRepository.deleteByCropId(cropId);
+        return farmIds;
+    }
+
+    private record BucketKey(long bucketStart, Integer farmID, Integer cropID) {
+        static BucketKey of(SensorReadingRollup rollup) {
+            return new BucketKey(rollup.getBucketStart().getTime(), rollup.getFarmID(), rollup.getCropID());
+        }
+    }
+}
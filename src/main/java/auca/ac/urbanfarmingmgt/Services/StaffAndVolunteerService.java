@@ -1,13 +1,18 @@
 package auca.ac.urbanfarmingmgt.Services;
 
+import auca.ac.urbanfarmingmgt.DTO.RoleCount;
+import auca.ac.urbanfarmingmgt.DTO.StaffAndVolunteerView;
 import auca.ac.urbanfarmingmgt.Repository.StaffAndVolunteerRepository;
 import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
 import auca.ac.urbanfarmingmgt.Model.StaffAndVolunteer;
 import auca.ac.urbanfarmingmgt.Model.Farm;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -21,23 +26,31 @@ public class StaffAndVolunteerService {
     @Autowired
     private FarmRepository farmRepository;
 
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
     // Save a new staff or volunteer
-    public StaffAndVolunteer saveStaffOrVolunteer(StaffAndVolunteer staffAndVolunteer) {
-        return staffAndVolunteerRepository.save(staffAndVolunteer);
+    public StaffAndVolunteerView saveStaffOrVolunteer(StaffAndVolunteer staffAndVolunteer) {
+        return StaffAndVolunteerView.from(staffAndVolunteerRepository.save(staffAndVolunteer));
+    }
+
+    // Retrieve a page of staff and volunteers
+    public Page<StaffAndVolunteerView> getAllStaffAndVolunteers(Pageable pageable) {
+        return staffAndVolunteerRepository.findAllViews(pageable);
     }
 
-    // Retrieve all staff and volunteers
-    public List<StaffAndVolunteer> getAllStaffAndVolunteers() {
-        return staffAndVolunteerRepository.findAll();
+    // Stream all staff and volunteers as NDJSON
+    public long exportStaffAndVolunteers(OutputStream out) throws IOException {
+        return ndjsonExporter.write(staffAndVolunteerRepository::streamAllViews, out);
     }
 
     // Retrieve a staff or volunteer by ID
-    public Optional<StaffAndVolunteer> getStaffOrVolunteerById(Integer id) {
-        return staffAndVolunteerRepository.findById(id);
+    public Optional<StaffAndVolunteerView> getStaffOrVolunteerById(Integer id) {
+        return staffAndVolunteerRepository.findViewById(id);
     }
 
     // Update a staff or volunteer's details
-    public Optional<StaffAndVolunteer> updateStaffOrVolunteer(Integer id, StaffAndVolunteer updatedPerson) {
+    public Optional<StaffAndVolunteerView> updateStaffOrVolunteer(Integer id, StaffAndVolunteer updatedPerson) {
         Optional<StaffAndVolunteer> existingPerson = staffAndVolunteerRepository.findById(id);
 
         if (existingPerson.isPresent()) {
@@ -54,7 +67,7 @@ public class StaffAndVolunteerService {
                 person.setAssignedFarm(updatedPerson.getAssignedFarm());
             }
 
-            return Optional.of(staffAndVolunteerRepository.save(person));
+            return Optional.of(StaffAndVolunteerView.from(staffAndVolunteerRepository.save(person)));
         }
 
         return Optional.empty();
@@ -70,104 +83,81 @@ public class StaffAndVolunteerService {
     }
 
     // Retrieve all staff (excluding volunteers)
-    public List<StaffAndVolunteer> getAllStaff() {
-        return staffAndVolunteerRepository.findAll().stream()
-                .filter(person -> person.getRole() != null && !person.getRole().toLowerCase().contains("volunteer"))
-                .collect(Collectors.toList());
+    public List<StaffAndVolunteerView> getAllStaff() {
+        return staffAndVolunteerRepository.findStaff();
     }
 
     // Retrieve all volunteers
-    public List<StaffAndVolunteer> getAllVolunteers() {
-        return staffAndVolunteerRepository.findAll().stream()
-                .filter(person -> person.getRole() != null && person.getRole().toLowerCase().contains("volunteer"))
-                .collect(Collectors.toList());
+    public List<StaffAndVolunteerView> getAllVolunteers() {
+        return staffAndVolunteerRepository.findVolunteers();
     }
 
     // Assign a staff or volunteer to a farm
-    public Optional<StaffAndVolunteer> assignToFarm(Integer personId, Integer farmId) {
+    public Optional<StaffAndVolunteerView> assignToFarm(Integer personId, Integer farmId) {
         Optional<StaffAndVolunteer> person = staffAndVolunteerRepository.findById(personId);
         Optional<Farm> farm = farmRepository.findById(farmId);
 
         if (person.isPresent() && farm.isPresent()) {
             StaffAndVolunteer staffOrVolunteer = person.get();
             staffOrVolunteer.setAssignedFarm(farm.get());
-            return Optional.of(staffAndVolunteerRepository.save(staffOrVolunteer));
+            return Optional.of(StaffAndVolunteerView.from(staffAndVolunteerRepository.save(staffOrVolunteer)));
         }
 
         return Optional.empty();
     }
 
     // Assign a task to a staff or volunteer
-    public Optional<StaffAndVolunteer> assignTask(Integer personId, String task) {
+    public Optional<StaffAndVolunteerView> assignTask(Integer personId, String task) {
         Optional<StaffAndVolunteer> person = staffAndVolunteerRepository.findById(personId);
 
         if (person.isPresent()) {
             StaffAndVolunteer staffOrVolunteer = person.get();
             staffOrVolunteer.setAssignedTask(task);
-            return Optional.of(staffAndVolunteerRepository.save(staffOrVolunteer));
+            return Optional.of(StaffAndVolunteerView.from(staffAndVolunteerRepository.save(staffOrVolunteer)));
         }
 
         return Optional.empty();
     }
 
     // Retrieve all personnel assigned to a specific farm
-    public List<StaffAndVolunteer> getPersonnelByFarm(Integer farmId) {
-        Optional<Farm> farm = farmRepository.findById(farmId);
-
-        if (farm.isPresent()) {
-            return staffAndVolunteerRepository.findAll().stream()
-                    .filter(person -> person.getAssignedFarm() != null &&
-                            person.getAssignedFarm().getFarmID().equals(farmId))
-                    .collect(Collectors.toList());
-        }
-
-        return Collections.emptyList();
+    public List<StaffAndVolunteerView> getPersonnelByFarm(Integer farmId) {
+        return staffAndVolunteerRepository.findViewsByFarmId(farmId);
     }
 
     // Calculate the total work hours for personnel assigned to a farm
     public Double calculateTotalWorkHoursForFarm(Integer farmId) {
-        List<StaffAndVolunteer> farmPersonnel = getPersonnelByFarm(farmId);
-
-        return farmPersonnel.stream()
-                .filter(person -> person.getWorkHours() != null)
-                .mapToDouble(StaffAndVolunteer::getWorkHours)
-                .sum();
+        return staffAndVolunteerRepository.sumWorkHoursByFarmId(farmId);
     }
 
     // Retrieve personnel with work hours greater than or equal to the specified minimum
-    public List<StaffAndVolunteer> findByMinimumWorkHours(Double minHours) {
-        return staffAndVolunteerRepository.findAll().stream()
-                .filter(person -> person.getWorkHours() != null && person.getWorkHours() >= minHours)
-                .collect(Collectors.toList());
+    public List<StaffAndVolunteerView> findByMinimumWorkHours(Double minHours) {
+        return staffAndVolunteerRepository.findByMinimumWorkHours(minHours);
+    }
+
+    // Retrieve personnel whose work hours fall within the given range (inclusive)
+    public List<StaffAndVolunteerView> findByWorkHoursRange(Double minHours, Double maxHours) {
+        return staffAndVolunteerRepository.findByWorkHoursBetween(minHours, maxHours);
     }
 
     // Retrieve personnel with multiple tasks assigned
-    public List<StaffAndVolunteer> findWithMultipleTasks() {
-        return staffAndVolunteerRepository.findAll().stream()
-                .filter(person -> person.getAssignedTask() != null &&
-                        (person.getAssignedTask().contains(",") ||
-                                person.getAssignedTask().contains(";")))
-                .collect(Collectors.toList());
+    public List<StaffAndVolunteerView> findWithMultipleTasks() {
+        return staffAndVolunteerRepository.findWithMultipleTasks();
     }
 
     // Get the distribution of personnel by role
     public java.util.Map<String, Long> getPersonnelDistributionByRole() {
-        return staffAndVolunteerRepository.findAll().stream()
-                .filter(person -> person.getRole() != null)
-                .collect(Collectors.groupingBy(
-                        StaffAndVolunteer::getRole,
-                        Collectors.counting()
-                ));
+        return staffAndVolunteerRepository.countByRole().stream()
+                .collect(Collectors.toMap(RoleCount::role, RoleCount::count));
     }
 
     // Update the work hours for a specific staff or volunteer
-    public Optional<StaffAndVolunteer> updateWorkHours(Integer personId, Double newHours) {
+    public Optional<StaffAndVolunteerView> updateWorkHours(Integer personId, Double newHours) {
         Optional<StaffAndVolunteer> person = staffAndVolunteerRepository.findById(personId);
 
         if (person.isPresent()) {
             StaffAndVolunteer staffOrVolunteer = person.get();
             staffOrVolunteer.setWorkHours(newHours);
-            return Optional.of(staffAndVolunteerRepository.save(staffOrVolunteer));
+            return Optional.of(StaffAndVolunteerView.from(staffAndVolunteerRepository.save(staffOrVolunteer)));
         }
 
         return Optional.empty();
@@ -0,0 +1,121 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import auca.ac.urbanfarmingmgt.DTO.FarmMetricTotals;
+import auca.ac.urbanfarmingmgt.DTO.FarmScore;
+import auca.ac.urbanfarmingmgt.Model.FarmSustainabilityRollup;
+import auca.ac.urbanfarmingmgt.Model.SensorReading;
+import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
+import auca.ac.urbanfarmingmgt.Repository.FarmSustainabilityRollupRepository;
+import auca.ac.urbanfarmingmgt.Repository.SensorReadingRollupRepository;
+import auca.ac.urbanfarmingmgt.Repository.SustainabilityMetricRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Keeps the per-farm sustainability rollups in step with metric and sensor reading writes and serves the leaderboard from them
+@Service
+public class SustainabilityLeaderboardService {
+
+    static final int MAX_LEADERBOARD_SIZE = 100;
+
+    @Autowired
+    private FarmSustainabilityRollupRepository rollupRepository;
+
+    @Autowired
+    private SustainabilityMetricRepository metricRepository;
+
+    @Autowired
+    private SensorReadingRollupRepository readingRollupRepository;
+
+    // Top farms by sustainability score, highest first
+    public List<FarmScore> getLeaderboard(int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LEADERBOARD_SIZE));
+        return rollupRepository.findTopScores(PageRequest.of(0, size));
+    }
+
+    // Add a newly written metric's readings to its farm's rollup
+    @Transactional
+    public void metricAdded(SustainabilityMetric metric) {
+        applyToRollup(metric, 1);
+    }
+
+    // Take a metric's readings out of its farm's rollup; call before the metric is changed or deleted
+    @Transactional
+    public void metricRemoved(SustainabilityMetric metric) {
+        applyToRollup(metric, -1);
+    }
+
+    // Add a batch of newly appended sensor readings to their farms' rollups, one locked row per farm
+    @Transactional
+    public void readingsAdded(Collection<SensorReading> readings) {
+        Map<Integer, List<SensorReading>> readingsByFarm = readings.stream()
+                .collect(Collectors.groupingBy(reading -> reading.getFarm().getFarmID()));
+
+        readingsByFarm.keySet().stream().sorted().forEach(farmId -> {
+            FarmSustainabilityRollup rollup = lockRollup(farmId);
+            readingsByFarm.get(farmId).forEach(rollup::apply);
+            rollupRepository.save(rollup);
+        });
+    }
+
+    private void applyToRollup(SustainabilityMetric metric, int sign) {
+        if (metric.getFarm() == null || metric.getFarm().getFarmID() == null) {
+            return;
+        }
+        Integer farmId = metric.getFarm().getFarmID();
+
+        FarmSustainabilityRollup rollup = lockRollup(farmId);
+        rollup.apply(metric, sign);
+
+        if (rollup.getMetricCount() > 0) {
+            rollupRepository.save(rollup);
+        } else {
+            rollupRepository.delete(rollup);
+        }
+    }
+
+    // The farm's rollup row, created empty if it is missing and locked until the transaction ends
+    private FarmSustainabilityRollup lockRollup(Integer farmId) {
+        rollupRepository.insertIfAbsent(farmId);
+        return rollupRepository.findForUpdate(farmId)
+                .orElseThrow(() -> new IllegalStateException("Rollup of farm " + farmId + " is missing after its insert"));
+    }
+
+    // Rebuild the rollups of the given farms from their metrics and daily reading buckets, e.g. after a cascade delete
+    @Transactional
+    public void rebuild(Collection<Integer> farmIds) {
+        if (farmIds.isEmpty()) {
+            return;
+        }
+        rollupRepository.deleteByFarmIds(farmIds);
+        combine(metricRepository.getTotalsByFarmIds(farmIds), readingRollupRepository.getTotalsByFarmIds(farmIds))
+                .forEach(rollupRepository::save);
+    }
+
+    // Rebuild every farm's rollup from the SustainabilityMetrics table and the daily reading buckets
+    @Transactional
+    public int rebuildAll() {
+        rollupRepository.deleteAllRollups();
+        List<FarmSustainabilityRollup> rollups = combine(metricRepository.getTotalsForAllFarms(),
+                readingRollupRepository.getTotalsForAllFarms());
+        rollupRepository.saveAll(rollups);
+        return rollups.size();
+    }
+
+    private static List<FarmSustainabilityRollup> combine(List<FarmMetricTotals> metricTotals,
+                                                          List<FarmMetricTotals> readingTotals) {
+        Map<Integer, FarmMetricTotals> totalsByFarm = new LinkedHashMap<>();
+        metricTotals.forEach(totals -> totalsByFarm.put(totals.farmID(), totals));
+        readingTotals.forEach(totals -> totalsByFarm.merge(totals.farmID(), totals, FarmMetricTotals::plus));
+        return totalsByFarm.values().stream()
+                .map(FarmSustainabilityRollup::from)
+                .toList();
+    }
+}
@@ -0,0 +1,28 @@
+package auca.ac.urbanfarmingmgt.Services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Repair job that rebuilds the farm sustainability rollups from the metrics and readings at startup. The V3
+// migration fills the rollups in, so this is only for putting them right after a bad write or a manual edit.
+// Enable with urbanfarming.sustainability-rollup-backfill.enabled=true.
+@Component
+@ConditionalOnProperty(name = "urbanfarming.sustainability-rollup-backfill.enabled", havingValue = "true")
+public class SustainabilityRollupBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SustainabilityRollupBackfillRunner.class);
+
+    @Autowired
+    private SustainabilityLeaderboardService leaderboardService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int rebuilt = leaderboardService.rebuildAll();
+        log.info("Rebuilt sustainability rollups for {} farms", rebuilt);
+    }
+}
@@ -1,12 +1,26 @@
 package auca.ac.urbanfarmingmgt.Services;
 
+import auca.ac.urbanfarmingmgt.DTO.FarmMetricAverages;
+import auca.ac.urbanfarmingmgt.DTO.FarmScore;
+import auca.ac.urbanfarmingmgt.DTO.SustainabilityMetricView;
+import auca.ac.urbanfarmingmgt.Model.FarmSustainabilityRollup;
+import auca.ac.urbanfarmingmgt.Repository.FarmSustainabilityRollupRepository;
 import auca.ac.urbanfarmingmgt.Repository.SustainabilityMetricRepository;
 import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,34 +29,61 @@ public class SustainabilityService {
     @Autowired
     private SustainabilityMetricRepository sustainabilityMetricRepository;
 
+    @Autowired
+    private FarmSustainabilityRollupRepository rollupRepository;
+
+    @Autowired
+    private SustainabilityLeaderboardService leaderboardService;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
 
     // Saves a new sustainability metric to the database.
-    public SustainabilityMetric saveSustainabilityMetric(SustainabilityMetric sustainabilityMetric) {
-        return sustainabilityMetricRepository.save(sustainabilityMetric);
+    @Transactional
+    public SustainabilityMetricView saveSustainabilityMetric(SustainabilityMetric sustainabilityMetric) {
+        // Saving over an existing metric replaces its readings in the farm rollup
+        if (sustainabilityMetric.getMetricID() != null) {
+            sustainabilityMetricRepository.findById(sustainabilityMetric.getMetricID())
+                    .ifPresent(leaderboardService::metricRemoved);
+        }
+        SustainabilityMetric saved = sustainabilityMetricRepository.save(sustainabilityMetric);
+        leaderboardService.metricAdded(saved);
+        return SustainabilityMetricView.from(saved);
     }
 
-    // Retrieves all sustainability metrics from the database.
-    public List<SustainabilityMetric> getAllSustainabilityMetrics() {
-        return sustainabilityMetricRepository.findAll();
+    // Retrieves a page of sustainability metrics from the database.
+    public Page<SustainabilityMetricView> getAllSustainabilityMetrics(Pageable pageable) {
+        return sustainabilityMetricRepository.findAllViews(pageable);
+    }
+
+    // Streams all sustainability metrics to the output as NDJSON.
+    public long exportSustainabilityMetrics(OutputStream out) throws IOException {
+        return ndjsonExporter.write(sustainabilityMetricRepository::streamAllViews, out);
     }
 
     // Retrieves a sustainability metric by its ID.
-    public Optional<SustainabilityMetric> getSustainabilityMetricById(Integer id) {
-        return sustainabilityMetricRepository.findById(id);
+    public Optional<SustainabilityMetricView> getSustainabilityMetricById(Integer id) {
+        return sustainabilityMetricRepository.findViewById(id);
     }
 
     // Updates an existing sustainability metric with new data.
-    public Optional<SustainabilityMetric> updateSustainabilityMetric(Integer id, SustainabilityMetric updatedMetric) {
+    @Transactional
+    public Optional<SustainabilityMetricView> updateSustainabilityMetric(Integer id, SustainabilityMetric updatedMetric) {
         Optional<SustainabilityMetric> existingMetric = sustainabilityMetricRepository.findById(id);
 
         if (existingMetric.isPresent()) {
             SustainabilityMetric metric = existingMetric.get();
+            leaderboardService.metricRemoved(metric);
 
             // Update fields with new values
             metric.setWaterUsage(updatedMetric.getWaterUsage());
             metric.setSoilHealth(updatedMetric.getSoilHealth());
             metric.setPesticideApplication(updatedMetric.getPesticideApplication());
             metric.setEnergyUsage(updatedMetric.getEnergyUsage());
+            if (updatedMetric.getRecordedAt() != null) {
+                metric.setRecordedAt(updatedMetric.getRecordedAt());
+            }
 
             // Update farm and crop references if provided
             if (updatedMetric.getFarm() != null) {
@@ -53,164 +94,127 @@ public class SustainabilityService {
                 metric.setCrop(updatedMetric.getCrop());
             }
 
-            return Optional.of(sustainabilityMetricRepository.save(metric));
+            SustainabilityMetric saved = sustainabilityMetricRepository.save(metric);
+            leaderboardService.metricAdded(saved);
+            return Optional.of(SustainabilityMetricView.from(saved));
         }
 
         return Optional.empty();
     }
 
     // Deletes a sustainability metric by its ID.
+    @Transactional
     public boolean deleteSustainabilityMetric(Integer id) {
-        if (sustainabilityMetricRepository.existsById(id)) {
-            sustainabilityMetricRepository.deleteById(id);
+        Optional<SustainabilityMetric> metric = sustainabilityMetricRepository.findById(id);
+        if (metric.isPresent()) {
+            leaderboardService.metricRemoved(metric.get());
+            sustainabilityMetricRepository.delete(metric.get());
             return true;
         }
         return false;
     }
 
     // Retrieves sustainability metrics for a specific crop.
-    public List<SustainabilityMetric> trackPerCrop(Integer cropId) {
-        return sustainabilityMetricRepository.findByCropId(cropId);
+    public List<SustainabilityMetricView> trackPerCrop(Integer cropId) {
+        return sustainabilityMetricRepository.findViewsByCropId(cropId);
     }
 
     // Retrieves sustainability metrics for a specific farm.
-    public List<SustainabilityMetric> monitorPerFarm(Integer farmId) {
-        return sustainabilityMetricRepository.findByFarmId(farmId);
+    public List<SustainabilityMetricView> monitorPerFarm(Integer farmId) {
+        return sustainabilityMetricRepository.findViewsByFarmId(farmId);
     }
 
     // Retrieves sustainability metrics with a specific water usage value.
-    public List<SustainabilityMetric> getMetricsByWaterUsage(Double waterUsage) {
+    public List<SustainabilityMetricView> getMetricsByWaterUsage(Double waterUsage) {
         return sustainabilityMetricRepository.findByWaterUsage(waterUsage);
     }
 
     // Retrieves sustainability metrics with water usage below a specified threshold.
-    public List<SustainabilityMetric> getMetricsByWaterUsageBelowThreshold(Double threshold) {
+    public List<SustainabilityMetricView> getMetricsByWaterUsageBelowThreshold(Double threshold) {
         return sustainabilityMetricRepository.findByWaterUsageBelowThreshold(threshold);
     }
 
     // Retrieves sustainability metrics with soil health above a specified threshold.
-    public List<SustainabilityMetric> getMetricsBySoilHealthAboveThreshold(Double threshold) {
+    public List<SustainabilityMetricView> getMetricsBySoilHealthAboveThreshold(Double threshold) {
         return sustainabilityMetricRepository.findBySoilHealthAboveThreshold(threshold);
     }
 
     // Retrieves sustainability metrics with pesticide application below a specified threshold.
-    public List<SustainabilityMetric> getMetricsByPesticideApplicationBelowThreshold(Double threshold) {
+    public List<SustainabilityMetricView> getMetricsByPesticideApplicationBelowThreshold(Double threshold) {
         return sustainabilityMetricRepository.findByPesticideApplicationBelowThreshold(threshold);
     }
 
     // Retrieves sustainability metrics with energy usage below a specified threshold.
-    public List<SustainabilityMetric> getMetricsByEnergyUsageBelowThreshold(Double threshold) {
+    public List<SustainabilityMetricView> getMetricsByEnergyUsageBelowThreshold(Double threshold) {
         return sustainabilityMetricRepository.findByEnergyUsageBelowThreshold(threshold);
     }
 
+    // Retrieves the metric count and all four metric averages for a farm from its rollup row.
+    public Optional<FarmMetricAverages> getFarmMetricAverages(Integer farmId) {
+        return rollupRepository.findById(farmId).map(FarmSustainabilityRollup::toAverages);
+    }
+
     // Calculates the average water usage for a specific farm.
     public Double calculateAverageWaterUsageForFarm(Integer farmId) {
-        List<SustainabilityMetric> farmMetrics = monitorPerFarm(farmId);
-
-        if (farmMetrics.isEmpty()) {
-            return null;
-        }
-
-        return farmMetrics.stream()
-                .filter(metric -> metric.getWaterUsage() != null)
-                .mapToDouble(SustainabilityMetric::getWaterUsage)
-                .average()
-                .orElse(0.0);
+        return getFarmMetricAverages(farmId)
+                .map(averages -> orZero(averages.averageWaterUsage()))
+                .orElse(null);
     }
 
     // Calculates the average soil health for a specific farm.
     public Double calculateAverageSoilHealthForFarm(Integer farmId) {
-        List<SustainabilityMetric> farmMetrics = monitorPerFarm(farmId);
-
-        if (farmMetrics.isEmpty()) {
-            return null;
-        }
-
-        return farmMetrics.stream()
-                .filter(metric -> metric.getSoilHealth() != null)
-                .mapToDouble(SustainabilityMetric::getSoilHealth)
-                .average()
-                .orElse(0.0);
+        return getFarmMetricAverages(farmId)
+                .map(averages -> orZero(averages.averageSoilHealth()))
+                .orElse(null);
     }
 
-    // Calculates a sustainability score for a farm based on its metrics.
+    // Calculates a sustainability score for a farm based on its metrics and sensor readings.
     public Double calculateFarmSustainabilityScore(Integer farmId) {
-        List<SustainabilityMetric> farmMetrics = monitorPerFarm(farmId);
-
-        if (farmMetrics.isEmpty()) {
-            return null;
-        }
-
-        // Calculate averages for each metric
-        double avgWaterUsage = farmMetrics.stream()
-                .filter(metric -> metric.getWaterUsage() != null)
-                .mapToDouble(SustainabilityMetric::getWaterUsage)
-                .average()
-                .orElse(0.0);
-
-        double avgSoilHealth = farmMetrics.stream()
-                .filter(metric -> metric.getSoilHealth() != null)
-                .mapToDouble(SustainabilityMetric::getSoilHealth)
-                .average()
-                .orElse(0.0);
+        return rollupRepository.findById(farmId)
+                .map(FarmSustainabilityRollup::getSustainabilityScore)
+                .orElse(null);
+    }
 
-        double avgPesticideApp = farmMetrics.stream()
-                .filter(metric -> metric.getPesticideApplication() != null)
-                .mapToDouble(SustainabilityMetric::getPesticideApplication)
-                .average()
-                .orElse(0.0);
+    // Calculates sustainability scores for many farms (all farms with metrics when none are given), keyed by farm ID.
+    public Map<Integer, Double> calculateFarmSustainabilityScores(List<Integer> farmIds) {
+        List<FarmSustainabilityRollup> rollups = farmIds == null || farmIds.isEmpty()
+                ? rollupRepository.findAll(Sort.by("farmID"))
+                : rollupRepository.findAllById(farmIds);
 
-        double avgEnergyUsage = farmMetrics.stream()
-                .filter(metric -> metric.getEnergyUsage() != null)
-                .mapToDouble(SustainabilityMetric::getEnergyUsage)
-                .average()
-                .orElse(0.0);
+        Map<Integer, Double> scores = new LinkedHashMap<>();
+        rollups.stream()
+                .sorted(Comparator.comparing(FarmSustainabilityRollup::getFarmID))
+                .forEach(rollup -> scores.put(rollup.getFarmID(), rollup.getSustainabilityScore()));
+        return scores;
+    }
 
-        // Calculate individual scores for each metric
-        double waterScore = 100 - (avgWaterUsage * 10); // Lower water usage is better
-        double soilScore = avgSoilHealth * 10; // Higher soil health is better
-        double pesticideScore = 100 - (avgPesticideApp * 20); // Lower pesticide usage is better
-        double energyScore = 100 - (avgEnergyUsage * 5); // Lower energy usage is better
+    // An average over no non-null readings counts as zero.
+    private static double orZero(Double average) {
+        return average != null ? average : 0.0;
+    }
 
-        // Calculate the overall sustainability score
-        double overallScore = (waterScore + soilScore + pesticideScore + energyScore) / 4.0;
+    // Ranks farms by sustainability score from the precomputed rollups, highest first.
+    public List<FarmScore> getLeaderboard(int limit) {
+        return leaderboardService.getLeaderboard(limit);
+    }
 
-        // Ensure the score is within the range of 0 to 100
-        return Math.max(0, Math.min(100, overallScore));
+    // Rebuilds every farm's leaderboard rollup from its metrics.
+    public int rebuildLeaderboard() {
+        return leaderboardService.rebuildAll();
     }
 
     // Generates sustainability recommendations for a farm based on its metrics.
     public List<String> getSustainabilityRecommendations(Integer farmId) {
-        List<SustainabilityMetric> farmMetrics = monitorPerFarm(farmId);
+        Optional<FarmMetricAverages> farmAverages = getFarmMetricAverages(farmId);
 
-        if (farmMetrics.isEmpty()) {
+        if (farmAverages.isEmpty()) {
             return List.of("No sustainability metrics available for this farm.");
         }
 
-        // Calculate averages for each metric
-        double avgWaterUsage = farmMetrics.stream()
-                .filter(metric -> metric.getWaterUsage() != null)
-                .mapToDouble(SustainabilityMetric::getWaterUsage)
-                .average()
-                .orElse(0.0);
-
-        double avgSoilHealth = farmMetrics.stream()
-                .filter(metric -> metric.getSoilHealth() != null)
-                .mapToDouble(SustainabilityMetric::getSoilHealth)
-                .average()
-                .orElse(0.0);
-
-        double avgPesticideApp = farmMetrics.stream()
-                .filter(metric -> metric.getPesticideApplication() != null)
-                .mapToDouble(SustainabilityMetric::getPesticideApplication)
-                .average()
-                .orElse(0.0);
-
-        double avgEnergyUsage = farmMetrics.stream()
-                .filter(metric -> metric.getEnergyUsage() != null)
-                .mapToDouble(SustainabilityMetric::getEnergyUsage)
-                .average()
-                .orElse(0.0);
+        double avgWaterUsage = orZero(farmAverages.get().averageWaterUsage());
+        double avgSoilHealth = orZero(farmAverages.get().averageSoilHealth());
+        double avgPesticideApp = orZero(farmAverages.get().averagePesticideApplication());
+        double avgEnergyUsage = orZero(farmAverages.get().averageEnergyUsage());
 
         // Generate recommendations based on metric thresholds
         List<String> recommendations = new ArrayList<>();
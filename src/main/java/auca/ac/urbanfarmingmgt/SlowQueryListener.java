@@ -0,0 +1,56 @@
+package auca.ac.urbanfarmingmgt;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Runs after every JDBC execution: counts it against the current HTTP request (QueryBudgetFilter) and logs it
+// with its bind parameters and route when it took longer than the threshold. With a sample rate below 1 only
+// that fraction of the slow executions is logged, to bound log volume when the database as a whole is slow.
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+
+    public SlowQueryListener(long thresholdMillis, double sampleRate) {
+        this.thresholdMillis = thresholdMillis;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    // Count the execution and log it if it was slow
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryBudgetFilter.countStatement();
+        if (execInfo.getElapsedTime() < thresholdMillis || !log.isWarnEnabled()
+                || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        for (QueryInfo query : queryInfoList) {
+            log.warn("Slow query ({} ms{}) on {}: {} {}", execInfo.getElapsedTime(), execInfo.isBatch() ? ", batch" : "",
+                    QueryBudgetFilter.currentRoute(), query.getQuery(), parameters(query));
+        }
+    }
+
+    // Bind parameters of each execution of the statement, e.g. (3, 'Tomato'), (4, 'Kale')
+    private static String parameters(QueryInfo query) {
+        return query.getParametersList().stream()
+                .map(execution -> execution.stream()
+                        .map(ParameterSetOperation::getArgs)
+                        .map(args -> args.length > 1 ? String.valueOf(args[1]) : "?")
+                        .collect(Collectors.joining(", ", "(", ")")))
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,136 @@
+-- Schema as it stood before the migrations existed, when Hibernate kept it up to date with ddl-auto=update.
+-- Databases already created that way are baselined at this version (spring.flyway.baseline-on-migrate) and continue
+-- from V2; new databases run it. Foreign key names are the ones Hibernate generated, so both kinds of database end up
+-- with the same constraints. Every table added or changed since then has its own migration.
+
+create table clients (
+    clientid integer not null auto_increment,
+    orderid integer not null,
+    contact_info varchar(255),
+    name varchar(255),
+    order_preferences varchar(255),
+    payment_history varchar(255),
+    primary key (clientid)
+) engine=InnoDB;
+
+create table crops (
+    average_yield float(53),
+    cropid integer not null auto_increment,
+    farmid integer not null,
+    growing_conditions bit not null,
+    inventoryid integer not null,
+    planting_schedule datetime(6),
+    crop_type varchar(255),
+    growing_season varchar(255),
+    location_requirement varchar(255),
+    primary key (cropid)
+) engine=InnoDB;
+
+create table farms (
+    farmid integer not null auto_increment,
+    total_planting_area float(53),
+    location varchar(255),
+    name varchar(255),
+    primary key (farmid)
+) engine=InnoDB;
+
+create table harvests (
+    cropid integer not null,
+    farmid integer not null,
+    harvestid integer not null auto_increment,
+    inventoryid integer not null,
+    quality_rating integer,
+    yield float(53),
+    date datetime(6),
+    primary key (harvestid)
+) engine=InnoDB;
+
+create table inventory (
+    freshness_status bit not null,
+    inventoryid integer not null auto_increment,
+    quantity float(53),
+    stock integer,
+    produce_type varchar(255),
+    storage_location varchar(255),
+    primary key (inventoryid)
+) engine=InnoDB;
+
+create table orders (
+    inventoryid integer not null,
+    orderid integer not null auto_increment,
+    quantity_ordered float(53),
+    order_date datetime(6),
+    delivery_status varchar(255),
+    primary key (orderid)
+) engine=InnoDB;
+
+create table staff_and_volunteers (
+    assigned_farm integer,
+    personid integer not null auto_increment,
+    work_hours float(53),
+    assigned_task varchar(255),
+    name varchar(255),
+    role varchar(255),
+    primary key (personid)
+) engine=InnoDB;
+
+create table sustainability_metrics (
+    cropid integer not null,
+    energy_usage float(53),
+    farmid integer not null,
+    metricid integer not null auto_increment,
+    pesticide_application float(53),
+    soil_health float(53),
+    water_usage float(53),
+    primary key (metricid)
+) engine=InnoDB;
+
+alter table clients
+   add constraint FKf4we8vm472tb6hl3qhiwsfbqn
+   foreign key (orderid)
+   references orders (orderid);
+
+alter table crops
+   add constraint FKcvw6fp7py691qim1ufgkuyp10
+   foreign key (farmid)
+   references farms (farmid);
+
+alter table crops
+   add constraint FKqae6cciqsnekx98q4i00cvd9w
+   foreign key (inventoryid)
+   references inventory (inventoryid);
+
+alter table harvests
+   add constraint FKasjq12x71ww9ycymbwoo2d974
+   foreign key (cropid)
+   references crops (cropid);
+
+alter table harvests
+   add constraint FKqx7a5kmdqdj581l9pvlf8x8iq
+   foreign key (farmid)
+   references farms (farmid);
+
+alter table harvests
+   add constraint FKgop65ih9hcx631tkmxjjh75xj
+   foreign key (inventoryid)
+   references inventory (inventoryid);
+
+alter table orders
+   add constraint FKfaobyr1ehu7nvnydpjkgb1o50
+   foreign key (inventoryid)
+   references inventory (inventoryid);
+
+alter table staff_and_volunteers
+   add constraint FKp2c7mce005jdmbrrl8d95xoxl
+   foreign key (assigned_farm)
+   references farms (farmid);
+
+alter table sustainability_metrics
+   add constraint FKqt2w06xqyy8ynr97oebmhl06m
+   foreign key (cropid)
+   references crops (cropid);
+
+alter table sustainability_metrics
+   add constraint FKryi5rrbu3v59s4dru0dgnvbf4
+   foreign key (farmid)
+   references farms (farmid);
@@ -0,0 +1,8 @@
+-- Running harvest totals on each crop, from which average_yield is kept up to date incrementally.
+-- Filled in here for existing harvests the same way CropRepository.recomputeHarvestYieldTotals does.
+alter table crops add column total_harvest_yield float(53);
+alter table crops add column harvest_count bigint;
+
+update crops
+set total_harvest_yield = (select coalesce(sum(h.yield), 0) from harvests h where h.cropid = crops.cropid),
+    harvest_count = (select count(h.yield) from harvests h where h.cropid = crops.cropid);
@@ -0,0 +1,45 @@
+-- Per-farm metric sums and counts behind the sustainability leaderboard.
+-- Filled in here for existing metrics the same way SustainabilityLeaderboardService.rebuildAll does.
+create table farm_sustainability_rollups (
+    energy_usage_sum float(53),
+    farmid integer not null,
+    pesticide_application_sum float(53),
+    soil_health_sum float(53),
+    sustainability_score float(53),
+    water_usage_sum float(53),
+    energy_usage_count bigint,
+    metric_count bigint,
+    pesticide_application_count bigint,
+    soil_health_count bigint,
+    water_usage_count bigint,
+    primary key (farmid)
+) engine=InnoDB;
+
+-- Leaderboard, best score first
+create index idx_rollup_score
+   on farm_sustainability_rollups (sustainability_score);
+
+insert into farm_sustainability_rollups (farmid, metric_count,
+        water_usage_sum, water_usage_count, soil_health_sum, soil_health_count,
+        pesticide_application_sum, pesticide_application_count, energy_usage_sum, energy_usage_count,
+        sustainability_score)
+select farmid, metric_count,
+       water_usage_sum, water_usage_count, soil_health_sum, soil_health_count,
+       pesticide_application_sum, pesticide_application_count, energy_usage_sum, energy_usage_count,
+       -- FarmMetricAverages.sustainabilityScore, a missing average counting as zero
+       greatest(0, least(100, ((100 - coalesce(water_usage_sum / nullif(water_usage_count, 0), 0) * 10)
+               + coalesce(soil_health_sum / nullif(soil_health_count, 0), 0) * 10
+               + (100 - coalesce(pesticide_application_sum / nullif(pesticide_application_count, 0), 0) * 20)
+               + (100 - coalesce(energy_usage_sum / nullif(energy_usage_count, 0), 0) * 5)) / 4.0))
+from (select farmid,
+             count(*) as metric_count,
+             coalesce(sum(water_usage), 0) as water_usage_sum,
+             count(water_usage) as water_usage_count,
+             coalesce(sum(soil_health), 0) as soil_health_sum,
+             count(soil_health) as soil_health_count,
+             coalesce(sum(pesticide_application), 0) as pesticide_application_sum,
+             count(pesticide_application) as pesticide_application_count,
+             coalesce(sum(energy_usage), 0) as energy_usage_sum,
+             count(energy_usage) as energy_usage_count
+      from sustainability_metrics
+      group by farmid) totals;
@@ -0,0 +1,2 @@
+-- Version column for optimistic locking of inventory rows; the conditional quantity updates bump it as well
+alter table inventory add column version BIGINT DEFAULT 0 not null;
@@ -0,0 +1,7 @@
+-- Pooled-lo ID blocks, one row per entity table. The rows are created and moved above each table's highest ID on
+-- startup by IdGeneratorAligner. The ID columns keep AUTO_INCREMENT from V1, but Hibernate now supplies every ID.
+create table id_generators (
+    next_val bigint,
+    generator_name varchar(255) not null,
+    primary key (generator_name)
+) engine=InnoDB;
@@ -0,0 +1,59 @@
+-- Timestamped sensor readings and their hourly and daily rollup buckets
+create table sensor_readings (
+    cropid integer not null,
+    energy_usage float(53),
+    farmid integer not null,
+    pesticide_application float(53),
+    soil_health float(53),
+    water_usage float(53),
+    readingid bigint not null,
+    recorded_at datetime(6) not null,
+    primary key (readingid)
+) engine=InnoDB;
+
+create table sensor_reading_rollups (
+    cropid integer not null,
+    energy_usage_max float(53),
+    energy_usage_min float(53),
+    energy_usage_sum float(53),
+    farmid integer not null,
+    pesticide_application_max float(53),
+    pesticide_application_min float(53),
+    pesticide_application_sum float(53),
+    soil_health_max float(53),
+    soil_health_min float(53),
+    soil_health_sum float(53),
+    water_usage_max float(53),
+    water_usage_min float(53),
+    water_usage_sum float(53),
+    bucket_start datetime(6) not null,
+    energy_usage_count bigint,
+    pesticide_application_count bigint,
+    reading_count bigint,
+    rollupid bigint not null,
+    soil_health_count bigint,
+    water_usage_count bigint,
+    granularity enum ('DAILY','HOURLY') not null,
+    primary key (rollupid)
+) engine=InnoDB;
+
+-- One bucket per granularity, farm, crop and start time
+alter table sensor_reading_rollups
+   add constraint uk_rollup_bucket unique (granularity, farmid, cropid, bucket_start);
+
+-- Readings of a farm or crop over a time range
+create index idx_reading_farm_time
+   on sensor_readings (farmid, recorded_at);
+
+create index idx_reading_crop_time
+   on sensor_readings (cropid, recorded_at);
+
+alter table sensor_readings
+   add constraint FKq2eg0n4vv9957oykx9d80vhp6
+   foreign key (cropid)
+   references crops (cropid);
+
+alter table sensor_readings
+   add constraint FKbgoyne8i3yw7ktw6fiv8ll8k4
+   foreign key (farmid)
+   references farms (farmid);
@@ -0,0 +1,7 @@
+-- When each metric was taken. Metrics written before the column existed get the migration time, so among them the
+-- metric ID still decides which is latest.
+alter table sustainability_metrics add column recorded_at datetime(6) default current_timestamp(6) not null;
+
+-- Latest metric of a crop by time, read from the end of the index; the ID breaks ties between equal times
+create index idx_metric_crop_latest
+   on sustainability_metrics (cropid, recorded_at, metricid);
@@ -0,0 +1,42 @@
+-- Secondary indexes for the repository finders. Each index is also declared on its entity's @Table, and
+-- QueryPlanTests fails when one of the finders it lists stops using an index.
+-- Indexes that lead with a foreign key column also serve that constraint, so MySQL drops the index it created
+-- for the foreign key on its own.
+
+-- HarvestRepository: date range, most recent first and the keyset page after (date, harvestID)
+create index idx_harvest_date on harvests (date, harvestid);
+-- HarvestRepository.findByQualityRating
+create index idx_harvest_quality on harvests (quality_rating);
+-- HarvestRepository.findByYieldAboveThreshold
+create index idx_harvest_yield on harvests (yield);
+-- Harvests of a farm or crop; yield and quality_rating make the per-farm and per-crop sums and stats index-only
+create index idx_harvest_farm_yield on harvests (farmid, yield, quality_rating);
+create index idx_harvest_crop_yield on harvests (cropid, yield, quality_rating);
+
+-- CropRepository.findByCropType, and FarmRepository.findByCropType reading farmid from the index alone
+create index idx_crop_type on crops (crop_type, farmid);
+-- CropRepository.findByGrowingSeason
+create index idx_crop_season on crops (growing_season);
+-- CropRepository.findByLocationRequirement
+create index idx_crop_location on crops (location_requirement);
+-- CropRepository.findByAverageYieldGreaterThan
+create index idx_crop_average_yield on crops (average_yield);
+
+-- OrderRepository.findByDeliveryStatus, in order ID order
+create index idx_order_status on orders (delivery_status, orderid);
+
+-- InventoryRepository.findByProduceType
+create index idx_inventory_produce_type on inventory (produce_type);
+
+-- ClientRepository.findByContactInfo
+create index idx_client_contact on clients (contact_info);
+
+-- StaffAndVolunteerRepository: people of a farm and the farm's summed work hours
+create index idx_staff_farm_hours on staff_and_volunteers (assigned_farm, work_hours);
+-- StaffAndVolunteerRepository: minimum and between work hours
+create index idx_staff_work_hours on staff_and_volunteers (work_hours);
+-- StaffAndVolunteerRepository.countByRole groups on the index instead of sorting the table
+create index idx_staff_role on staff_and_volunteers (role);
+
+-- Rollup buckets of a crop, read and deleted when the crop goes
+create index idx_reading_rollup_crop on sensor_reading_rollups (cropid, farmid);
@@ -0,0 +1,12 @@
+-- Delivery status becomes a one-byte enum column. Free-text values written before it are folded onto the enum:
+-- the five known labels in any case, no status as PENDING, and anything else as PROCESSING so it stays open
+-- without being handed to the dispatch queue.
+update orders set delivery_status = upper(delivery_status)
+where upper(delivery_status) in ('PENDING', 'PROCESSING', 'PLACED', 'DELIVERED', 'CANCELLED');
+
+update orders set delivery_status = 'PENDING' where delivery_status is null;
+
+update orders set delivery_status = 'PROCESSING'
+where delivery_status not in ('PENDING', 'PROCESSING', 'PLACED', 'DELIVERED', 'CANCELLED');
+
+alter table orders modify delivery_status enum ('PENDING','PROCESSING','PLACED','DELIVERED','CANCELLED') not null;
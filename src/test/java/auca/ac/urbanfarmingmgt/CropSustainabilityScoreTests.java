@@ -0,0 +1,103 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.SustainabilityMetricRepository;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Scores crops through /api/crops/.../sustainability-score and checks the latest metric by recorded time is used
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CropSustainabilityScoreTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private SustainabilityMetricRepository metricRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Farm farm;
+    private Inventory inventory;
+    private Crop scored;
+    private Crop unscored;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Score farm").location("Rwamagana").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(0.0).stock(0).produceType("Tomatoes").storageLocation("Score store").build());
+        scored = cropRepository.save(Crop.builder().cropType("Scored").farm(farm).inventory(inventory).build());
+        unscored = cropRepository.save(Crop.builder().cropType("Unscored").farm(farm).inventory(inventory).build());
+
+        metricRepository.save(SustainabilityMetric.builder()
+                .waterUsage(10.0).soilHealth(0.0).pesticideApplication(5.0).energyUsage(20.0)
+                .farm(farm).crop(scored).build());
+        metricRepository.save(SustainabilityMetric.builder()
+                .waterUsage(0.0).soilHealth(10.0).pesticideApplication(0.0).energyUsage(0.0)
+                .farm(farm).crop(scored).build());
+        // Saved last but taken a day earlier, so it is not the latest
+        metricRepository.save(SustainabilityMetric.builder()
+                .waterUsage(10.0).soilHealth(0.0).pesticideApplication(5.0).energyUsage(20.0)
+                .recordedAt(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)))
+                .farm(farm).crop(scored).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryService.deleteInventory(inventory.getInventoryID());
+    }
+
+    @Test
+    void cropScoresUseTheLatestMetric() throws Exception {
+        mockMvc.perform(get("/api/crops/" + scored.getCropID() + "/sustainability-score"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("100.0"));
+        mockMvc.perform(get("/api/crops/sustainability-scores")
+                        .param("cropIds", scored.getCropID() + "," + unscored.getCropID() + "," + Integer.MAX_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$['" + scored.getCropID() + "']").value(100.0))
+                .andExpect(jsonPath("$['" + unscored.getCropID() + "']").value(0.0));
+        mockMvc.perform(get("/api/crops/" + Integer.MAX_VALUE + "/sustainability-score"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,169 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Harvest;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.CropService;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.HarvestService;
+import auca.ac.urbanfarmingmgt.Services.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Walks harvests through record, edit and delete and checks the crop's running totals and average yield after each
+@SpringBootTest
+@ActiveProfiles("test")
+class CropYieldTotalsTests {
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private CropService cropService;
+
+    @Autowired
+    private HarvestService harvestService;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Farm farm;
+    private Inventory inventory;
+    private Crop crop;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Yield farm").location("Nyagatare").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(0.0).stock(0).produceType("Maize").storageLocation("Yield store").build());
+        crop = cropRepository.save(Crop.builder().cropType("Maize").farm(farm).inventory(inventory).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryService.deleteInventory(inventory.getInventoryID());
+    }
+
+    @Test
+    void editsDeletesAndMissingYieldsMoveTheRunningTotals() {
+        Harvest first = harvest(4.0);
+        Harvest second = harvest(6.0);
+        assertTotals(10.0, 2, 5.0);
+
+        // A harvest without a yield is not counted
+        Harvest unweighed = harvest(null);
+        assertTotals(10.0, 2, 5.0);
+
+        assertThat(harvestService.updateHarvestYield(second.getHarvestID(), 10.0)).isEqualTo("Harvest yield updated successfully");
+        assertTotals(14.0, 2, 7.0);
+
+        // Clearing a yield takes the harvest out of the count; weighing one later puts it in
+        harvestService.updateHarvestYield(second.getHarvestID(), null);
+        assertTotals(4.0, 1, 4.0);
+        harvestService.updateHarvestYield(unweighed.getHarvestID(), 8.0);
+        assertTotals(12.0, 2, 6.0);
+
+        assertThat(harvestService.deleteHarvest(first.getHarvestID())).isEqualTo("Harvest deleted successfully");
+        assertTotals(8.0, 1, 8.0);
+        harvestService.deleteHarvest(second.getHarvestID());
+        assertTotals(8.0, 1, 8.0);
+
+        // The last yield going leaves the average as it was
+        harvestService.deleteHarvest(unweighed.getHarvestID());
+        assertTotals(0.0, 0, 8.0);
+    }
+
+    @Test
+    void resavingAHarvestMovesItsYieldToTheNewValuesAndCrop() {
+        Crop other = cropRepository.save(Crop.builder().cropType("Maize").farm(farm).inventory(inventory).build());
+        harvest(2.0);
+        Harvest moved = harvest(4.0);
+        assertTotals(6.0, 2, 3.0);
+
+        assertThat(harvestService.saveHarvest(copy(moved, crop, 10.0))).startsWith("Harvest saved successfully");
+        assertTotals(12.0, 2, 6.0);
+
+        // Moving it to another crop takes the yield off the first and puts it on the second
+        assertThat(harvestService.saveHarvest(copy(moved, other, 8.0))).startsWith("Harvest saved successfully");
+        assertTotals(2.0, 1, 2.0);
+        Crop stored = cropRepository.findById(other.getCropID()).orElseThrow();
+        assertThat(stored.getTotalHarvestYield()).isEqualTo(8.0);
+        assertThat(stored.getHarvestCount()).isEqualTo(1);
+
+        assertThat(harvestService.saveHarvest(Harvest.builder()
+                .harvestID(Integer.MAX_VALUE).yield(1.0).crop(crop).farm(farm).inventory(inventory).build()))
+                .isEqualTo("Harvest not found with ID: " + Integer.MAX_VALUE);
+        assertTotals(2.0, 1, 2.0);
+    }
+
+    @Test
+    void updatingACropKeepsTheStoredAverageYield() {
+        harvest(3.0);
+        harvest(5.0);
+
+        assertThat(cropService.updateCrop(Crop.builder()
+                .cropID(crop.getCropID()).cropType("Sweet maize").farm(farm).inventory(inventory)
+                .averageYield(99.0).totalHarvestYield(99.0).harvestCount(99L).build()))
+                .isEqualTo("Crop updated successfully");
+
+        Crop updated = cropRepository.findById(crop.getCropID()).orElseThrow();
+        assertThat(updated.getCropType()).isEqualTo("Sweet maize");
+        assertTotals(8.0, 2, 4.0);
+    }
+
+    @Test
+    void recomputingRebuildsTotalsFromTheHarvests() {
+        harvest(2.0);
+        harvest(7.0);
+        harvest(null);
+
+        // Totals knocked out of step, e.g. by harvests written before the running totals existed
+        cropRepository.applyHarvestYieldDelta(crop.getCropID(), 100.0, 5);
+        assertTotals(109.0, 7, 109.0 / 7);
+
+        assertThat(cropService.recomputeYieldTotals()).isPositive();
+        assertTotals(9.0, 2, 4.5);
+    }
+
+    private Harvest harvest(Double yield) {
+        Harvest harvest = Harvest.builder()
+                .date(new Date()).yield(yield).qualityRating(3).crop(crop).farm(farm).inventory(inventory).build();
+        assertThat(harvestService.saveHarvest(harvest)).startsWith("Harvest saved successfully");
+        return harvest;
+    }
+
+    // A detached copy of the harvest as a client would send it back, with a new crop and yield
+    private Harvest copy(Harvest harvest, Crop crop, Double yield) {
+        return Harvest.builder().harvestID(harvest.getHarvestID()).date(harvest.getDate()).yield(yield)
+                .qualityRating(harvest.getQualityRating()).crop(crop).farm(farm).inventory(inventory).build();
+    }
+
+    private void assertTotals(double totalHarvestYield, long harvestCount, double averageYield) {
+        Crop stored = cropRepository.findById(crop.getCropID()).orElseThrow();
+        assertThat(stored.getTotalHarvestYield()).isEqualTo(totalHarvestYield);
+        assertThat(stored.getHarvestCount()).isEqualTo(harvestCount);
+        assertThat(stored.getAverageYield()).isEqualTo(averageYield);
+    }
+}
@@ -0,0 +1,83 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.SensorReading;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.SensorReadingRepository;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.SustainabilityLeaderboardService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+// Deletes a farm whose leaderboard rebuild fails and checks nothing of the delete is kept
+@SpringBootTest
+@ActiveProfiles("test")
+class FarmDeletionTests {
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private SensorReadingRepository readingRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    @MockitoSpyBean
+    private SustainabilityLeaderboardService leaderboardService;
+
+    private Farm farm;
+    private Inventory inventory;
+    private Crop crop;
+    private SensorReading reading;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Deletion farm").location("Rusizi").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(0.0).stock(0).produceType("Sorghum").storageLocation("Deletion store").build());
+        crop = cropRepository.save(Crop.builder().cropType("Sorghum").farm(farm).inventory(inventory).build());
+        reading = readingRepository.save(SensorReading.builder()
+                .recordedAt(new Date()).waterUsage(3.0).farm(farm).crop(crop).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        Mockito.reset(leaderboardService);
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryRepository.deleteById(inventory.getInventoryID());
+    }
+
+    @Test
+    void failedLeaderboardRebuildKeepsTheFarmAndItsReadings() {
+        doThrow(new IllegalStateException("Leaderboard unavailable")).when(leaderboardService).rebuild(any());
+
+        assertThat(farmService.deleteFarm(farm.getFarmID())).isEqualTo("Failed to delete farm: Leaderboard unavailable");
+
+        assertThat(farmRepository.existsById(farm.getFarmID())).isTrue();
+        assertThat(cropRepository.existsById(crop.getCropID())).isTrue();
+        assertThat(readingRepository.existsById(reading.getReadingID())).isTrue();
+    }
+}
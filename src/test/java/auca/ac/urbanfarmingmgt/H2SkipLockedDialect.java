@@ -0,0 +1,23 @@
+package auca.ac.urbanfarmingmgt;
+
+import org.hibernate.dialect.H2Dialect;
+
+// H2 understands FOR UPDATE SKIP LOCKED but Hibernate's H2Dialect drops the SKIP LOCKED part, which would turn
+// the order queue's claims into a plain blocking FOR UPDATE in tests; MySQLDialect renders it as production runs it
+public class H2SkipLockedDialect extends H2Dialect {
+
+    @Override
+    public boolean supportsSkipLocked() {
+        return true;
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString() {
+        return " for update skip locked";
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString(String aliases) {
+        return getForUpdateSkipLockedString();
+    }
+}
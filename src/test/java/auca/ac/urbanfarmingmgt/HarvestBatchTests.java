@@ -0,0 +1,164 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.DTO.BatchImportError;
+import auca.ac.urbanfarmingmgt.DTO.BatchImportResult;
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.HarvestRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.HarvestBatchImporter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Uploads harvests through /api/harvests/batch and checks the rows, the running totals and the statement count
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HarvestBatchTests {
+
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HarvestBatchImporter harvestBatchImporter;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private HarvestRepository harvestRepository;
+
+    private Crop crop;
+    private Inventory inventory;
+
+    @BeforeEach
+    void seed() {
+        Farm farm = farmRepository.save(Farm.builder().name("Batch farm").location("Musanze").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(0.0).stock(0).produceType("Potatoes").storageLocation("Batch store").build());
+        crop = cropRepository.save(Crop.builder().cropType("Potato").farm(farm).inventory(inventory).build());
+    }
+
+    @Test
+    void ndjsonUploadIsInsertedInJdbcBatches() throws Exception {
+        String body = IntStream.range(0, ROWS)
+                .mapToObj(i -> "{\"cropID\":" + crop.getCropID() + ",\"yield\":2.0,\"qualityRating\":4}")
+                .collect(Collectors.joining("\n"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/api/harvests/batch").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(ROWS))
+                .andExpect(jsonPath("$.inserted").value(ROWS))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued importing %d harvests", ROWS)
+                .isLessThan(ROWS / 10);
+
+        assertThat(harvestRepository.findByCropId(crop.getCropID())).hasSize(ROWS);
+        Crop updated = cropRepository.findById(crop.getCropID()).orElseThrow();
+        assertThat(updated.getHarvestCount()).isEqualTo(ROWS);
+        assertThat(updated.getAverageYield()).isEqualTo(2.0);
+        assertThat(inventoryRepository.findById(inventory.getInventoryID()).orElseThrow().getQuantity())
+                .isEqualTo(ROWS * 2.0);
+    }
+
+    @Test
+    void badRowsAreReportedWithoutFailingTheUpload() throws Exception {
+        String body = "[" +
+                "{\"cropID\":" + crop.getCropID() + ",\"yield\":3.0}," +
+                "{\"cropID\":" + Integer.MAX_VALUE + ",\"yield\":3.0}," +
+                "{\"cropID\":" + crop.getCropID() + "}," +
+                "{\"cropID\":\"not a number\",\"yield\":3.0}," +
+                "{\"cropID\":" + crop.getCropID() + ",\"yield\":5.0}" +
+                "]";
+
+        mockMvc.perform(post("/api/harvests/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(5))
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(4))
+                .andExpect(jsonPath("$.errors[1].row").value(2))
+                .andExpect(jsonPath("$.errors[1].message").value("Crop not found with ID: " + Integer.MAX_VALUE))
+                .andExpect(jsonPath("$.errors[2].row").value(3));
+
+        assertThat(cropRepository.findById(crop.getCropID()).orElseThrow().getAverageYield()).isEqualTo(4.0);
+    }
+
+    @Test
+    void brokenArrayKeepsTheRowsReadBeforeIt() throws Exception {
+        String row = "{\"cropID\":" + crop.getCropID() + ",\"yield\":2.0},";
+
+        mockMvc.perform(post("/api/harvests/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + row + row + "{\"cropID\": ]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3));
+
+        // Cut off before the closing bracket
+        mockMvc.perform(post("/api/harvests/batch").contentType(MediaType.APPLICATION_JSON).content("[" + row))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+
+        // The connection drops after two rows
+        InputStream dropped = new SequenceInputStream(
+                new ByteArrayInputStream(("[" + row + row).getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                });
+        BatchImportResult result = harvestBatchImporter.importJsonArray(dropped);
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.inserted()).isEqualTo(2);
+        assertThat(result.errors()).extracting(BatchImportError::row).containsExactly(3L);
+
+        assertThat(cropRepository.findById(crop.getCropID()).orElseThrow().getHarvestCount()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,126 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Harvest;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.HarvestRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.InventoryService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pages through /api/harvests/most-recent/cursor with harvests that share a date or have none
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HarvestPagingTests {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private HarvestRepository harvestRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Farm farm;
+    private Inventory inventory;
+    private List<Harvest> dated = new ArrayList<>();
+    private Harvest undated;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Paging farm").location("Karongi").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(0.0).stock(0).produceType("Cassava").storageLocation("Paging store").build());
+        Crop crop = cropRepository.save(Crop.builder().cropType("Cassava").farm(farm).inventory(inventory).build());
+
+        // Three days with three harvests each, so pages break inside a day
+        long now = System.currentTimeMillis();
+        for (int day = 0; day < 3; day++) {
+            for (int i = 0; i < 3; i++) {
+                dated.add(harvestRepository.save(Harvest.builder().date(new Date(now - day * DAY)).yield(1.0)
+                        .crop(crop).farm(farm).inventory(inventory).build()));
+            }
+        }
+        undated = harvestRepository.save(Harvest.builder().yield(1.0).crop(crop).farm(farm).inventory(inventory).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryService.deleteInventory(inventory.getInventoryID());
+    }
+
+    @Test
+    void cursorPagesListEveryDatedHarvestOnceNewestFirst() throws Exception {
+        Set<Integer> ours = dated.stream().map(Harvest::getHarvestID).collect(Collectors.toSet());
+        List<Integer> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/harvests/most-recent/cursor").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            List<Integer> ids = JsonPath.read(body, "$.harvests[*].harvestID");
+            listed.addAll(ids);
+            cursor = JsonPath.read(body, "$.nextCursor");
+        } while (cursor != null);
+
+        List<Integer> expected = dated.stream()
+                .sorted(Comparator.comparing(Harvest::getDate).thenComparing(Harvest::getHarvestID).reversed())
+                .map(Harvest::getHarvestID)
+                .toList();
+        assertThat(listed.stream().filter(ours::contains).toList()).isEqualTo(expected);
+        assertThat(listed).doesNotContain(undated.getHarvestID()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void limitsOutsideTheRangeAreRejected() throws Exception {
+        mockMvc.perform(get("/api/harvests/most-recent/cursor").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/harvests/most-recent/cursor").param("limit", "501")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/harvests/most-recent").param("limit", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/harvests/most-recent").param("limit", "500")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/harvests/most-recent/cursor").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+}
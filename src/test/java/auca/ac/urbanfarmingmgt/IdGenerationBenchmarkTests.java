@@ -0,0 +1,159 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.IdGeneratorAligner;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compares metric insert throughput with JDBC batching against one statement per row, which is what
+// IDENTITY keys forced, and checks that pooled IDs start above rows that were written before the switch
+@SpringBootTest
+@ActiveProfiles("test")
+class IdGenerationBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGenerationBenchmarkTests.class);
+
+    private static final int ROWS = 5_000;
+    private static final int ROUNDS = 3;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IdGeneratorAligner idGeneratorAligner;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    private Farm farm;
+    private Crop crop;
+    private Inventory inventory;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Benchmark farm").location("Huye").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(0.0).stock(0).produceType("Beans").storageLocation("Benchmark store").build());
+        crop = cropRepository.save(Crop.builder().cropType("Beans").farm(farm).inventory(inventory).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager
+                .createQuery("DELETE FROM SustainabilityMetric m WHERE m.farm.farmID = :farmId")
+                .setParameter("farmId", farm.getFarmID())
+                .executeUpdate());
+        cropRepository.deleteById(crop.getCropID());
+        farmRepository.deleteById(farm.getFarmID());
+        inventoryRepository.deleteById(inventory.getInventoryID());
+    }
+
+    @Test
+    void batchedInsertsBeatOneStatementPerRow() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long rowByRowNanos = Long.MAX_VALUE;
+        long batchedNanos = Long.MAX_VALUE;
+        long rowByRowStatements = 0;
+        long batchedStatements = 0;
+
+        // Best of a few rounds each, alternating, so JIT warm-up does not favour either side
+        for (int round = 0; round < ROUNDS; round++) {
+            statistics.clear();
+            rowByRowNanos = Math.min(rowByRowNanos, insertMetrics(1));
+            rowByRowStatements = statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            batchedNanos = Math.min(batchedNanos, insertMetrics(null));
+            batchedStatements = statistics.getPrepareStatementCount();
+        }
+
+        log.info("{} metric inserts: one statement per row {} ms ({} rows/sec, {} statements), " +
+                        "JDBC batches {} ms ({} rows/sec, {} statements)",
+                ROWS, TimeUnit.NANOSECONDS.toMillis(rowByRowNanos), rowsPerSecond(rowByRowNanos), rowByRowStatements,
+                TimeUnit.NANOSECONDS.toMillis(batchedNanos), rowsPerSecond(batchedNanos), batchedStatements);
+
+        assertThat(rowByRowStatements).isGreaterThanOrEqualTo(ROWS);
+        assertThat(batchedStatements).isLessThan(ROWS / 10);
+    }
+
+    @Test
+    void pooledIdsStartAboveRowsWrittenBeforeTheSwitch() {
+        int legacyId = farm.getFarmID() + 10_000;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager
+                .createNativeQuery("INSERT INTO farms (farmid, name, location) VALUES (:id, 'Legacy farm', 'Kigali')")
+                .setParameter("id", legacyId)
+                .executeUpdate());
+
+        // The generator's next block must start after the legacy row; the block already in memory is below it
+        idGeneratorAligner.afterSingletonsInstantiated();
+        Number nextBlock = (Number) entityManager
+                .createNativeQuery("SELECT next_val FROM id_generators WHERE generator_name = 'Farms'")
+                .getSingleResult();
+
+        assertThat(nextBlock.longValue()).isEqualTo(legacyId + 1);
+        farmRepository.deleteById(legacyId);
+    }
+
+    // Inserts ROWS metrics in one transaction, optionally forcing a JDBC batch size, and returns the elapsed time
+    private long insertMetrics(Integer jdbcBatchSize) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            if (jdbcBatchSize != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            }
+            Farm farmReference = entityManager.getReference(Farm.class, farm.getFarmID());
+            Crop cropReference = entityManager.getReference(Crop.class, crop.getCropID());
+
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(SustainabilityMetric.builder()
+                        .waterUsage(1.0).soilHealth(7.0).pesticideApplication(0.5).energyUsage(3.0)
+                        .farm(farmReference).crop(cropReference).build());
+            }
+            entityManager.flush();
+            long elapsed = System.nanoTime() - startedAt;
+            entityManager.clear();
+            return elapsed;
+        });
+    }
+
+    private long rowsPerSecond(long nanos) {
+        return Math.round(ROWS / (nanos / 1_000_000_000.0));
+    }
+}
@@ -0,0 +1,112 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.Order;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
+import auca.ac.urbanfarmingmgt.Services.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Places many orders at once against a single inventory row and checks that none oversell
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryConcurrencyTests {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryConcurrencyTests.class);
+
+    private static final int INITIAL_QUANTITY = 200;
+    private static final int ORDERS = 1_000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Inventory inventory;
+    private List<Order> orders = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll(orders);
+        inventoryRepository.deleteById(inventory.getInventoryID());
+    }
+
+    @Test
+    void concurrentOrdersOnOneInventoryRowNeverOversell() throws Exception {
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity((double) INITIAL_QUANTITY).stock(0).produceType("Tomatoes").storageLocation("Hot row").build());
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(Order.builder()
+                    .orderDate(new Date()).quantityOrdered(1.0).deliveryStatus(DeliveryStatus.PENDING).inventory(inventory).build());
+        }
+        orders = orderRepository.saveAll(orders);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+
+        for (Order order : orders) {
+            results.add(pool.submit(() -> {
+                start.await();
+                String outcome = orderService.placeOrder(order.getOrderID());
+                if (outcome.startsWith("Order placed")) {
+                    placed.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        double ordersPerSecond = ORDERS / (elapsedNanos / 1_000_000_000.0);
+        log.info("{} concurrent orders on one inventory row with {} threads: {} placed, {} rejected, {} ms, {} orders/sec",
+                ORDERS, THREADS, placed.get(), rejected.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                Math.round(ordersPerSecond));
+
+        long placedOrders = orderRepository.findByInventoryId(inventory.getInventoryID()).stream()
+                .map(OrderView::deliveryStatus)
+                .filter(DeliveryStatus.PLACED::equals)
+                .count();
+
+        assertThat(placed.get()).isEqualTo(INITIAL_QUANTITY);
+        assertThat(rejected.get()).isEqualTo(ORDERS - INITIAL_QUANTITY);
+        assertThat(placedOrders).isEqualTo(INITIAL_QUANTITY);
+        assertThat(inventoryRepository.findById(inventory.getInventoryID()).orElseThrow().getQuantity()).isZero();
+    }
+}
@@ -0,0 +1,135 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Client;
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.Order;
+import auca.ac.urbanfarmingmgt.Repository.ClientRepository;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
+import auca.ac.urbanfarmingmgt.Services.BusinessMetrics;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Drives a few writes through the API and checks the timers, gauges and business counters on the Prometheus endpoint
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Farm farm;
+    private Crop crop;
+    private Inventory inventory;
+    private Client client;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Metered farm").location("Huye").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(10.0).stock(10).produceType("Metered beans").storageLocation("Shed").build());
+        crop = cropRepository.save(Crop.builder().cropType("Bean").farm(farm).inventory(inventory).build());
+        Order first = orderRepository.save(Order.builder()
+                .orderDate(new Date()).quantityOrdered(1.0).deliveryStatus(DeliveryStatus.PENDING).inventory(inventory).build());
+        client = clientRepository.save(Client.builder().name("Metered client").contactInfo("metered@example.com").order(first).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        clientRepository.deleteById(client.getClientID());
+        orderRepository.deleteAll(orderRepository.findAll().stream()
+                .filter(order -> order.getInventory().getInventoryID().equals(inventory.getInventoryID())).toList());
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryService.deleteInventory(inventory.getInventoryID());
+    }
+
+    @Test
+    void writesShowUpAsTimersAndBusinessCounters() throws Exception {
+        double harvested = count(meterRegistry.find(BusinessMetrics.HARVEST_RECORDED));
+        double placed = count(meterRegistry.find(BusinessMetrics.ORDERS_PLACED).tag("channel", "client"));
+        double rejected = count(meterRegistry.find(BusinessMetrics.OVERSELL_REJECTED).tag("channel", "client"));
+
+        mockMvc.perform(post("/api/harvests/record-yield").param("cropId", crop.getCropID().toString())
+                .param("yield", "12.5").param("qualityRating", "4")).andExpect(status().isOk());
+        String placeOrder = "/api/clients/" + client.getClientID() + "/place-order";
+        mockMvc.perform(post(placeOrder).param("inventoryId", inventory.getInventoryID().toString())
+                .param("quantityOrdered", "6")).andExpect(status().isCreated());
+        // Only 4 left
+        mockMvc.perform(post(placeOrder).param("inventoryId", inventory.getInventoryID().toString())
+                .param("quantityOrdered", "6")).andExpect(status().isBadRequest());
+
+        assertThat(count(meterRegistry.find(BusinessMetrics.HARVEST_RECORDED))).isEqualTo(harvested + 12.5);
+        assertThat(count(meterRegistry.find(BusinessMetrics.ORDERS_PLACED).tag("channel", "client"))).isEqualTo(placed + 1);
+        assertThat(count(meterRegistry.find(BusinessMetrics.OVERSELL_REJECTED).tag("channel", "client"))).isEqualTo(rejected + 1);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_count{application=\"UrbanFarmingMgt\",error=\"none\",exception=\"none\",method=\"POST\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/harvests/record-yield\"}")))
+                .andExpect(content().string(containsString("urbanfarming_service_seconds_count{application=\"UrbanFarmingMgt\",class=\"HarvestService\",exception=\"none\",method=\"recordYield\"}")))
+                .andExpect(content().string(containsString("urbanfarming_service_seconds_count{application=\"UrbanFarmingMgt\",class=\"ClientService\",exception=\"ResponseStatusException\",method=\"placeClientOrder\"}")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{application=\"UrbanFarmingMgt\",exception=\"None\",method=\"findById\",repository=\"CropRepository\",state=\"SUCCESS\"}")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total")))
+                .andExpect(content().string(containsString("cache_gets_total{application=\"UrbanFarmingMgt\",cache=\"farms\"")))
+                .andExpect(content().string(containsString("urbanfarming_harvest_recorded_kg_total")))
+                .andExpect(content().string(containsString("urbanfarming_orders_placed_total{application=\"UrbanFarmingMgt\",channel=\"client\"}")))
+                .andExpect(content().string(containsString("urbanfarming_orders_oversell_rejected_total{application=\"UrbanFarmingMgt\",channel=\"client\"}")));
+    }
+
+    private static double count(Search search) {
+        return search.counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+}
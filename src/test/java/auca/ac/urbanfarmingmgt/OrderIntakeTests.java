@@ -0,0 +1,182 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.DTO.OrderIntakeRequest;
+import auca.ac.urbanfarmingmgt.DTO.OrderTicket;
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
+import auca.ac.urbanfarmingmgt.Services.OrderBatchWriter;
+import auca.ac.urbanfarmingmgt.Services.OrderIntakeService;
+import auca.ac.urbanfarmingmgt.Services.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Pushes orders through the write-behind intake queue and checks every ticket resolves without overselling
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderIntakeTests {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeTests.class);
+
+    private static final int INITIAL_QUANTITY = 200;
+    private static final int ORDERS = 1_000;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Inventory inventory;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(orderRepository.findByInventoryId(inventory.getInventoryID()).stream()
+                .map(OrderView::orderID).toList());
+        inventoryRepository.deleteById(inventory.getInventoryID());
+    }
+
+    @Test
+    void queuedOrdersAreWrittenInBatchesWithoutOverselling() throws Exception {
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity((double) INITIAL_QUANTITY).stock(0).produceType("Peppers").storageLocation("Intake row").build());
+
+        long startedAt = System.nanoTime();
+        List<OrderTicket> submitted = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            submitted.add(orderIntakeService.submit(new OrderIntakeRequest(inventory.getInventoryID(), 1.0, null)));
+        }
+
+        List<OrderTicket> resolved = awaitResolved(submitted);
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        Map<OrderTicket.Status, Long> outcomes = resolved.stream()
+                .collect(Collectors.groupingBy(OrderTicket::status, Collectors.counting()));
+        log.info("{} queued orders on one inventory row: {} in {} ms, {} orders/sec", ORDERS, outcomes,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(ORDERS / (elapsedNanos / 1_000_000_000.0)));
+
+        assertThat(outcomes.get(OrderTicket.Status.ACCEPTED)).isEqualTo(INITIAL_QUANTITY);
+        assertThat(outcomes.get(OrderTicket.Status.REJECTED)).isEqualTo(ORDERS - INITIAL_QUANTITY);
+        assertThat(resolved.stream().filter(ticket -> ticket.status() == OrderTicket.Status.ACCEPTED))
+                .allSatisfy(ticket -> assertThat(ticket.orderID()).isNotNull());
+        assertThat(orderRepository.findByInventoryId(inventory.getInventoryID())).hasSize(INITIAL_QUANTITY);
+        assertThat(inventoryRepository.findById(inventory.getInventoryID()).orElseThrow().getQuantity()).isZero();
+    }
+
+    @Test
+    void acceptedOrdersArePlacedAndGiveTheirQuantityBackWhenCancelled() throws Exception {
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(10.0).stock(0).produceType("Peppers").storageLocation("Intake row").build());
+
+        OrderTicket ticket = awaitResolved(List.of(
+                orderIntakeService.submit(new OrderIntakeRequest(inventory.getInventoryID(), 4.0, null)))).getFirst();
+        assertThat(ticket.status()).isEqualTo(OrderTicket.Status.ACCEPTED);
+        assertThat(orderService.getOrderById(ticket.orderID()).orElseThrow().deliveryStatus()).isEqualTo(DeliveryStatus.PLACED);
+        assertThat(quantity()).isEqualTo(6.0);
+
+        // The intake already took the quantity, so the order is neither placed nor claimed a second time
+        assertThat(orderService.placeOrder(ticket.orderID())).isEqualTo("Cannot move an order from Placed to Placed");
+        assertThat(orderService.claimPendingOrders(OrderService.MAX_CLAIM))
+                .noneMatch(claimed -> claimed.orderID().equals(ticket.orderID()));
+        assertThat(quantity()).isEqualTo(6.0);
+
+        assertThat(orderService.cancelOrder(ticket.orderID())).isEqualTo("Order cancelled and inventory reverted successfully");
+        assertThat(quantity()).isEqualTo(10.0);
+    }
+
+    @Test
+    void ordersForUnknownInventoryAreRejected() throws Exception {
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(1.0).stock(0).produceType("Peppers").storageLocation("Intake row").build());
+
+        OrderTicket ticket = orderIntakeService.submit(new OrderIntakeRequest(Integer.MAX_VALUE, 1.0, null));
+
+        OrderTicket resolved = awaitResolved(List.of(ticket)).getFirst();
+        assertThat(resolved.status()).isEqualTo(OrderTicket.Status.REJECTED);
+        assertThat(resolved.message()).isEqualTo("Inventory not found");
+    }
+
+    @Test
+    void orderQueuedAfterTheWriterStoppedIsTurnedAway() {
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(10.0).stock(0).produceType("Peppers").storageLocation("Intake row").build());
+
+        // A service of its own, so stopping it leaves the shared one running
+        OrderIntakeService intake = new OrderIntakeService();
+        ReflectionTestUtils.setField(intake, "orderBatchWriter", orderBatchWriter);
+        ReflectionTestUtils.setField(intake, "shardCount", 1);
+        ReflectionTestUtils.setField(intake, "queueCapacity", 10);
+        ReflectionTestUtils.setField(intake, "batchSize", 10);
+        ReflectionTestUtils.setField(intake, "ticketRetention", 10);
+        ReflectionTestUtils.invokeMethod(intake, "start");
+
+        // Shutdown lands after submit's running check and before its offer, and the writer has already exited
+        @SuppressWarnings("unchecked")
+        List<BlockingQueue<OrderTicket>> queues = (List<BlockingQueue<OrderTicket>>) ReflectionTestUtils.getField(intake, "queues");
+        List<OrderTicket> offered = new ArrayList<>();
+        queues.set(0, new ArrayBlockingQueue<>(10) {
+            @Override
+            public boolean offer(OrderTicket ticket) {
+                ReflectionTestUtils.invokeMethod(intake, "stop");
+                offered.add(ticket);
+                return super.offer(ticket);
+            }
+        });
+
+        assertThatThrownBy(() -> intake.submit(new OrderIntakeRequest(inventory.getInventoryID(), 1.0, null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(offered).hasSize(1);
+        assertThat(queues.getFirst()).isEmpty();
+        assertThat(intake.getTicket(offered.getFirst().ticketID())).isEmpty();
+    }
+
+    private double quantity() {
+        return inventoryRepository.findById(inventory.getInventoryID()).orElseThrow().getQuantity();
+    }
+
+    // Polls the tickets until none is pending
+    private List<OrderTicket> awaitResolved(List<OrderTicket> submitted) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (true) {
+            List<OrderTicket> current = submitted.stream()
+                    .map(ticket -> orderIntakeService.getTicket(ticket.ticketID()).orElseThrow())
+                    .toList();
+            if (current.stream().noneMatch(ticket -> ticket.status() == OrderTicket.Status.PENDING)
+                    || System.nanoTime() > deadline) {
+                return current;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
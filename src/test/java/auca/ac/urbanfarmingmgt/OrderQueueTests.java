@@ -0,0 +1,291 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.DTO.OrderView;
+import auca.ac.urbanfarmingmgt.Model.Client;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.Order;
+import auca.ac.urbanfarmingmgt.Repository.ClientRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
+import auca.ac.urbanfarmingmgt.Services.ClientService;
+import auca.ac.urbanfarmingmgt.Services.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Drains pending orders with several dispatchers at once and walks orders through the delivery status transitions
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderQueueTests {
+
+    private static final int ORDERS = 60;
+    private static final int DISPATCHERS = 4;
+    private static final int CLAIM = 7;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Inventory inventory;
+    private List<Order> orders = new ArrayList<>();
+    private Client client;
+
+    @BeforeEach
+    void seed() {
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(1000.0).stock(0).produceType("Beans").storageLocation("Dispatch bay").build());
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(Order.builder()
+                    .orderDate(new Date()).quantityOrdered(1.0).deliveryStatus(DeliveryStatus.PENDING).inventory(inventory).build());
+        }
+        orders = orderRepository.saveAll(orders);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (client != null) {
+            clientRepository.deleteById(client.getClientID());
+        }
+        orderRepository.deleteAllById(orderRepository.findByInventoryId(inventory.getInventoryID()).stream()
+                .map(OrderView::orderID).toList());
+        inventoryRepository.deleteById(inventory.getInventoryID());
+    }
+
+    @Test
+    void parallelDispatchersNeverClaimTheSameOrder() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(DISPATCHERS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Integer> claimed = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> dispatchers = new ArrayList<>();
+
+        for (int i = 0; i < DISPATCHERS; i++) {
+            dispatchers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                List<OrderView> batch;
+                while (!(batch = orderService.claimPendingOrders(CLAIM)).isEmpty()) {
+                    batch.forEach(order -> claimed.add(order.orderID()));
+                }
+            }, pool));
+        }
+        start.countDown();
+        CompletableFuture.allOf(dispatchers.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        Set<Integer> ours = orders.stream().map(Order::getOrderID).collect(Collectors.toSet());
+        List<Integer> claimedOurs = claimed.stream().filter(ours::contains).toList();
+        assertThat(claimedOurs).hasSize(ORDERS).doesNotHaveDuplicates();
+        assertThat(orderRepository.findAllById(ours))
+                .allMatch(order -> order.getDeliveryStatus() == DeliveryStatus.PROCESSING);
+    }
+
+    @Test
+    void lockedPendingOrdersAreSkippedNotWaitedFor() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstClaimHeld = new CountDownLatch(1);
+        CountDownLatch secondClaimDone = new CountDownLatch(1);
+
+        // The first claim keeps its transaction, and so its row locks, open until the second claim has returned
+        CompletableFuture<List<OrderView>> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            List<OrderView> batch = orderService.claimPendingOrders(CLAIM);
+            firstClaimHeld.countDown();
+            try {
+                secondClaimDone.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return batch;
+        }));
+        assertThat(firstClaimHeld.await(30, TimeUnit.SECONDS)).isTrue();
+
+        // Returns at once instead of waiting out the lock timeout. H2 applies the row limit before skipping, so
+        // unlike MySQL it may hand back fewer than CLAIM orders here, but never one the first claim holds.
+        List<OrderView> second = orderService.claimPendingOrders(CLAIM);
+        secondClaimDone.countDown();
+
+        Set<Integer> firstIds = first.get(30, TimeUnit.SECONDS).stream().map(OrderView::orderID).collect(Collectors.toSet());
+        assertThat(firstIds).hasSize(CLAIM);
+        assertThat(second).noneMatch(order -> firstIds.contains(order.orderID()));
+
+        // Once the first claim commits, the rest of the queue is claimed exactly once
+        List<Integer> all = new ArrayList<>(firstIds);
+        second.forEach(order -> all.add(order.orderID()));
+        List<OrderView> batch;
+        while (!(batch = orderService.claimPendingOrders(CLAIM)).isEmpty()) {
+            batch.forEach(order -> all.add(order.orderID()));
+        }
+        Set<Integer> ours = orders.stream().map(Order::getOrderID).collect(Collectors.toSet());
+        assertThat(all.stream().filter(ours::contains).toList()).hasSize(ORDERS).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void deliveryStatusOnlyMakesValidMoves() throws Exception {
+        Integer orderId = orders.getFirst().getOrderID();
+        String deliver = "/api/clients/orders/" + orderId + "/deliver";
+
+        // A pending order has not been dispatched yet
+        mockMvc.perform(put(deliver).param("inventoryId", inventory.getInventoryID().toString()))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/api/orders/" + orderId + "/update-status").param("deliveryStatus", "Shipped"))
+                .andExpect(content().string("Unknown delivery status: Shipped"));
+
+        mockMvc.perform(put("/api/orders/" + orderId + "/update-status").param("deliveryStatus", "processing"))
+                .andExpect(content().string("Order status updated successfully"));
+        mockMvc.perform(get("/api/orders/" + orderId))
+                .andExpect(jsonPath("$.deliveryStatus").value("Processing"));
+        mockMvc.perform(put(deliver).param("inventoryId", inventory.getInventoryID().toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/orders/" + orderId + "/cancel-order"))
+                .andExpect(content().string("Cannot cancel an already delivered order"));
+        mockMvc.perform(put("/api/orders/" + orderId + "/update-status").param("deliveryStatus", "Pending"))
+                .andExpect(content().string("Cannot move an order from Delivered to Pending"));
+        mockMvc.perform(get("/api/orders/status/Delivered"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.orderID == " + orderId + ")].deliveryStatus").value("Delivered"));
+        mockMvc.perform(get("/api/orders/status/Lost"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/orders/queue/claim").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void claimedOrdersHoldTheirQuantityUntilCancelled() {
+        Order tooLarge = orderRepository.save(Order.builder()
+                .orderDate(new Date()).quantityOrdered(5000.0).deliveryStatus(DeliveryStatus.PENDING).inventory(inventory).build());
+
+        // Cancelling a pending order has nothing to give back
+        assertThat(orderService.cancelOrder(orders.getFirst().getOrderID()))
+                .isEqualTo("Order cancelled and inventory reverted successfully");
+        assertThat(quantity()).isEqualTo(1000.0);
+
+        // Claiming takes the quantity; the order there is not enough for is left Pending
+        List<Integer> claimed = orderService.claimPendingOrders(OrderService.MAX_CLAIM).stream().map(OrderView::orderID).toList();
+        assertThat(claimed).hasSize(ORDERS - 1).doesNotContain(tooLarge.getOrderID());
+        assertThat(quantity()).isEqualTo(1000.0 - (ORDERS - 1));
+        assertThat(orderRepository.findById(tooLarge.getOrderID()).orElseThrow().getDeliveryStatus())
+                .isEqualTo(DeliveryStatus.PENDING);
+
+        // Placing or delivering a claimed order does not take its quantity a second time
+        Integer placed = orders.get(1).getOrderID();
+        assertThat(orderService.placeOrder(placed)).isEqualTo("Order placed and inventory updated successfully");
+        assertThat(orderService.updateOrderStatus(orders.get(2).getOrderID(), "Delivered"))
+                .isEqualTo("Order status updated successfully");
+        assertThat(quantity()).isEqualTo(1000.0 - (ORDERS - 1));
+
+        // Cancelling or releasing a claimed or placed order puts its quantity back, once
+        assertThat(orderService.cancelOrder(placed)).isEqualTo("Order cancelled and inventory reverted successfully");
+        assertThat(orderService.cancelOrder(placed)).isEqualTo("Order is already cancelled");
+        assertThat(orderService.cancelOrder(orders.get(3).getOrderID()))
+                .isEqualTo("Order cancelled and inventory reverted successfully");
+        assertThat(orderService.updateOrderStatus(orders.get(4).getOrderID(), "Pending"))
+                .isEqualTo("Order status updated successfully");
+        assertThat(quantity()).isEqualTo(1000.0 - (ORDERS - 4));
+    }
+
+    @Test
+    void clientOrdersArePlacedWithTheirQuantityTaken() {
+        client = clientRepository.save(Client.builder()
+                .name("Queue client").contactInfo("queue@example.com").order(orders.getFirst()).build());
+
+        OrderView order = clientService.placeClientOrder(client.getClientID(), inventory.getInventoryID(), 10.0);
+        assertThat(order.deliveryStatus()).isEqualTo(DeliveryStatus.PLACED);
+        assertThat(quantity()).isEqualTo(990.0);
+
+        // The order already holds its quantity, so it is neither claimed nor placed again
+        assertThat(orderService.claimPendingOrders(OrderService.MAX_CLAIM)).noneMatch(claimed -> claimed.orderID().equals(order.orderID()));
+        assertThat(orderService.placeOrder(order.orderID())).isEqualTo("Cannot move an order from Placed to Placed");
+        assertThat(quantity()).isEqualTo(990.0 - ORDERS);
+
+        assertThat(orderService.cancelOrder(order.orderID())).isEqualTo("Order cancelled and inventory reverted successfully");
+        assertThat(quantity()).isEqualTo(1000.0 - ORDERS);
+    }
+
+    @Test
+    void concurrentMovesOfOneOrderTakeAndReturnItsStockOnce() throws Exception {
+        Integer orderId = orders.getFirst().getOrderID();
+
+        List<String> placed = concurrently(() -> orderService.placeOrder(orderId));
+        assertThat(placed).filteredOn("Order placed and inventory updated successfully"::equals).hasSize(1);
+        assertThat(quantity()).isEqualTo(999.0);
+
+        List<String> cancelled = concurrently(() -> orderService.cancelOrder(orderId));
+        assertThat(cancelled).filteredOn("Order cancelled and inventory reverted successfully"::equals).hasSize(1);
+        assertThat(quantity()).isEqualTo(1000.0);
+    }
+
+    // Runs the call on DISPATCHERS threads released together and returns every result
+    private List<String> concurrently(Supplier<String> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(DISPATCHERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < DISPATCHERS; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return call.get();
+            }, pool));
+        }
+        start.countDown();
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        pool.shutdown();
+        return calls.stream().map(CompletableFuture::join).toList();
+    }
+
+    private double quantity() {
+        return inventoryRepository.findById(inventory.getInventoryID()).orElseThrow().getQuantity();
+    }
+}
@@ -0,0 +1,102 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.InventoryService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every statement counts as slow here and the budget is a single statement, so each request exercises both logs
+@SpringBootTest(properties = {"urbanfarming.slow-query.threshold=0ms", "urbanfarming.query-budget.per-request=1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class QueryBudgetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Farm farm;
+    private Crop crop;
+    private Inventory inventory;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Budgeted farm").location("Rubavu").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(10.0).stock(10).produceType("Budgeted maize").storageLocation("Barn").build());
+        crop = cropRepository.save(Crop.builder().cropType("Maize").farm(farm).inventory(inventory).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryService.deleteInventory(inventory.getInventoryID());
+    }
+
+    @Test
+    void statementsAreCountedPerRequest(CapturedOutput output) throws Exception {
+        String route = "/api/harvests/record-yield";
+        String count = mockMvc.perform(post(route).param("cropId", crop.getCropID().toString())
+                        .param("yield", "3.5").param("qualityRating", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER);
+        assertThat(Integer.parseInt(count)).isGreaterThan(1);
+
+        DistributionSummary statements = meterRegistry.find(QueryBudgetFilter.STATEMENTS_PER_REQUEST)
+                .tag("method", "POST").tag("uri", route).summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(Integer.parseInt(count));
+
+        // The harvest insert, with its bind parameters
+        assertThat(output).contains("Slow query (")
+                .contains("on POST " + route + ": insert into harvests")
+                .contains(", 5, 3.5, ")
+                .contains("POST " + route + " ran " + count + " SQL statements, over the budget of 1");
+
+        // The second read is served from the cache
+        String farmUrl = "/api/farms/" + farm.getFarmID();
+        mockMvc.perform(get(farmUrl)).andExpect(status().isOk());
+        mockMvc.perform(get(farmUrl)).andExpect(header().string(QueryBudgetFilter.QUERY_COUNT_HEADER, "0"));
+    }
+}
@@ -0,0 +1,203 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.*;
+import auca.ac.urbanfarmingmgt.Repository.*;
+import auca.ac.urbanfarmingmgt.Services.SustainabilityLeaderboardService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Asserts how many SQL statements each read endpoint issues, so N+1 regressions fail the build
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private HarvestRepository harvestRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private StaffAndVolunteerRepository staffAndVolunteerRepository;
+
+    @Autowired
+    private SustainabilityMetricRepository metricRepository;
+
+    @Autowired
+    private SustainabilityLeaderboardService leaderboardService;
+
+    private Statistics statistics;
+
+    private Farm farm;
+    private Crop crop;
+    private Inventory inventory;
+    private Order order;
+
+    // Two farms with three crops each and enough harvests to fill more than one page
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(100.0).stock(100).produceType("Vegetables").storageLocation("Cold room").build());
+
+        for (int f = 0; f < 2; f++) {
+            Farm savedFarm = farmRepository.save(Farm.builder().name("Farm " + f).location("Kigali").build());
+            if (farm == null) {
+                farm = savedFarm;
+            }
+            staffAndVolunteerRepository.save(StaffAndVolunteer.builder()
+                    .name("Worker " + f).role("Staff").workHours(8.0).assignedFarm(savedFarm).build());
+
+            for (int c = 0; c < 3; c++) {
+                Crop savedCrop = cropRepository.save(Crop.builder()
+                        .cropType("Crop " + c).farm(savedFarm).inventory(inventory).build());
+                if (crop == null) {
+                    crop = savedCrop;
+                }
+                metricRepository.save(SustainabilityMetric.builder()
+                        .waterUsage(2.0).soilHealth(8.0).pesticideApplication(1.0).energyUsage(5.0)
+                        .farm(savedFarm).crop(savedCrop).build());
+
+                for (int h = 0; h < 3; h++) {
+                    harvestRepository.save(Harvest.builder().date(new Date()).yield(10.0 + h).qualityRating(4)
+                            .crop(savedCrop).farm(savedFarm).inventory(inventory).build());
+                }
+            }
+        }
+
+        for (int o = 0; o < 3; o++) {
+            Order savedOrder = orderRepository.save(Order.builder()
+                    .orderDate(new Date()).quantityOrdered(1.0).deliveryStatus(DeliveryStatus.PENDING).inventory(inventory).build());
+            if (order == null) {
+                order = savedOrder;
+            }
+            clientRepository.save(Client.builder().name("Client " + o).contactInfo("client" + o).order(savedOrder).build());
+        }
+
+        // Metrics were saved straight through the repository, so build the farm rollups the score endpoints read
+        leaderboardService.rebuildAll();
+    }
+
+    @Test
+    void harvestEndpoints() throws Exception {
+        assertStatements("/api/harvests", 2);
+        assertStatements("/api/harvests/" + firstHarvestId(), 1);
+        assertStatements("/api/harvests/farm/" + farm.getFarmID(), 1);
+        assertStatements("/api/harvests/crop/" + crop.getCropID(), 1);
+        assertStatements("/api/harvests/inventory/" + inventory.getInventoryID(), 1);
+        assertStatements("/api/harvests/most-recent?limit=5", 1);
+        assertStatements("/api/harvests/yield-stats/farm/" + farm.getFarmID(), 1);
+    }
+
+    @Test
+    void cropEndpoints() throws Exception {
+        assertStatements("/api/crops", 1);
+        assertStatements("/api/crops/" + crop.getCropID(), 1);
+        assertStatements("/api/crops/" + crop.getCropID() + "?expand=farm,inventory,harvests,sustainabilityMetrics", 5);
+        assertStatements("/api/crops/farm/" + farm.getFarmID(), 1);
+        assertStatements("/api/crops/" + crop.getCropID() + "/sustainability-score", 1);
+        assertStatements("/api/crops/sustainability-scores?cropIds=" + cropRepository.findAll().stream()
+                .map(c -> c.getCropID().toString()).collect(Collectors.joining(",")), 1);
+    }
+
+    @Test
+    void farmEndpoints() throws Exception {
+        assertStatements("/api/farms", 1);
+        assertStatements("/api/farms/" + farm.getFarmID(), 1);
+        assertStatements("/api/farms/" + farm.getFarmID() + "?expand=crops,harvests,assignedStaff,sustainabilityMetrics", 5);
+        assertStatements("/api/farms/" + farm.getFarmID() + "/total-yield", 1);
+        assertStatements("/api/farms/" + farm.getFarmID() + "/sustainability-report", 1);
+    }
+
+    @Test
+    void inventoryOrderAndClientEndpoints() throws Exception {
+        assertStatements("/api/inventory", 1);
+        assertStatements("/api/inventory/" + inventory.getInventoryID() + "?expand=harvestList,cropList,orderList", 4);
+        assertStatements("/api/orders", 1);
+        assertStatements("/api/orders/status/Pending", 1);
+        assertStatements("/api/orders/" + order.getOrderID() + "?expand=inventory,clientList", 3);
+        assertStatements("/api/clients", 1);
+        assertStatements("/api/clients/contact-info/client0", 1);
+    }
+
+    @Test
+    void staffAndSustainabilityEndpoints() throws Exception {
+        assertStatements("/api/staff-and-volunteers", 1);
+        assertStatements("/api/staff-and-volunteers/staff", 1);
+        assertStatements("/api/staff-and-volunteers/volunteers", 1);
+        assertStatements("/api/staff-and-volunteers/farm/" + farm.getFarmID(), 1);
+        assertStatements("/api/staff-and-volunteers/farm/" + farm.getFarmID() + "/total-work-hours", 1);
+        assertStatements("/api/staff-and-volunteers/minimum-work-hours/4", 1);
+        assertStatements("/api/staff-and-volunteers/work-hours-range?minHours=4&maxHours=10", 1);
+        assertStatements("/api/staff-and-volunteers/multiple-tasks", 1);
+        assertStatements("/api/staff-and-volunteers/role-distribution", 1);
+        assertStatements("/api/sustainability/metrics", 1);
+        assertStatements("/api/sustainability/metrics/farm/" + farm.getFarmID(), 1);
+        assertStatements("/api/sustainability/metrics/crop/" + crop.getCropID(), 1);
+        assertStatements("/api/sustainability/metrics/farm/" + farm.getFarmID() + "/averages", 1);
+        assertStatements("/api/sustainability/metrics/farm/" + farm.getFarmID() + "/sustainability-score", 1);
+        assertStatements("/api/sustainability/metrics/farm/" + farm.getFarmID() + "/recommendations", 1);
+        assertStatements("/api/sustainability/metrics/farms/sustainability-scores", 1);
+        assertStatements("/api/sustainability/leaderboard?limit=10", 1);
+    }
+
+    @Test
+    void entityQueriesLeaveParentsUnloaded() {
+        statistics.clear();
+        harvestRepository.findAll();
+        metricRepository.findByFarmId(farm.getFarmID());
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued loading harvest and metric entities")
+                .isEqualTo(2);
+    }
+
+    private Integer firstHarvestId() {
+        return harvestRepository.findAll().getFirst().getHarvestID();
+    }
+
+    // Performs the GET and fails if it prepared more SQL statements than allowed
+    private void assertStatements(String url, long maxStatements) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued by GET %s", url)
+                .isLessThanOrEqualTo(maxStatements);
+    }
+}
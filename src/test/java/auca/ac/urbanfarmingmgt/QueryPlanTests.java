@@ -0,0 +1,205 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.*;
+import auca.ac.urbanfarmingmgt.Repository.*;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs each indexed finder, asks H2 for the plan of the SQL it issued and fails when the filtered table is
+// read with a full scan instead of the index from the migrations
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTests {
+
+    // H2 keeps the index it built for a foreign key next to the composite ones that lead with the same column,
+    // and may pick either; MySQL drops its own foreign key index once a composite one can serve the constraint
+    private static final String ANY_INDEX = "";
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class CaptureStatements {
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private HarvestRepository harvestRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private StaffAndVolunteerRepository staffAndVolunteerRepository;
+
+    @Autowired
+    private SustainabilityMetricRepository metricRepository;
+
+    @Autowired
+    private SensorReadingRollupRepository rollupRepository;
+
+    private Farm farm;
+    private Crop crop;
+    private Inventory inventory;
+    private Order order;
+
+    @BeforeAll
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Plan farm").location("Huye").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(10.0).stock(10).produceType("Plan produce").storageLocation("Plan store").build());
+        crop = cropRepository.save(Crop.builder().cropType("Plan crop").growingSeason("Plan season")
+                .locationRequirement("Plan bed").farm(farm).inventory(inventory).build());
+        order = orderRepository.save(Order.builder().orderDate(new Date()).quantityOrdered(1.0)
+                .deliveryStatus(DeliveryStatus.PENDING).inventory(inventory).build());
+    }
+
+    @AfterAll
+    void cleanUp() {
+        orderRepository.deleteById(order.getOrderID());
+        cropRepository.deleteById(crop.getCropID());
+        inventoryRepository.deleteById(inventory.getInventoryID());
+        farmRepository.deleteById(farm.getFarmID());
+    }
+
+    @Test
+    void findersUseTheirIndexes() throws SQLException {
+        Date from = Date.from(Instant.parse("2026-01-01T00:00:00Z"));
+        Date to = Date.from(Instant.parse("2026-02-01T00:00:00Z"));
+        Integer farmId = farm.getFarmID();
+        Integer cropId = crop.getCropID();
+
+        // Finder name, the index its filtered table must be read through, and the call that issues its SQL
+        Map<String, Map.Entry<String, Runnable>> finders = new LinkedHashMap<>();
+        finders.put("HarvestRepository.findByDateRange",
+                Map.entry("idx_harvest_date", () -> harvestRepository.findByDateRange(from, to)));
+        finders.put("HarvestRepository.findMostRecentHarvests",
+                Map.entry("idx_harvest_date", () -> harvestRepository.findMostRecentHarvests(PageRequest.of(0, 20))));
+        finders.put("HarvestRepository.findHarvestsBefore",
+                Map.entry("idx_harvest_date", () -> harvestRepository.findHarvestsBefore(to, 1, PageRequest.of(0, 20))));
+        finders.put("HarvestRepository.findByQualityRating",
+                Map.entry("idx_harvest_quality", () -> harvestRepository.findByQualityRating(5)));
+        finders.put("HarvestRepository.findByYieldAboveThreshold",
+                Map.entry("idx_harvest_yield", () -> harvestRepository.findByYieldAboveThreshold(1000.0)));
+        finders.put("HarvestRepository.findByFarmId",
+                Map.entry(ANY_INDEX, () -> harvestRepository.findByFarmId(farmId)));
+        finders.put("HarvestRepository.sumYieldByFarmId",
+                Map.entry("idx_harvest_farm_yield", () -> harvestRepository.sumYieldByFarmId(farmId)));
+        finders.put("HarvestRepository.findByCropId",
+                Map.entry(ANY_INDEX, () -> harvestRepository.findByCropId(cropId)));
+        finders.put("HarvestRepository.sumYieldByCropId",
+                Map.entry("idx_harvest_crop_yield", () -> harvestRepository.sumYieldByCropId(cropId)));
+        finders.put("CropRepository.findByCropType",
+                Map.entry("idx_crop_type", () -> cropRepository.findByCropType("Plan crop")));
+        finders.put("CropRepository.findByGrowingSeason",
+                Map.entry("idx_crop_season", () -> cropRepository.findByGrowingSeason("Plan season")));
+        finders.put("CropRepository.findByLocationRequirement",
+                Map.entry("idx_crop_location", () -> cropRepository.findByLocationRequirement("Plan bed")));
+        finders.put("CropRepository.findByAverageYieldGreaterThan",
+                Map.entry("idx_crop_average_yield", () -> cropRepository.findByAverageYieldGreaterThan(1000.0)));
+        finders.put("FarmRepository.findByCropType",
+                Map.entry("idx_crop_type", () -> farmRepository.findByCropType("Plan crop")));
+        finders.put("OrderRepository.findByDeliveryStatus",
+                Map.entry("idx_order_status", () -> orderRepository.findByDeliveryStatus(DeliveryStatus.PENDING)));
+        finders.put("InventoryRepository.findByProduceType",
+                Map.entry("idx_inventory_produce_type", () -> inventoryRepository.findByProduceType("Plan produce")));
+        finders.put("ClientRepository.findByContactInfo",
+                Map.entry("idx_client_contact", () -> clientRepository.findByContactInfo("plan@example.com")));
+        finders.put("StaffAndVolunteerRepository.findViewsByFarmId",
+                Map.entry(ANY_INDEX, () -> staffAndVolunteerRepository.findViewsByFarmId(farmId)));
+        finders.put("StaffAndVolunteerRepository.sumWorkHoursByFarmId",
+                Map.entry("idx_staff_farm_hours", () -> staffAndVolunteerRepository.sumWorkHoursByFarmId(farmId)));
+        finders.put("StaffAndVolunteerRepository.findByMinimumWorkHours",
+                Map.entry("idx_staff_work_hours", () -> staffAndVolunteerRepository.findByMinimumWorkHours(1000.0)));
+        finders.put("StaffAndVolunteerRepository.findByWorkHoursBetween",
+                Map.entry("idx_staff_work_hours", () -> staffAndVolunteerRepository.findByWorkHoursBetween(1000.0, 2000.0)));
+        finders.put("SustainabilityMetricRepository.findLatestViewByCropId",
+                Map.entry(ANY_INDEX, () -> metricRepository.findLatestViewByCropId(cropId)));
+        finders.put("SensorReadingRollupRepository.findFarmIdsByCropId",
+                Map.entry("idx_reading_rollup_crop", () -> rollupRepository.findFarmIdsByCropId(cropId)));
+
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Map.Entry<String, Runnable>> finder : finders.entrySet()) {
+            STATEMENTS.clear();
+            finder.getValue().getValue().run();
+            assertThat(STATEMENTS).as(finder.getKey() + " issued no SQL").isNotEmpty();
+
+            String plan = explain(STATEMENTS.getFirst());
+            if (plan.contains("tableScan") || !plan.contains(finder.getValue().getKey())) {
+                failures.add(finder.getKey() + " should use " + finder.getValue().getKey() + ":\n" + plan);
+            }
+        }
+        assertThat(failures).isEmpty();
+    }
+
+    // H2's plan for the statement, with every parameter bound to a placeholder of the type H2 inferred for it
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                switch (parameters.getParameterType(i)) {
+                    case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, Types.DATE ->
+                            statement.setTimestamp(i, new Timestamp(0));
+                    case Types.BOOLEAN, Types.BIT -> statement.setBoolean(i, true);
+                    case Types.VARCHAR, Types.CHAR, Types.OTHER -> statement.setString(i, "x");
+                    default -> statement.setInt(i, 1);
+                }
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+}
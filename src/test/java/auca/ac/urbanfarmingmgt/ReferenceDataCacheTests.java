@@ -0,0 +1,116 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.CropService;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.InventoryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Checks that repeated reference data reads stay off the database and that writes evict what they change
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReferenceDataCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private CropService cropService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Statistics statistics;
+
+    private Farm farm;
+    private Crop crop;
+    private Inventory inventory;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        farm = farmRepository.save(Farm.builder().name("Cached farm").location("Musanze").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(50.0).stock(50).produceType("Cached potatoes").storageLocation("Cellar").build());
+        crop = cropRepository.save(Crop.builder().cropType("Potato").farm(farm).inventory(inventory).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryService.deleteInventory(inventory.getInventoryID());
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() throws Exception {
+        for (String url : new String[]{"/api/farms/" + farm.getFarmID(), "/api/crops/" + crop.getCropID(),
+                "/api/inventory/" + inventory.getInventoryID(), "/api/inventory/produce-type/Cached potatoes"}) {
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            statistics.clear();
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            assertThat(statistics.getPrepareStatementCount()).as("SQL statements issued by a second GET %s", url).isZero();
+        }
+
+        mockMvc.perform(get("/api/caches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'farms')].hitCount").value(hasItem(greaterThanOrEqualTo(1))));
+    }
+
+    @Test
+    void writesEvictTheEntriesTheyChange() throws Exception {
+        assertThat(farmService.getFarmById(farm.getFarmID()).name()).isEqualTo("Cached farm");
+        farm.setName("Renamed farm");
+        farmService.saveFarm(farm);
+        assertThat(farmService.getFarmById(farm.getFarmID()).name()).isEqualTo("Renamed farm");
+
+        assertThat(cropService.getCropById(crop.getCropID()).harvestCount()).isZero();
+        cropService.recordHarvest(crop.getCropID(), 12.0, 5);
+        assertThat(cropService.getCropById(crop.getCropID()).harvestCount()).isEqualTo(1);
+
+        assertThat(inventoryService.getInventoryByProduceType("Cached potatoes").getFirst().quantity()).isEqualTo(50.0);
+        mockMvc.perform(get("/api/inventory/" + inventory.getInventoryID()))
+                .andExpect(jsonPath("$.quantity").value(50.0));
+        assertThat(inventoryService.updateQuantityAfterOrder(inventory.getInventoryID(), 20.0)).isTrue();
+        mockMvc.perform(get("/api/inventory/" + inventory.getInventoryID()))
+                .andExpect(jsonPath("$.quantity").value(30.0));
+        assertThat(inventoryService.getInventoryByProduceType("Cached potatoes").getFirst().quantity()).isEqualTo(30.0);
+    }
+}
@@ -0,0 +1,188 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Client;
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.DeliveryStatus;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.Order;
+import auca.ac.urbanfarmingmgt.Repository.ClientRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.OrderRepository;
+import auca.ac.urbanfarmingmgt.Services.ClientService;
+import auca.ac.urbanfarmingmgt.Services.CropService;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.SearchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Exercises /api/search ranking and the index-backed "contains" lookups, and checks the index follows writes
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Lets a test hold a rebuild after it has read the crops and farms
+    @MockitoSpyBean
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private CropService cropService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private SearchService searchService;
+
+    private Farm farm;
+    private Crop tomato;
+    private Crop tamarillo;
+    private Inventory inventory;
+    private Order order;
+    private Client client;
+
+    @BeforeEach
+    void seed() {
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(10.0).stock(10).produceType("Fruit").storageLocation("Search store").build());
+        farm = Farm.builder().name("Zephyr Valley Gardens").location("Nyabihu terraces").build();
+        farmService.saveFarm(farm);
+
+        tomato = Crop.builder().cropType("Zomatoberry").locationRequirement("Cool Nyabihu highlands")
+                .farm(farm).inventory(inventory).build();
+        cropService.saveCrop(tomato);
+        tamarillo = Crop.builder().cropType("Zamarillo").locationRequirement("Warm lowlands")
+                .farm(farm).inventory(inventory).build();
+        cropService.saveCrop(tamarillo);
+
+        order = orderRepository.save(Order.builder()
+                .orderDate(new Date()).quantityOrdered(1.0).deliveryStatus(DeliveryStatus.PENDING).inventory(inventory).build());
+        client = Client.builder().name("Zawadi Uwase").contactInfo("zawadi@example.rw").order(order).build();
+        clientService.saveClient(client);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        clientService.deleteClient(client.getClientID());
+        farmService.deleteFarm(farm.getFarmID());
+        orderRepository.deleteById(order.getOrderID());
+        inventoryRepository.deleteById(inventory.getInventoryID());
+    }
+
+    @Test
+    void searchRanksPrefixAndNearMatches() throws Exception {
+        // A prefix ranks the crop it starts above the other Z crop
+        mockMvc.perform(get("/api/search").param("q", "zoma"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("CROP"))
+                .andExpect(jsonPath("$[0].id").value(tomato.getCropID()))
+                .andExpect(jsonPath("$[0].matchedField").value("cropType"));
+
+        // A typo still finds the farm, and several words must all match for the top score
+        mockMvc.perform(get("/api/search").param("q", "zephir valley"))
+                .andExpect(jsonPath("$[0].type").value("FARM"))
+                .andExpect(jsonPath("$[0].id").value(farm.getFarmID()));
+
+        // Accents and case are ignored; contact info is searched too
+        mockMvc.perform(get("/api/search").param("q", "ZAWÁDI").param("type", "CLIENT"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(client.getClientID()));
+
+        // One word in two kinds of record
+        mockMvc.perform(get("/api/search").param("q", "nyabihu"))
+                .andExpect(jsonPath("$[*].type").value(hasItem("CROP")))
+                .andExpect(jsonPath("$[*].type").value(hasItem("FARM")));
+    }
+
+    @Test
+    void containsLookupsUseTheIndex() throws Exception {
+        mockMvc.perform(get("/api/crops/eligible-for-location").param("location", "HIGHLAND"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].cropID").value(tomato.getCropID()));
+        mockMvc.perform(get("/api/farms/name/valley gar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].farmID").value(hasItem(farm.getFarmID())));
+    }
+
+    @Test
+    void indexFollowsWrites() throws Exception {
+        cropService.deleteCrop(tamarillo.getCropID());
+        mockMvc.perform(get("/api/search").param("q", "zamarillo"))
+                .andExpect(jsonPath("$[*].id").value(not(hasItem(tamarillo.getCropID()))));
+
+        client.setName("Zuri Mukamana");
+        clientService.updateClientInfo(client.getClientID(), client);
+        mockMvc.perform(get("/api/search").param("q", "zuri").param("type", "CLIENT"))
+                .andExpect(jsonPath("$[0].id").value(client.getClientID()));
+
+        // A rebuild from the tables gives the same answers as the incrementally maintained index
+        searchService.rebuild();
+        mockMvc.perform(get("/api/search").param("q", "zomatoberry"))
+                .andExpect(jsonPath("$[0].id").value(tomato.getCropID()))
+                .andExpect(jsonPath("$[0].score").value(1.0));
+    }
+
+    @Test
+    void changesCommittedDuringARebuildAreKept() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            reading.countDown();
+            written.await(30, TimeUnit.SECONDS);
+            // The spy cannot call through to the repository's own query, so read the same rows another way
+            return clientRepository.findAllViews(Pageable.unpaged()).get();
+        }).when(clientRepository).streamAllViews();
+
+        CompletableFuture<Integer> rebuild = CompletableFuture.supplyAsync(searchService::rebuild);
+        assertThat(reading.await(30, TimeUnit.SECONDS)).isTrue();
+
+        // The rebuild has already read the crops, so it holds the old set until these are replayed onto it
+        cropService.deleteCrop(tamarillo.getCropID());
+        Crop kiwano = Crop.builder().cropType("Zikiwano").locationRequirement("Warm lowlands")
+                .farm(farm).inventory(inventory).build();
+        cropService.saveCrop(kiwano);
+        written.countDown();
+        rebuild.get(30, TimeUnit.SECONDS);
+
+        mockMvc.perform(get("/api/search").param("q", "zamarillo"))
+                .andExpect(jsonPath("$[*].id").value(not(hasItem(tamarillo.getCropID()))));
+        mockMvc.perform(get("/api/search").param("q", "zikiwano"))
+                .andExpect(jsonPath("$[0].id").value(kiwano.getCropID()));
+    }
+}
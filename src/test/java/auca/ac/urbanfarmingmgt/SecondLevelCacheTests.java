@@ -0,0 +1,179 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Counts SQL round trips for repeated farm -> crops -> inventory traversals with and without the second-level cache,
+// and checks that the query cache and entity regions are invalidated by writes
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheTests.class);
+
+    private static final int FARMS = 4;
+    private static final int CROPS_PER_FARM = 5;
+    private static final int ROUNDS = 5;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    private Statistics statistics;
+
+    private final List<Integer> farmIds = new ArrayList<>();
+    private Inventory inventory;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(500.0).stock(500).produceType("Cabbage").storageLocation("Cached store").build());
+        for (int f = 0; f < FARMS; f++) {
+            Farm farm = farmRepository.save(Farm.builder().name("L2 farm " + f).location("Nyagatare").build());
+            farmIds.add(farm.getFarmID());
+            for (int c = 0; c < CROPS_PER_FARM; c++) {
+                cropRepository.save(Crop.builder().cropType("Cabbage").growingSeason("L2 season")
+                        .farm(farm).inventory(inventory).build());
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        farmIds.forEach(farmService::deleteFarm);
+        inventoryRepository.deleteById(inventory.getInventoryID());
+    }
+
+    @Test
+    void repeatedTraversalsSkipTheDatabase() throws Exception {
+        traverse(CacheMode.NORMAL);
+
+        long uncachedStatements = 0;
+        long cachedStatements = 0;
+        long uncachedNanos = 0;
+        long cachedNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            statistics.clear();
+            long startedAt = System.nanoTime();
+            traverse(CacheMode.IGNORE);
+            uncachedNanos += System.nanoTime() - startedAt;
+            uncachedStatements += statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            startedAt = System.nanoTime();
+            traverse(CacheMode.NORMAL);
+            cachedNanos += System.nanoTime() - startedAt;
+            cachedStatements += statistics.getPrepareStatementCount();
+        }
+
+        log.info("{} traversals of {} farms: without second-level cache {} statements in {} ms, with it {} statements in {} ms",
+                ROUNDS, FARMS, uncachedStatements, uncachedNanos / 1_000_000, cachedStatements, cachedNanos / 1_000_000);
+
+        // Without the cache every traversal goes back to the database for at least each farm row
+        assertThat(uncachedStatements).isGreaterThanOrEqualTo((long) ROUNDS * FARMS);
+        assertThat(cachedStatements).isZero();
+
+        mockMvc.perform(get("/api/caches/regions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].region").value(hasItem("farms")))
+                .andExpect(jsonPath("$[*].region").value(hasItem("farm-crops")))
+                .andExpect(jsonPath("$[*].region").value(hasItem("inventory")));
+    }
+
+    @Test
+    void writesInvalidateCachedEntitiesAndQueries() throws Exception {
+        assertThat(readQuantity()).isEqualTo(500.0);
+        // A bulk UPDATE evicts the inventory region, so the next read sees the new quantity
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                inventoryRepository.decrementQuantityIfAvailable(inventory.getInventoryID(), 25.0));
+        assertThat(readQuantity()).isEqualTo(475.0);
+
+        mockMvc.perform(get("/api/crops/season/L2 season")).andExpect(status().isOk());
+        statistics.clear();
+        mockMvc.perform(get("/api/crops/season/L2 season"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(FARMS * CROPS_PER_FARM));
+        assertThat(statistics.getPrepareStatementCount()).as("statements for a repeated finder").isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        // Writing the Crops table makes the cached result stale
+        cropRepository.save(Crop.builder().cropType("Cabbage").growingSeason("L2 season")
+                .farm(farmRepository.getReferenceById(farmIds.getFirst())).inventory(inventory).build());
+        mockMvc.perform(get("/api/crops/season/L2 season"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(FARMS * CROPS_PER_FARM + 1));
+    }
+
+    // Loads every farm, walks its crops and reads each crop's inventory in a fresh persistence context
+    private void traverse(CacheMode cacheMode) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setCacheMode(cacheMode);
+            for (Integer farmId : farmIds) {
+                Farm farm = entityManager.find(Farm.class, farmId);
+                for (Crop crop : farm.getCrops()) {
+                    assertThat(crop.getInventory().getQuantity()).isNotNull();
+                }
+            }
+        });
+    }
+
+    private Double readQuantity() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.find(Inventory.class, inventory.getInventoryID()).getQuantity());
+    }
+}
@@ -0,0 +1,187 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Services.CropService;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.SustainabilityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Feeds per-minute sensor readings through /api/sustainability/readings and checks the hourly, daily and farm rollups
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SensorReadingTests {
+
+    private static final Instant DAY = Instant.parse("2026-03-01T00:00:00Z");
+    private static final int MINUTES = 180;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private CropService cropService;
+
+    @Autowired
+    private SustainabilityService sustainabilityService;
+
+    private Farm farm;
+    private Crop lettuce;
+    private Crop kale;
+    private Inventory inventory;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Sensor farm").location("Rubavu").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(0.0).stock(0).produceType("Greens").storageLocation("Sensor store").build());
+        lettuce = cropRepository.save(Crop.builder().cropType("Lettuce").farm(farm).inventory(inventory).build());
+        kale = cropRepository.save(Crop.builder().cropType("Kale").farm(farm).inventory(inventory).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryRepository.deleteById(inventory.getInventoryID());
+    }
+
+    @Test
+    void readingsAreDownsampledIntoHourlyDailyAndFarmRollups() throws Exception {
+        // One reading a minute for three hours on each bed; water usage counts up 1..60 within every hour
+        String body = IntStream.range(0, MINUTES).boxed()
+                .flatMap(minute -> Stream.of(lettuce, kale).map(crop -> "{\"cropID\":" + crop.getCropID() +
+                        ",\"recordedAt\":\"" + DAY.plus(minute, ChronoUnit.MINUTES) + "\"" +
+                        ",\"waterUsage\":" + (minute % 60 + 1) + ",\"soilHealth\":8.0}"))
+                .collect(Collectors.joining("\n"));
+
+        mockMvc.perform(post("/api/sustainability/readings").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(MINUTES * 2))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        mockMvc.perform(get("/api/sustainability/readings/farm/" + farm.getFarmID() + "/rollups")
+                        .param("cropId", lettuce.getCropID().toString())
+                        .param("from", DAY.toString())
+                        .param("to", DAY.plus(1, ChronoUnit.DAYS).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].readingCount").value(60))
+                .andExpect(jsonPath("$[0].minWaterUsage").value(1.0))
+                .andExpect(jsonPath("$[0].maxWaterUsage").value(60.0))
+                .andExpect(jsonPath("$[0].averageWaterUsage").value(30.5));
+
+        mockMvc.perform(get("/api/sustainability/readings/farm/" + farm.getFarmID() + "/rollups")
+                        .param("granularity", "DAILY")
+                        .param("from", DAY.toString())
+                        .param("to", DAY.plus(1, ChronoUnit.DAYS).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].readingCount").value(MINUTES))
+                .andExpect(jsonPath("$[1].readingCount").value(MINUTES));
+
+        // Farm averages and score now come from the rollup that counted every reading
+        assertThat(sustainabilityService.getFarmMetricAverages(farm.getFarmID())).hasValueSatisfying(averages -> {
+            assertThat(averages.metricCount()).isEqualTo(MINUTES * 2L);
+            assertThat(averages.averageWaterUsage()).isEqualTo(30.5);
+            assertThat(averages.averageSoilHealth()).isEqualTo(8.0);
+        });
+
+        // Deleting a crop drops its readings from the buckets and the farm rollup
+        cropService.deleteCrop(kale.getCropID());
+        assertThat(sustainabilityService.getFarmMetricAverages(farm.getFarmID()))
+                .hasValueSatisfying(averages -> assertThat(averages.metricCount()).isEqualTo(MINUTES));
+    }
+
+    @Test
+    void concurrentFirstMetricsOfAFarmShareOneRollupRow() throws Exception {
+        int writers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+
+        // The farm has no rollup row yet, so every writer finds it missing and creates it at the same moment
+        for (int i = 0; i < writers; i++) {
+            writes.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                sustainabilityService.saveSustainabilityMetric(SustainabilityMetric.builder()
+                        .farm(farm).crop(lettuce).waterUsage(2.0).soilHealth(7.0).build());
+            }, pool));
+        }
+        start.countDown();
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        assertThat(sustainabilityService.getFarmMetricAverages(farm.getFarmID()))
+                .hasValueSatisfying(averages -> assertThat(averages.metricCount()).isEqualTo(writers));
+    }
+
+    @Test
+    void csvUploadsReportBadRows() throws Exception {
+        String body = "cropID,recordedAt,waterUsage,soilHealth\n" +
+                lettuce.getCropID() + "," + DAY + ",2.0,7.5\n" +
+                lettuce.getCropID() + "," + DAY + ",,\n" +
+                Integer.MAX_VALUE + "," + DAY + ",2.0,7.5\n" +
+                lettuce.getCropID() + "," + DAY + ",2.0\n" +
+                kale.getCropID() + "," + DAY + ",4.0,6.5\n";
+
+        mockMvc.perform(post("/api/sustainability/readings").contentType("text/csv").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(5))
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(4))
+                .andExpect(jsonPath("$.errors[1].row").value(2))
+                .andExpect(jsonPath("$.errors[1].message").value("At least one metric value is required"))
+                .andExpect(jsonPath("$.errors[2].row").value(3));
+
+        assertThat(sustainabilityService.calculateFarmSustainabilityScore(farm.getFarmID())).isNotNull();
+    }
+}
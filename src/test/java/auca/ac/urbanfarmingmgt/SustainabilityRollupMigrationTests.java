@@ -0,0 +1,106 @@
+package auca.ac.urbanfarmingmgt;
+
+import auca.ac.urbanfarmingmgt.Model.Crop;
+import auca.ac.urbanfarmingmgt.Model.Farm;
+import auca.ac.urbanfarmingmgt.Model.Inventory;
+import auca.ac.urbanfarmingmgt.Model.SustainabilityMetric;
+import auca.ac.urbanfarmingmgt.Repository.CropRepository;
+import auca.ac.urbanfarmingmgt.Repository.FarmRepository;
+import auca.ac.urbanfarmingmgt.Repository.InventoryRepository;
+import auca.ac.urbanfarmingmgt.Repository.SustainabilityMetricRepository;
+import auca.ac.urbanfarmingmgt.Services.FarmService;
+import auca.ac.urbanfarmingmgt.Services.InventoryService;
+import auca.ac.urbanfarmingmgt.Services.SustainabilityLeaderboardService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the backfill from the V3 migration over existing metrics and checks it builds the same rollup,
+// score included, as SustainabilityLeaderboardService.rebuildAll
+@SpringBootTest
+@ActiveProfiles("test")
+class SustainabilityRollupMigrationTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private SustainabilityMetricRepository metricRepository;
+
+    @Autowired
+    private SustainabilityLeaderboardService leaderboardService;
+
+    @Autowired
+    private FarmService farmService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Farm farm;
+    private Inventory inventory;
+
+    @BeforeEach
+    void seed() {
+        farm = farmRepository.save(Farm.builder().name("Rollup farm").location("Huye").build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .quantity(0.0).stock(0).produceType("Beans").storageLocation("Rollup store").build());
+        Crop crop = cropRepository.save(Crop.builder().cropType("Beans").farm(farm).inventory(inventory).build());
+
+        // Gaps in some readings, so each average has its own count
+        metricRepository.save(SustainabilityMetric.builder()
+                .waterUsage(2.0).soilHealth(7.0).pesticideApplication(1.0).energyUsage(4.0).farm(farm).crop(crop).build());
+        metricRepository.save(SustainabilityMetric.builder()
+                .waterUsage(4.0).soilHealth(9.0).farm(farm).crop(crop).build());
+        metricRepository.save(SustainabilityMetric.builder()
+                .energyUsage(6.0).farm(farm).crop(crop).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        farmService.deleteFarm(farm.getFarmID());
+        inventoryService.deleteInventory(inventory.getInventoryID());
+    }
+
+    @Test
+    void migrationBackfillMatchesARebuild() throws Exception {
+        leaderboardService.rebuildAll();
+        Map<String, Object> rebuilt = rollupRow();
+        assertThat(rebuilt.get("METRIC_COUNT")).isEqualTo(3L);
+
+        jdbcTemplate.update("delete from farm_sustainability_rollups");
+        jdbcTemplate.update(backfillStatement());
+
+        assertThat(rollupRow()).isEqualTo(rebuilt);
+    }
+
+    private Map<String, Object> rollupRow() {
+        return jdbcTemplate.queryForMap("select * from farm_sustainability_rollups where farmid = ?", farm.getFarmID());
+    }
+
+    // The insert at the end of the V3 migration, without its closing semicolon
+    private static String backfillStatement() throws Exception {
+        String migration = new ClassPathResource("db/migration/V3__farm_sustainability_rollups.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        String insert = migration.substring(migration.indexOf("insert into farm_sustainability_rollups"));
+        return insert.substring(0, insert.lastIndexOf(';'));
+    }
+}